@@ -0,0 +1,81 @@
+package immut;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Reads from a {@link JList} of {@code size} elements worn by as many random middle edits as it has elements
+ * ({@code worn}), and from the same list after {@link JList#compact()} ({@code compacted}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class CompactBench {
+
+    @Param({ "worn", "compacted" })
+    public String shape;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private JList<Integer> list;
+    private int[] indices;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        list = new JList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        var rnd = new Random(0);
+        for (int k = 0; k < size; k++) {
+            var i = rnd.nextInt(list.size());
+            if (k % 2 == 0) {
+                list.add(i, k);
+            } else {
+                list.remove(i);
+            }
+        }
+        switch (shape) {
+            case "worn" -> {}
+            case "compacted" -> list.compact();
+            default -> throw new IllegalArgumentException(shape);
+        }
+        indices = new int[1024];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = rnd.nextInt(size);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (indices.length - 1);
+        return indices[next];
+    }
+
+    @Benchmark
+    public Integer get() {
+        return list.get(nextIndex());
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (var v : list) {
+            bh.consume(v);
+        }
+    }
+
+    @Benchmark
+    public JList<Integer> compact() {
+        var l = new JList<>(list);
+        l.compact();
+        return l;
+    }
+
+}
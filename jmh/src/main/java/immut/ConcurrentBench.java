@@ -0,0 +1,53 @@
+package immut;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * One list shared by all benchmark threads (set the count with {@code -t}): appends only, and a mix of one
+ * append to nine reads at random indices. The list starts over with every iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentBench {
+
+    @Param({ "ConcurrentJList", "StripedJList", "synchronizedList", "CopyOnWriteArrayList" })
+    public String impl;
+
+    private List<Integer> list;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        list = switch (impl) {
+            case "ConcurrentJList" -> new ConcurrentJList<>();
+            case "StripedJList" -> new StripedJList<>();
+            case "synchronizedList" -> Collections.synchronizedList(new ArrayList<>());
+            case "CopyOnWriteArrayList" -> new CopyOnWriteArrayList<>();
+            default -> throw new IllegalArgumentException(impl);
+        };
+        list.add(0);
+    }
+
+    @Benchmark
+    public boolean add() {
+        return list.add(1);
+    }
+
+    @Benchmark
+    public Integer mixed() {
+        var rnd = ThreadLocalRandom.current();
+        if (rnd.nextInt(10) == 0) {
+            list.add(1);
+            return 1;
+        }
+        return list.get(rnd.nextInt(list.size()));
+    }
+
+}
@@ -0,0 +1,53 @@
+package immut;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * {@link JDeque} against {@link ArrayDeque} and {@link LinkedList} holding {@code size} elements: one queue
+ * step (offer at the back, poll at the front) and one stack step (push and pop at the front).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class DequeBench {
+
+    @Param({ "JDeque", "ArrayDeque", "LinkedList" })
+    public String impl;
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    public int size;
+
+    private Deque<Integer> deque;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        deque = switch (impl) {
+            case "JDeque" -> new JDeque<>();
+            case "ArrayDeque" -> new ArrayDeque<>();
+            case "LinkedList" -> new LinkedList<>();
+            default -> throw new IllegalArgumentException(impl);
+        };
+        for (int i = 0; i < size; i++) {
+            deque.addLast(i);
+        }
+    }
+
+    @Benchmark
+    public Integer queue() {
+        deque.offerLast(-1);
+        return deque.pollFirst();
+    }
+
+    @Benchmark
+    public Integer stack() {
+        deque.push(-1);
+        return deque.pop();
+    }
+
+}
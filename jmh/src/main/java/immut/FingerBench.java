@@ -0,0 +1,83 @@
+package immut;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+import java.util.concurrent.*;
+
+/**
+ * The persistent primitives of {@link Utils} on a tree of {@code size} elements. Every operation returns a
+ * new root and leaves the prepared one untouched, so no per-invocation reset is needed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class FingerBench {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    public int size;
+
+    private Finger<Integer> finger;
+    private int[] indices;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var values = new Object[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+        finger = Utils.fromArray(values);
+        var rnd = ThreadLocalRandom.current();
+        indices = new int[1024];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = rnd.nextInt(size);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (indices.length - 1);
+        return indices[next];
+    }
+
+    @Benchmark
+    public Finger<Integer> pushLeft() {
+        return Utils.pushLeft(finger, -1);
+    }
+
+    @Benchmark
+    public Finger<Integer> pushRight() {
+        return Utils.pushRight(finger, -1);
+    }
+
+    @Benchmark
+    public Finger<Integer> popLeft(Blackhole bh) {
+        return Utils.popLeft(finger, bh::consume);
+    }
+
+    @Benchmark
+    public Finger<Integer> popRight(Blackhole bh) {
+        return Utils.popRight(finger, bh::consume);
+    }
+
+    @Benchmark
+    public void split(Blackhole bh) {
+        var sp = Utils.split(finger, nextIndex());
+        bh.consume(sp.left());
+        bh.consume(sp.right());
+    }
+
+    @Benchmark
+    public Finger<Integer> merge() {
+        return Utils.merge(finger, finger);
+    }
+
+    @Benchmark
+    public Integer indexGet() {
+        return Utils.indexGet(finger, nextIndex());
+    }
+
+}
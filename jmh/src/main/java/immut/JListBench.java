@@ -0,0 +1,95 @@
+package immut;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The {@link JList} operations without a {@link List} counterpart on a list of {@code size} elements: reading
+ * a page of {@value #PAGE} contiguous elements by {@code get}, {@code copyRange} and {@code getAll}, and
+ * building the list through {@code add} or through a transient session.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class JListBench {
+
+    static final int PAGE = 1000;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private JList<Integer> list;
+    private int[] pageIndices;
+    private final Object[] page = new Object[PAGE];
+    private int[] starts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var t = new JList<Integer>().asTransient();
+        for (int i = 0; i < size; i++) {
+            t.add(i);
+        }
+        list = t.persistent();
+        pageIndices = new int[PAGE];
+        var rnd = ThreadLocalRandom.current();
+        starts = new int[1024];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = rnd.nextInt(size - PAGE + 1);
+        }
+    }
+
+    private int nextStart() {
+        next = (next + 1) & (starts.length - 1);
+        return starts[next];
+    }
+
+    @Benchmark
+    public Object[] pageByGet() {
+        var from = nextStart();
+        for (int i = 0; i < PAGE; i++) {
+            page[i] = list.get(from + i);
+        }
+        return page;
+    }
+
+    @Benchmark
+    public Object[] pageByCopyRange() {
+        var from = nextStart();
+        list.copyRange(from, from + PAGE, page, 0);
+        return page;
+    }
+
+    @Benchmark
+    public List<Integer> pageByGetAll() {
+        var from = nextStart();
+        for (int i = 0; i < PAGE; i++) {
+            pageIndices[i] = from + i;
+        }
+        return list.getAll(pageIndices);
+    }
+
+    @Benchmark
+    public JList<Integer> buildByAdd() {
+        var l = new JList<Integer>();
+        for (int i = 0; i < size; i++) {
+            l.add(i);
+        }
+        return l;
+    }
+
+    @Benchmark
+    public JList<Integer> buildByTransient() {
+        var t = new JList<Integer>().asTransient();
+        for (int i = 0; i < size; i++) {
+            t.add(i);
+        }
+        return t.persistent();
+    }
+
+}
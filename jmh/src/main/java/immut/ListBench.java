@@ -0,0 +1,119 @@
+package immut;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * {@link JList}, {@link ChunkedJList} and {@link IntJList} against the JDK lists on the {@link List}
+ * operations, each run on a list of {@code size} elements. Mutating benchmarks undo their change in the same
+ * invocation so the size stays put.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class ListBench {
+
+    @Param({ "JList", "ChunkedJList", "IntJList", "ArrayList", "LinkedList" })
+    public String impl;
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    public int size;
+
+    private List<Integer> list;
+    private List<Integer> source;
+    private int[] indices;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        source = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            source.add(i);
+        }
+        list = create();
+        list.addAll(source);
+        var rnd = ThreadLocalRandom.current();
+        indices = new int[1024];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = rnd.nextInt(size);
+        }
+    }
+
+    private List<Integer> create() {
+        return switch (impl) {
+            case "JList" -> new JList<>();
+            case "ChunkedJList" -> new ChunkedJList<>();
+            case "IntJList" -> new IntJList();
+            case "ArrayList" -> new ArrayList<>();
+            case "LinkedList" -> new LinkedList<>();
+            default -> throw new IllegalArgumentException(impl);
+        };
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (indices.length - 1);
+        return indices[next];
+    }
+
+    @Benchmark
+    public Integer get() {
+        return list.get(nextIndex());
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (var v : list) {
+            bh.consume(v);
+        }
+    }
+
+    // the last element, then one that is missing: both scan the whole list
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf(size - 1);
+    }
+
+    @Benchmark
+    public boolean containsMissing() {
+        return list.contains(-1);
+    }
+
+    @Benchmark
+    public int lastIndexOf() {
+        return list.lastIndexOf(0);
+    }
+
+    @Benchmark
+    public Object[] toArray() {
+        return list.toArray();
+    }
+
+    @Benchmark
+    public Integer addRemoveAt() {
+        var i = nextIndex();
+        list.add(i, -1);
+        return list.remove(i);
+    }
+
+    @Benchmark
+    public Integer removeAddAt() {
+        var i = nextIndex();
+        var v = list.remove(i);
+        list.add(i, v);
+        return v;
+    }
+
+    @Benchmark
+    public List<Integer> addAll() {
+        var l = create();
+        l.addAll(source);
+        return l;
+    }
+
+}
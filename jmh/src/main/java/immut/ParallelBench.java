@@ -0,0 +1,67 @@
+package immut;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+/**
+ * Parallel streams in a {@link ForkJoinPool} of {@code parallelism} workers: the sum over a list of
+ * {@code size} elements, which splits its spliterator, and collecting a range into a list with
+ * {@link JList#toJList()} or {@link Collectors#toList()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ParallelBench {
+
+    @Param({ "JList", "ArrayList" })
+    public String impl;
+
+    @Param({ "1", "2", "4", "8" })
+    public int parallelism;
+
+    @Param({ "1000000" })
+    public int size;
+
+    private List<Integer> list;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var values = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(i);
+        }
+        list = switch (impl) {
+            case "JList" -> new JList<>(values);
+            case "ArrayList" -> values;
+            default -> throw new IllegalArgumentException(impl);
+        };
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long sum() throws Exception {
+        return pool.submit(() -> list.parallelStream().mapToLong(i -> i).sum()).get();
+    }
+
+    @Benchmark
+    public List<Integer> collect() throws Exception {
+        Collector<Integer, ?, ? extends List<Integer>> collector = switch (impl) {
+            case "JList" -> JList.toJList();
+            default -> Collectors.toList();
+        };
+        return pool.submit(() -> IntStream.range(0, size).parallel().boxed().collect(collector)).get();
+    }
+
+}
@@ -0,0 +1,81 @@
+package immut;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+/**
+ * End operations on one fixed version of a {@link JList}, copied before every invocation, so that a change
+ * the spine left suspended is forced again each time. The version has the largest size {@code 5, 20, 65, ...}
+ * up to {@code size}, shaped by {@code shape}:
+ * <ul>
+ *     <li>{@code full}: pushed to the right only, every right digit is full and an add overflows on every
+ *     level;</li>
+ *     <li>{@code thin}: pushed to the left only, every right digit holds one node and a pop borrows on every
+ *     level;</li>
+ *     <li>{@code calm}: {@code full} less its last element, where neither happens.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class SpineBench {
+
+    @Param({ "full", "thin", "calm" })
+    public String shape;
+
+    @Param({ "1000", "100000", "10000000" })
+    public int size;
+
+    private JList<Integer> version;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int n = 5;
+        while (n * 3 + 5 <= size) {
+            n = n * 3 + 5;
+        }
+        version = new JList<>();
+        for (int i = 0; i < n; i++) {
+            switch (shape) {
+                case "full", "calm" -> version.addLast(i);
+                case "thin" -> version.addFirst(i);
+                default -> throw new IllegalArgumentException(shape);
+            }
+        }
+        if (shape.equals("calm")) {
+            version.removeLast();
+        }
+    }
+
+    @Benchmark
+    public Integer add() {
+        var l = new JList<>(version);
+        l.add(-1);
+        return l.get(l.size() - 33);
+    }
+
+    // the second pop empties the digit the add made, which forces the spine the add left suspended
+    @Benchmark
+    public Integer addPopPop() {
+        var l = new JList<>(version);
+        l.add(-1);
+        l.removeLast();
+        l.removeLast();
+        return l.getLast();
+    }
+
+    // every pop after the first forces the spine the one before it left suspended
+    @Benchmark
+    public Integer popPopPop() {
+        var l = new JList<>(version);
+        l.removeLast();
+        l.removeLast();
+        l.removeLast();
+        return l.getLast();
+    }
+
+}
@@ -0,0 +1,105 @@
+package immut;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Keeping many versions of a list of {@code size} elements. {@code write*} and {@code readShared} store
+ * {@value #VERSIONS} versions, each {@value #EDITS} random sets away from the one before, as flat ints or
+ * through {@link FingerWriter}; the {@code set*} benchmarks make one edit and keep the last
+ * {@value #VERSIONS} states, by copying an {@link ArrayList} or in a {@link VersionedJList}. Run with
+ * {@code -prof gc} for the bytes each way allocates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class VersionBench {
+
+    static final int VERSIONS = 100;
+    static final int EDITS = 100;
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    private List<JList<Integer>> versions;
+    private byte[] shared;
+    private Random rnd;
+    private ArrayList<Integer> doc;
+    private ArrayDeque<List<Integer>> checkpoints;
+    private VersionedJList<Integer> versioned;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        rnd = new Random(0);
+        var l = new JList<Integer>();
+        for (int i = 0; i < size; i++) {
+            l.add(i);
+        }
+        versions = new ArrayList<>();
+        for (int v = 0; v < VERSIONS; v++) {
+            for (int k = 0; k < EDITS; k++) {
+                l.set(rnd.nextInt(size), k);
+            }
+            versions.add(new JList<>(l));
+        }
+        shared = writeShared().toByteArray();
+        doc = new ArrayList<>(l);
+        checkpoints = new ArrayDeque<>();
+        versioned = new VersionedJList<>(VERSIONS + 1, Long.MAX_VALUE);
+        versioned.addAll(l);
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writeFlat() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(new BufferedOutputStream(bytes))) {
+            for (var version : versions) {
+                out.writeInt(version.size());
+                for (var x : version) {
+                    out.writeInt(x);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writeShared() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new FingerWriter<>(bytes, Codec.ints())) {
+            for (var version : versions) {
+                writer.write(version);
+            }
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public List<JList<Integer>> readShared() {
+        return new FingerReader<>(ByteBuffer.wrap(shared), Codec.ints()).readAll();
+    }
+
+    @Benchmark
+    public int setByCopy() {
+        doc.set(rnd.nextInt(size), -1);
+        checkpoints.push(new ArrayList<>(doc));
+        if (checkpoints.size() > VERSIONS) {
+            checkpoints.removeLast();
+        }
+        return checkpoints.size();
+    }
+
+    @Benchmark
+    public long setVersioned() {
+        versioned.set(rnd.nextInt(size), -1);
+        return versioned.version();
+    }
+
+}
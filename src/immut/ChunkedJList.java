@@ -0,0 +1,418 @@
+package immut;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * List whose tree holds runs of up to {@value #CHUNK} elements per level 0 node instead of one.
+ * <p>
+ * The bottom level is made of {@link ObjChunk}s, so the tree has about {@code 1/CHUNK} of the nodes of a
+ * {@link JList} and an indexed read is a short descent ending in an array access. Both ends have an edge
+ * array that is filled in place and joins the tree as a whole chunk once full, so {@link #add} and
+ * {@link #addFirst} do not copy paths until then. Reads remember the last chunk they landed in, which makes
+ * a run of nearby {@link #get} calls O(1) each. {@link #split} and {@link #merge} cut and join at any index
+ * in O(log n), cutting a chunk in two where needed.
+ * <p>
+ * Not thread-safe; iterators see the contents at the time they were created.
+ */
+public class ChunkedJList <T> extends AbstractList<T> implements List<T> {
+
+    static final int CHUNK = 64;
+
+    static final class ObjChunk extends Finger.Chunk {
+        final Object[] values;
+
+        ObjChunk(Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int length() {
+            return values.length;
+        }
+
+        @Override
+        ObjChunk slice(int from, int to) {
+            return new ObjChunk(Arrays.copyOfRange(values, from, to));
+        }
+    }
+
+    public record Split<T>(ChunkedJList<T> left, ChunkedJList<T> right) {}
+
+    private Finger<ObjChunk> f = Finger.Empty.empty();
+    // head elements are head[CHUNK - headLen, CHUNK), tail elements tail[0, tailLen)
+    private Object[] head = new Object[CHUNK];
+    private int headLen;
+    private Object[] tail = new Object[CHUNK];
+    private int tailLen;
+    // the edge arrays are also read by an iterator, copy them before writing
+    private boolean headShared;
+    private boolean tailShared;
+    // last chunk a read landed in, valid while f is focusRoot
+    private Finger<ObjChunk> focusRoot;
+    private Object[] focus;
+    private int focusStart;
+
+    public ChunkedJList() {
+    }
+
+    public ChunkedJList(Collection<? extends T> c) {
+        var values = c.toArray();
+        fill(values, values.length);
+    }
+
+    private ChunkedJList(Finger<ObjChunk> f) {
+        this.f = f;
+    }
+
+    // replaces the contents by values[0, length): full chunks go to the tree, the rest to the tail
+    private void fill(Object[] values, int length) {
+        var full = length / CHUNK;
+        var chunks = new Object[full];
+        for (int i = 0; i < full; i++) {
+            chunks[i] = new ObjChunk(Arrays.copyOfRange(values, i * CHUNK, (i + 1) * CHUNK));
+        }
+        f = Utils.fromArray(chunks);
+        head = new Object[CHUNK];
+        headLen = 0;
+        tail = new Object[CHUNK];
+        tailLen = length - full * CHUNK;
+        headShared = false;
+        tailShared = false;
+        System.arraycopy(values, full * CHUNK, tail, 0, tailLen);
+    }
+
+    @Override
+    public int size() {
+        return headLen + f.size() + tailLen;
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size());
+        if (index < headLen) {
+            return (T ) head[CHUNK - headLen + index];
+        }
+        var idx = index - headLen;
+        var treeSize = f.size();
+        if (idx >= treeSize) {
+            return (T ) tail[idx - treeSize];
+        }
+        if (focusRoot == f && idx >= focusStart && idx - focusStart < focus.length) {
+            return (T ) focus[idx - focusStart];
+        }
+        var leaf = Chunks.locate(f, idx);
+        focusRoot = f;
+        focus = ((ObjChunk ) leaf.chunk()).values;
+        focusStart = idx - leaf.offset();
+        return (T ) focus[leaf.offset()];
+    }
+
+    @Override
+    public T set(int index, T value) {
+        Objects.checkIndex(index, size());
+        if (index < headLen) {
+            writableHead();
+            var at = CHUNK - headLen + index;
+            var old = head[at];
+            head[at] = value;
+            return (T ) old;
+        }
+        var idx = index - headLen;
+        var treeSize = f.size();
+        if (idx >= treeSize) {
+            writableTail();
+            var old = tail[idx - treeSize];
+            tail[idx - treeSize] = value;
+            return (T ) old;
+        }
+        var old = new Object[1];
+        f = Chunks.replaceLeaf(f, idx, (c, off) -> {
+            var values = ((ObjChunk ) c).values.clone();
+            old[0] = values[off];
+            values[off] = value;
+            return new ObjChunk(values);
+        });
+        return (T ) old[0];
+    }
+
+    @Override
+    public boolean add(T value) {
+        writableTail();
+        tail[tailLen] = value;
+        tailLen += 1;
+        if (tailLen == CHUNK) {
+            f = Utils.pushRight(f, new ObjChunk(tail));
+            tail = new Object[CHUNK];
+            tailLen = 0;
+        }
+        modCount += 1;
+        return true;
+    }
+
+    public void addFirst(T value) {
+        insertHead(0, value);
+        modCount += 1;
+    }
+
+    @Override
+    public void add(int index, T value) {
+        Objects.checkIndex(index, size() + 1);
+        modCount += 1;
+        if (index <= headLen) {
+            insertHead(index, value);
+            return;
+        }
+        var idx = index - headLen;
+        var treeSize = f.size();
+        if (idx >= treeSize) {
+            writableTail();
+            var at = idx - treeSize;
+            System.arraycopy(tail, at, tail, at + 1, tailLen - at);
+            tail[at] = value;
+            tailLen += 1;
+            if (tailLen == CHUNK) {
+                f = Utils.pushRight(f, new ObjChunk(tail));
+                tail = new Object[CHUNK];
+                tailLen = 0;
+            }
+            return;
+        }
+        var leaf = Chunks.locate(f, idx);
+        if (leaf.chunk().length() < CHUNK) {
+            f = Chunks.replaceLeaf(f, idx, (c, off) -> {
+                var values = ((ObjChunk ) c).values;
+                var newValues = new Object[values.length + 1];
+                System.arraycopy(values, 0, newValues, 0, off);
+                newValues[off] = value;
+                System.arraycopy(values, off, newValues, off + 1, values.length - off);
+                return new ObjChunk(newValues);
+            });
+            return;
+        }
+        // the chunk is full: cut the tree at idx and put the value in a chunk of its own
+        var sp = Chunks.split(f, idx);
+        f = Utils.merge(Utils.pushRight(sp.left(), new ObjChunk(new Object[] { value })), sp.right());
+    }
+
+    private void insertHead(int index, T value) {
+        writableHead();
+        var start = CHUNK - headLen;
+        System.arraycopy(head, start, head, start - 1, index);
+        head[start - 1 + index] = value;
+        headLen += 1;
+        if (headLen == CHUNK) {
+            f = Utils.pushLeft(f, new ObjChunk(head));
+            head = new Object[CHUNK];
+            headLen = 0;
+        }
+    }
+
+    @Override
+    public T remove(int index) {
+        Objects.checkIndex(index, size());
+        modCount += 1;
+        if (index < headLen) {
+            writableHead();
+            var start = CHUNK - headLen;
+            var old = head[start + index];
+            System.arraycopy(head, start, head, start + 1, index);
+            head[start] = null;
+            headLen -= 1;
+            return (T ) old;
+        }
+        var idx = index - headLen;
+        var treeSize = f.size();
+        if (idx >= treeSize) {
+            writableTail();
+            var at = idx - treeSize;
+            var old = tail[at];
+            System.arraycopy(tail, at + 1, tail, at, tailLen - at - 1);
+            tailLen -= 1;
+            tail[tailLen] = null;
+            return (T ) old;
+        }
+        var leaf = Chunks.locate(f, idx);
+        var old = ((ObjChunk ) leaf.chunk()).values[leaf.offset()];
+        if (leaf.chunk().length() > 1) {
+            f = Chunks.replaceLeaf(f, idx, (c, off) -> {
+                var values = ((ObjChunk ) c).values;
+                var newValues = new Object[values.length - 1];
+                System.arraycopy(values, 0, newValues, 0, off);
+                System.arraycopy(values, off + 1, newValues, off, values.length - off - 1);
+                return new ObjChunk(newValues);
+            });
+        } else {
+            f = Chunks.removeRange(f, idx, idx + 1);
+        }
+        return (T ) old;
+    }
+
+    @Override
+    public void clear() {
+        modCount += 1;
+        f = Finger.Empty.empty();
+        head = new Object[CHUNK];
+        headLen = 0;
+        tail = new Object[CHUNK];
+        tailLen = 0;
+        headShared = false;
+        tailShared = false;
+    }
+
+    /**
+     * Removes the elements {@code filter} accepts in one pass, rebuilding the chunks in linear time.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        var values = toArray();
+        int n = 0;
+        for (var v : values) {
+            if (!filter.test((T ) v)) {
+                values[n++] = v;
+            }
+        }
+        if (n == values.length) {
+            return false;
+        }
+        fill(values, n);
+        modCount += 1;
+        return true;
+    }
+
+    /**
+     * Moves the edge arrays into the tree so that the whole list is one finger of chunks.
+     */
+    private Finger<ObjChunk> flushed() {
+        if (headLen > 0) {
+            f = Utils.pushLeft(f, new ObjChunk(Arrays.copyOfRange(head, CHUNK - headLen, CHUNK)));
+            head = new Object[CHUNK];
+            headLen = 0;
+            headShared = false;
+        }
+        if (tailLen > 0) {
+            f = Utils.pushRight(f, new ObjChunk(Arrays.copyOf(tail, tailLen)));
+            tail = new Object[CHUNK];
+            tailLen = 0;
+            tailShared = false;
+        }
+        return f;
+    }
+
+    /**
+     * Splits into the elements before {@code index} and the rest in O(log n); this list is not changed.
+     */
+    public Split<T> split(int index) {
+        Objects.checkIndex(index, size() + 1);
+        var sp = Chunks.split(flushed(), index);
+        return new Split<>(new ChunkedJList<>(sp.left()), new ChunkedJList<>(sp.right()));
+    }
+
+    /**
+     * A list of the elements of this one followed by those of {@code other}, in O(log n).
+     */
+    public ChunkedJList<T> merge(ChunkedJList<T> other) {
+        return new ChunkedJList<>(Utils.merge(flushed(), other.flushed()));
+    }
+
+    private void writableHead() {
+        if (headShared) {
+            head = head.clone();
+            headShared = false;
+        }
+    }
+
+    private void writableTail() {
+        if (tailShared) {
+            tail = tail.clone();
+            tailShared = false;
+        }
+    }
+
+    /**
+     * Iterates over the contents at the time of the call; {@link Iterator#remove()} removes from this list.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        var root = f;
+        var h = head;
+        var hl = headLen;
+        var t = tail;
+        var tl = tailLen;
+        headShared = true;
+        tailShared = true;
+        return new Iterator<>() {
+            // the cursor yields whole chunks; stop asking once the tree's elements are used up
+            private final FingerIterator<ObjChunk> chunks = new FingerIterator<>(root, false);
+            private int treeLeft = root.size();
+            private Object[] cur = h;
+            private int pos = CHUNK - hl;
+            private int end = CHUNK;
+            private boolean inTail;
+            // elements passed before cur[0] (negative in the head, which starts at CHUNK - hl), elements
+            // removed through this iterator, and the elements passed at the last removal
+            private int before = hl - CHUNK;
+            private int removed;
+            private int removedAt;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return pos < end || treeLeft > 0 || (!inTail && tl > 0);
+            }
+
+            @Override
+            public T next() {
+                if (pos == end) {
+                    before += end;
+                    if (treeLeft > 0) {
+                        cur = chunks.next().values;
+                        treeLeft -= cur.length;
+                        end = cur.length;
+                    } else if (!inTail && tl > 0) {
+                        cur = t;
+                        end = tl;
+                        inTail = true;
+                    } else {
+                        before -= end;
+                        throw new NoSuchElementException();
+                    }
+                    pos = 0;
+                }
+                return (T ) cur[pos++];
+            }
+
+            @Override
+            public void remove() {
+                var passed = before + pos;
+                if (passed == removedAt) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                ChunkedJList.this.remove(passed - 1 - removed);
+                removed += 1;
+                removedAt = passed;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        for (int i = CHUNK - headLen; i < CHUNK; i++) {
+            action.accept((T ) head[i]);
+        }
+        Utils.orderlyMethod(f, c -> {
+            for (var v : c.values) {
+                action.accept((T ) v);
+            }
+        });
+        for (int i = 0; i < tailLen; i++) {
+            action.accept((T ) tail[i]);
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package immut;
+
+import java.util.*;
+
+/**
+ * Operations on trees whose level 0 nodes are {@link Finger.Chunk}s. Sizes already count chunk lengths, so
+ * {@link Utils#pushLeft}, {@link Utils#pushRight} and {@link Utils#merge} work unchanged; what needs chunk
+ * awareness is finding the element inside a chunk and cutting a chunk in two.
+ */
+final class Chunks {
+
+    private Chunks() {
+    }
+
+    record Leaf(Finger.Chunk chunk, int offset) {}
+
+    interface LeafOp {
+        /**
+         * The chunk replacing {@code chunk}, given the offset of the addressed element in it; may change length
+         * but must not be empty.
+         */
+        Finger.Chunk apply(Finger.Chunk chunk, int offset);
+    }
+
+    /**
+     * The chunk holding element {@code index} and the element's offset inside it.
+     */
+    static Leaf locate(Finger<?> finger, int index) {
+        Finger<?> cur = finger;
+        int idx = index;
+        int level = 0;
+        while (true) {
+            switch (cur) {
+                case Finger.Deep<?> v -> {
+                    var leftSize = v.left.size;
+                    if (idx < leftSize) {
+                        return digitLocate(v.left, idx, level);
+                    }
+                    idx -= leftSize;
+                    var deepSize = v.deepSize();
+                    if (idx < deepSize) {
+                        cur = v.deep();
+                        level += 1;
+                    } else {
+                        return digitLocate(v.right, idx - deepSize, level);
+                    }
+                }
+                case Finger.Single<?> v -> {
+                    if (level == 0) {
+                        return new Leaf((Finger.Chunk ) v.inner, idx);
+                    }
+                    return digitLocate((Finger.Digit<?> ) v.inner, idx, level - 1);
+                }
+                case Finger.Empty<?> v -> {
+                    throw new AssertionError();
+                }
+            }
+        }
+    }
+
+    static Leaf digitLocate(Finger.Digit<?> digit, int idx, int level) {
+        while (true) {
+            int i0 = 0;
+            int s;
+            while (idx >= (s = Utils.calcObjSize(digit.get(i0)))) {
+                idx -= s;
+                i0 += 1;
+            }
+            if (level == 0) {
+                return new Leaf((Finger.Chunk ) digit.get(i0), idx);
+            }
+            digit = (Finger.Digit<?> ) digit.get(i0);
+            level -= 1;
+        }
+    }
+
+    /**
+     * Replaces the chunk holding element {@code index} by {@code op}'s result, copying the path to it and
+     * fixing the sizes along the way.
+     */
+    static <T> Finger<T> replaceLeaf(Finger<T> finger, int index, LeafOp op) {
+        return replaceImpl(finger, index, 0, op);
+    }
+
+    static <T> Finger<T> replaceImpl(Finger<T> finger, int idx, int level, LeafOp op) {
+        switch (finger) {
+            case Finger.Deep<T> v -> {
+                var leftSize = v.left.size;
+                var deepSize = v.deepSize();
+                if (idx < leftSize) {
+                    return new Finger.Deep<>(digitReplace(v.left, idx, level, op), v.deep(), v.right);
+                } else if (idx < leftSize + deepSize) {
+                    return new Finger.Deep<>(v.left, replaceImpl(v.deep(), idx - leftSize, level + 1, op), v.right);
+                } else {
+                    return new Finger.Deep<>(v.left, v.deep(), digitReplace(v.right, idx - leftSize - deepSize, level, op));
+                }
+            }
+            case Finger.Single<T> v -> {
+                if (level == 0) {
+                    return new Finger.Single<>((T ) op.apply((Finger.Chunk ) v.inner, idx));
+                }
+                return new Finger.Single<>((T ) digitReplace((Finger.Digit<?> ) v.inner, idx, level - 1, op));
+            }
+            case Finger.Empty<T> v -> {
+                throw new AssertionError();
+            }
+        }
+    }
+
+    static <T> Finger.Digit<T> digitReplace(Finger.Digit<T> digit, int idx, int level, LeafOp op) {
+        int i0 = 0;
+        int s;
+        while (idx >= (s = Utils.calcObjSize(digit.get(i0)))) {
+            idx -= s;
+            i0 += 1;
+        }
+        Object node;
+        if (level == 0) {
+            node = op.apply((Finger.Chunk ) digit.get(i0), idx);
+        } else {
+            node = digitReplace((Finger.Digit<?> ) digit.get(i0), idx, level - 1, op);
+        }
+        return digit.with(i0, node, Utils.calcObjSize(node) - s);
+    }
+
+    /**
+     * {@link Utils#split} for chunk trees: a split point inside a chunk cuts that chunk in two.
+     */
+    static <T> Utils.EPair<Finger<T>> split(Finger<T> finger, int index) {
+        return Utils.splitImpl(finger, index, (i, d) -> {
+            var newLeft = new ArrayList<Object>();
+            var newRight = new ArrayList<Object>();
+            int less = i;
+            for (int i0 = 0; i0 < d.length(); i0++) {
+                var c = (Finger.Chunk ) d.get(i0);
+                var len = c.length();
+                if (less >= len) {
+                    newLeft.add(c);
+                    less -= len;
+                } else if (less == 0) {
+                    newRight.add(c);
+                } else {
+                    newLeft.add(c.slice(0, less));
+                    newRight.add(c.slice(less, len));
+                    less = 0;
+                }
+            }
+            Optional<Finger.Digit<T>> leftOut, rightOut;
+            if (newLeft.isEmpty()) {
+                leftOut = Optional.empty();
+            } else {
+                leftOut = Optional.of(Finger.Digit.of(newLeft.toArray()));
+            }
+            if (newRight.isEmpty()) {
+                rightOut = Optional.empty();
+            } else {
+                rightOut = Optional.of(Finger.Digit.of(newRight.toArray()));
+            }
+            return new Utils.EPair<>(leftOut, rightOut);
+        });
+    }
+
+    /**
+     * Removes the elements {@code [from, to)}.
+     */
+    static <T> Finger<T> removeRange(Finger<T> finger, int from, int to) {
+        var sp = split(finger, to);
+        var sp2 = split(sp.left(), from);
+        return Utils.merge(sp2.left(), sp.right());
+    }
+
+}
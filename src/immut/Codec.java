@@ -0,0 +1,59 @@
+package immut;
+
+import java.nio.*;
+import java.nio.charset.*;
+
+/**
+ * Turns elements into bytes and back, for sequences that live outside the heap ({@link MappedStore}) or are
+ * written to a stream ({@link FingerWriter}). {@code decode(encode(x))} must equal {@code x}. A codec is never
+ * given null: {@link FingerWriter} marks null elements itself, and {@link MappedStore} takes no nulls.
+ */
+public interface Codec<T> {
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+
+    static Codec<String> utf8() {
+        return new Codec<>() {
+            @Override
+            public byte[] encode(String value) {
+                return value.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    static Codec<Integer> ints() {
+        return new Codec<>() {
+            @Override
+            public byte[] encode(Integer value) {
+                return ByteBuffer.allocate(4).putInt(value).array();
+            }
+
+            @Override
+            public Integer decode(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getInt();
+            }
+        };
+    }
+
+    static Codec<Long> longs() {
+        return new Codec<>() {
+            @Override
+            public byte[] encode(Long value) {
+                return ByteBuffer.allocate(8).putLong(value).array();
+            }
+
+            @Override
+            public Long decode(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getLong();
+            }
+        };
+    }
+
+}
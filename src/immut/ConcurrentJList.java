@@ -0,0 +1,354 @@
+package immut;
+
+import java.lang.invoke.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import java.util.function.*;
+
+/**
+ * Thread-safe list over a persistent {@link Finger}.
+ * <p>
+ * Every mutation computes a new root from the current one and installs it with a compare-and-set, retrying
+ * with a short backoff when another writer won. Readers never block and never see a partial update: reads,
+ * iterators and streams work on the root they loaded, and {@link #snapshot()} hands that root out as an
+ * immutable list. Writes cost O(log n) instead of the O(n) copy of {@code CopyOnWriteArrayList}. Writes
+ * through {@link #subList} views and list iterators do not retry: they fail if the list changed under them.
+ */
+public class ConcurrentJList <T> extends AbstractList<T> implements List<T> {
+
+    private static final VarHandle ROOT;
+
+    static {
+        try {
+            ROOT = MethodHandles.lookup().findVarHandle(ConcurrentJList.class, "root", Finger.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Finger<T> root = Finger.Empty.empty();
+
+    public ConcurrentJList() {
+    }
+
+    public ConcurrentJList(Collection<? extends T> c) {
+        root = Utils.fromArray(c.toArray());
+    }
+
+    /**
+     * Applies {@code op} to the current root until the result is installed, returns the root it was applied to.
+     * {@code op} must be free of side effects other than recording its result, it may run more than once.
+     */
+    private Finger<T> update(UnaryOperator<Finger<T>> op) {
+        int failures = 0;
+        while (true) {
+            var cur = root;
+            var next = op.apply(cur);
+            if (next == cur || ROOT.compareAndSet(this, cur, next)) {
+                return cur;
+            }
+            failures += 1;
+            backoff(failures);
+        }
+    }
+
+    private static void backoff(int failures) {
+        if (failures < 6) {
+            for (int i = 0; i < 1 << failures; i++) {
+                Thread.onSpinWait();
+            }
+        } else if (failures < 12) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(1L << Math.min(failures, 20));
+        }
+    }
+
+    /**
+     * The current contents as an immutable {@link Seq}; later updates of this list are not visible through it.
+     */
+    public Seq<T> snapshot() {
+        return new Seq<>(root);
+    }
+
+    @Override
+    public int size() {
+        return root.size();
+    }
+
+    @Override
+    public T get(int index) {
+        var local_f = root;
+        Objects.checkIndex(index, local_f.size());
+        return Utils.indexGet(local_f, index);
+    }
+
+    @Override
+    public boolean add(T t) {
+        update(cur -> Utils.pushRight(cur, t));
+        return true;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        update(cur -> {
+            Objects.checkIndex(index, cur.size() + 1);
+            return Utils.insert(cur, index, element);
+        });
+    }
+
+    @Override
+    public T set(int index, T element) {
+        var ans = new AtomicReference<T>();
+        update(cur -> {
+            Objects.checkIndex(index, cur.size());
+            ans.set(Utils.indexGet(cur, index));
+            return Utils.update(cur, index, element);
+        });
+        return ans.get();
+    }
+
+    @Override
+    public T remove(int index) {
+        var ans = new AtomicReference<T>();
+        update(cur -> {
+            Objects.checkIndex(index, cur.size());
+            return Utils.removeAt(cur, index, ans::set);
+        });
+        return ans.get();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        var found = new AtomicBoolean();
+        update(cur -> {
+            var i = Utils.indexOf(cur, o);
+            found.set(i >= 0);
+            return i < 0 ? cur : Utils.removeAt(cur, i, _ -> {});
+        });
+        return found.get();
+    }
+
+    /**
+     * Installs a root holding the elements of the current one that pass {@code keep}, rebuilt in linear time.
+     * {@code keep} may see an element more than once when another writer wins the race.
+     */
+    private boolean retain(Predicate<? super T> keep) {
+        var changed = new AtomicBoolean();
+        update(cur -> {
+            var values = new Object[cur.size()];
+            var n = new int[1];
+            Utils.orderlyMethod(cur, x -> {
+                if (keep.test(x)) {
+                    values[n[0]++] = x;
+                }
+            });
+            changed.set(n[0] != values.length);
+            return n[0] == values.length ? cur : Utils.fromArray(values, 0, n[0]);
+        });
+        return changed.get();
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        return retain(x -> !filter.test(x));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return retain(x -> !c.contains(x));
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return retain(c::contains);
+    }
+
+    /**
+     * Replaces every element in one atomic update; {@code operator} may run again on an element when another
+     * writer wins the race.
+     */
+    @Override
+    public void replaceAll(UnaryOperator<T> operator) {
+        Objects.requireNonNull(operator);
+        update(cur -> {
+            var values = new Object[cur.size()];
+            var n = new int[1];
+            Utils.orderlyMethod(cur, x -> values[n[0]++] = operator.apply(x));
+            return Utils.fromArray(values);
+        });
+    }
+
+    /**
+     * Sorts in one atomic update: concurrent adds land either before the sort, and are sorted with the rest,
+     * or after it.
+     */
+    @Override
+    public void sort(Comparator<? super T> c) {
+        update(cur -> {
+            var values = new Object[cur.size()];
+            var n = new int[1];
+            Utils.orderlyMethod(cur, x -> values[n[0]++] = x);
+            Arrays.sort(values, (Comparator<Object> ) c);
+            return Utils.fromArray(values);
+        });
+    }
+
+    @Override
+    public void clear() {
+        root = Finger.Empty.empty();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        Finger<T> f2 = Utils.fromArray(c.toArray());
+        if (f2.size() == 0) {
+            return false;
+        }
+        update(cur -> Utils.merge(cur, f2));
+        return true;
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends T> c) {
+        Finger<T> f2 = Utils.fromArray(c.toArray());
+        if (f2.size() == 0) {
+            Objects.checkIndex(index, size() + 1);
+            return false;
+        }
+        update(cur -> {
+            Objects.checkIndex(index, cur.size() + 1);
+            var sp = Utils.split(cur, index);
+            return Utils.merge(Utils.merge(sp.left(), f2), sp.right());
+        });
+        return true;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new FingerIterator<>(root, false);
+    }
+
+    /**
+     * Removes {@code [fromIndex, toIndex)} in one atomic update.
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        update(cur -> {
+            Objects.checkFromToIndex(fromIndex, toIndex, cur.size());
+            return removed(cur, fromIndex, toIndex);
+        });
+    }
+
+    private static <T> Finger<T> removed(Finger<T> f, int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return f;
+        }
+        var sp = Utils.split(f, toIndex);
+        return Utils.merge(Utils.split(sp.left(), fromIndex).left(), sp.right());
+    }
+
+    /**
+     * A view of {@code [fromIndex, toIndex)} of the current contents, see {@link #listIterator(int)}.
+     */
+    @Override
+    public List<T> subList(int fromIndex, int toIndex) {
+        var cur = root;
+        Objects.checkFromToIndex(fromIndex, toIndex, cur.size());
+        return new Window(cur, fromIndex, toIndex);
+    }
+
+    /**
+     * A list iterator over the current contents. Like {@link #subList} views it reads the version of the list
+     * it was created from, or last wrote itself, and never sees other writers; each of its writes is one
+     * compare-and-set from that version and throws {@link ConcurrentModificationException}, changing nothing,
+     * if another writer got in between.
+     */
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        var cur = root;
+        Objects.checkIndex(index, cur.size() + 1);
+        return new Window(cur, 0, cur.size()).listIterator(index);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new FingerSpliterator<>(root);
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        Utils.orderlyMethod(root, action::accept);
+    }
+
+    // elements [from, to) of the version `base`, written back with one compare-and-set per write
+    private final class Window extends AbstractList<T> {
+        private Finger<T> base;
+        private final int from;
+        private int to;
+
+        Window(Finger<T> base, int from, int to) {
+            this.base = base;
+            this.from = from;
+            this.to = to;
+        }
+
+        private void install(Finger<T> next) {
+            if (!ROOT.compareAndSet(ConcurrentJList.this, base, next)) {
+                throw new ConcurrentModificationException();
+            }
+            base = next;
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public T get(int index) {
+            Objects.checkIndex(index, to - from);
+            return Utils.indexGet(base, from + index);
+        }
+
+        @Override
+        public T set(int index, T element) {
+            Objects.checkIndex(index, to - from);
+            var old = Utils.indexGet(base, from + index);
+            install(Utils.update(base, from + index, element));
+            return old;
+        }
+
+        @Override
+        public void add(int index, T element) {
+            Objects.checkIndex(index, to - from + 1);
+            install(Utils.insert(base, from + index, element));
+            to += 1;
+            modCount += 1;
+        }
+
+        @Override
+        public T remove(int index) {
+            Objects.checkIndex(index, to - from);
+            var ans = new AtomicReference<T>();
+            install(Utils.removeAt(base, from + index, ans::set));
+            to -= 1;
+            modCount += 1;
+            return ans.get();
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            Objects.checkFromToIndex(fromIndex, toIndex, to - from);
+            install(removed(base, from + fromIndex, from + toIndex));
+            to -= toIndex - fromIndex;
+            modCount += 1;
+        }
+    }
+
+}
@@ -1,8 +1,10 @@
 package immut;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 import java.util.function.*;
+import java.util.random.*;
 import java.util.stream.*;
 
 public sealed interface Finger<T> {
@@ -34,38 +36,553 @@ public sealed interface Finger<T> {
 
     }
 
-    final class Digit<T> {
-        public int size;
-        public Object[] values;
+    /**
+     * One to four nodes and the number of elements below them. The outer digits of a {@link Deep} are
+     * digits, and so are the internal nodes of the tree: a level k node is a digit of level k - 1 nodes, two
+     * or three wide when built, one or two wide where a split cut through it.
+     * <p>
+     * Immutable. Each width is its own final class with one final field per node, so reading a node is a
+     * field load with no array in between; edits return a new digit.
+     */
+    abstract sealed class Digit<T> permits One, Two, Three, Four {
+        public final int size;
+
+        Digit(int size) {
+            this.size = size;
+        }
+
+        /**
+         * A digit of the one to four nodes {@code values[from, to)}, with its size counted.
+         */
+        public static <T> Digit<T> of(Object[] values, int from, int to) {
+            return switch (to - from) {
+                case 1 -> new One<>(values[from]);
+                case 2 -> new Two<>(values[from], values[from + 1]);
+                case 3 -> new Three<>(values[from], values[from + 1], values[from + 2]);
+                case 4 -> new Four<>(values[from], values[from + 1], values[from + 2], values[from + 3]);
+                default -> throw new IllegalArgumentException("digit of " + (to - from) + " nodes");
+            };
+        }
+
+        public static <T> Digit<T> of(Object... values) {
+            return of(values, 0, values.length);
+        }
+
+        /**
+         * A digit of the nodes {@code values[from, to)} whose size is already known.
+         */
+        static <T> Digit<T> of(Object[] values, int from, int to, int size) {
+            return switch (to - from) {
+                case 1 -> new One<>(values[from], size);
+                case 2 -> new Two<>(values[from], values[from + 1], size);
+                case 3 -> new Three<>(values[from], values[from + 1], values[from + 2], size);
+                case 4 -> new Four<>(values[from], values[from + 1], values[from + 2], values[from + 3], size);
+                default -> throw new IllegalArgumentException("digit of " + (to - from) + " nodes");
+            };
+        }
+
+        /**
+         * Number of nodes, one to four.
+         */
+        public abstract int length();
+
+        public abstract Object get(int i);
+
+        public abstract Object first();
+
+        public abstract Object last();
+
+        /**
+         * The nodes as a new array.
+         */
+        public abstract Object[] values();
+
+        /**
+         * The element at {@code idx} below this digit, whose nodes have level {@code level}. Each digit on
+         * the way picks its child from its own fields, so a step down is one call and no array access.
+         */
+        abstract Object elementAt(int idx, int level);
+
+        /**
+         * Copies the nodes to {@code out} from {@code at} on and returns how many there are.
+         */
+        final int copyTo(Object[] out, int at) {
+            // exact class tests in the order of how common the widths are, cheaper than a virtual call at
+            // the iterator's sites, which see every width
+            if (this instanceof Three<T> t) {
+                out[at] = t.a;
+                out[at + 1] = t.b;
+                out[at + 2] = t.c;
+                return 3;
+            }
+            if (this instanceof Two<T> t) {
+                out[at] = t.a;
+                out[at + 1] = t.b;
+                return 2;
+            }
+            if (this instanceof Four<T> t) {
+                out[at] = t.a;
+                out[at + 1] = t.b;
+                out[at + 2] = t.c;
+                out[at + 3] = t.d;
+                return 4;
+            }
+            out[at] = ((One<T> ) this).a;
+            return 1;
+        }
+
+        abstract void forEachNode(Consumer<Object> action);
+
+        // the edits below take the size of the node added or removed, so that nothing is counted twice
+
+        /**
+         * This digit with {@code node} in front; fewer than four nodes only.
+         */
+        abstract Digit<T> prepend(Object node, int nodeSize);
+
+        abstract Digit<T> append(Object node, int nodeSize);
+
+        /**
+         * This digit without its first node; two nodes or more only.
+         */
+        abstract Digit<T> dropFirst(int firstSize);
+
+        abstract Digit<T> dropLast(int lastSize);
+
+        /**
+         * This digit with the node at {@code i} replaced, {@code delta} being the change in size.
+         */
+        abstract Digit<T> with(int i, Object node, int delta);
 
         @Override
-        public boolean equals(Object obj) {
+        public final boolean equals(Object obj) {
             if (obj instanceof Finger.Digit<?> o) {
-                if (size != o.size) {
+                if (size != o.size || length() != o.length()) {
                     return false;
                 }
-                return Objects.deepEquals(values, o.values);
+                for (int i = 0; i < length(); i++) {
+                    if (!Objects.deepEquals(get(i), o.get(i))) {
+                        return false;
+                    }
+                }
+                return true;
             }
             return false;
         }
 
         @Override
-        public int hashCode() {
-            return Arrays.hashCode(values);
+        public final int hashCode() {
+            int h = 1;
+            for (int i = 0; i < length(); i++) {
+                h = 31 * h + Objects.hashCode(get(i));
+            }
+            return h;
+        }
+    }
+
+    final class One<T> extends Digit<T> {
+        final Object a;
+
+        public One(Object a, int size) {
+            super(size);
+            this.a = a;
+        }
+
+        public One(Object a) {
+            this(a, Utils.calcObjSize(a));
+        }
+
+        @Override
+        public int length() {
+            return 1;
+        }
+
+        @Override
+        public Object get(int i) {
+            if (i != 0) {
+                throw new IndexOutOfBoundsException(i);
+            }
+            return a;
+        }
+
+        @Override
+        public Object first() {
+            return a;
+        }
+
+        @Override
+        public Object last() {
+            return a;
+        }
+
+        @Override
+        public Object[] values() {
+            return new Object[] { a };
+        }
+
+        @Override
+        void forEachNode(Consumer<Object> action) {
+            action.accept(a);
+        }
+
+        @Override
+        Object elementAt(int idx, int level) {
+            return level == 0 ? a : ((Digit<?> ) a).elementAt(idx, level - 1);
+        }
+
+        @Override
+        Digit<T> prepend(Object node, int nodeSize) {
+            return new Two<>(node, a, nodeSize + size);
+        }
+
+        @Override
+        Digit<T> append(Object node, int nodeSize) {
+            return new Two<>(a, node, size + nodeSize);
+        }
+
+        @Override
+        Digit<T> dropFirst(int firstSize) {
+            throw new AssertionError();
+        }
+
+        @Override
+        Digit<T> dropLast(int lastSize) {
+            throw new AssertionError();
+        }
+
+        @Override
+        Digit<T> with(int i, Object node, int delta) {
+            if (i != 0) {
+                throw new IndexOutOfBoundsException(i);
+            }
+            return new One<>(node, size + delta);
+        }
+    }
+
+    final class Two<T> extends Digit<T> {
+        final Object a, b;
+
+        public Two(Object a, Object b, int size) {
+            super(size);
+            this.a = a;
+            this.b = b;
+        }
+
+        public Two(Object a, Object b) {
+            this(a, b, Utils.calcObjSize(a) + Utils.calcObjSize(b));
+        }
+
+        @Override
+        public int length() {
+            return 2;
+        }
+
+        @Override
+        public Object get(int i) {
+            return switch (i) {
+                case 0 -> a;
+                case 1 -> b;
+                default -> throw new IndexOutOfBoundsException(i);
+            };
+        }
+
+        @Override
+        public Object first() {
+            return a;
+        }
+
+        @Override
+        public Object last() {
+            return b;
+        }
+
+        @Override
+        public Object[] values() {
+            return new Object[] { a, b };
+        }
+
+        @Override
+        void forEachNode(Consumer<Object> action) {
+            action.accept(a);
+            action.accept(b);
+        }
+
+        @Override
+        Object elementAt(int idx, int level) {
+            if (level == 0) {
+                return idx == 0 ? a : b;
+            }
+            var n = (Digit<?> ) a;
+            if (idx >= n.size) {
+                idx -= n.size;
+                n = (Digit<?> ) b;
+            }
+            return n.elementAt(idx, level - 1);
+        }
+
+        @Override
+        Digit<T> prepend(Object node, int nodeSize) {
+            return new Three<>(node, a, b, nodeSize + size);
+        }
+
+        @Override
+        Digit<T> append(Object node, int nodeSize) {
+            return new Three<>(a, b, node, size + nodeSize);
+        }
+
+        @Override
+        Digit<T> dropFirst(int firstSize) {
+            return new One<>(b, size - firstSize);
+        }
+
+        @Override
+        Digit<T> dropLast(int lastSize) {
+            return new One<>(a, size - lastSize);
+        }
+
+        @Override
+        Digit<T> with(int i, Object node, int delta) {
+            return switch (i) {
+                case 0 -> new Two<>(node, b, size + delta);
+                case 1 -> new Two<>(a, node, size + delta);
+                default -> throw new IndexOutOfBoundsException(i);
+            };
+        }
+    }
+
+    final class Three<T> extends Digit<T> {
+        final Object a, b, c;
+
+        public Three(Object a, Object b, Object c, int size) {
+            super(size);
+            this.a = a;
+            this.b = b;
+            this.c = c;
+        }
+
+        public Three(Object a, Object b, Object c) {
+            this(a, b, c, Utils.calcObjSize(a) + Utils.calcObjSize(b) + Utils.calcObjSize(c));
+        }
+
+        @Override
+        public int length() {
+            return 3;
+        }
+
+        @Override
+        public Object get(int i) {
+            return switch (i) {
+                case 0 -> a;
+                case 1 -> b;
+                case 2 -> c;
+                default -> throw new IndexOutOfBoundsException(i);
+            };
+        }
+
+        @Override
+        public Object first() {
+            return a;
+        }
+
+        @Override
+        public Object last() {
+            return c;
+        }
+
+        @Override
+        public Object[] values() {
+            return new Object[] { a, b, c };
+        }
+
+        @Override
+        void forEachNode(Consumer<Object> action) {
+            action.accept(a);
+            action.accept(b);
+            action.accept(c);
+        }
+
+        @Override
+        Object elementAt(int idx, int level) {
+            if (level == 0) {
+                return idx == 0 ? a : idx == 1 ? b : c;
+            }
+            var n = (Digit<?> ) a;
+            if (idx >= n.size) {
+                idx -= n.size;
+                n = (Digit<?> ) b;
+                if (idx >= n.size) {
+                    idx -= n.size;
+                    n = (Digit<?> ) c;
+                }
+            }
+            return n.elementAt(idx, level - 1);
+        }
+
+        @Override
+        Digit<T> prepend(Object node, int nodeSize) {
+            return new Four<>(node, a, b, c, nodeSize + size);
+        }
+
+        @Override
+        Digit<T> append(Object node, int nodeSize) {
+            return new Four<>(a, b, c, node, size + nodeSize);
+        }
+
+        @Override
+        Digit<T> dropFirst(int firstSize) {
+            return new Two<>(b, c, size - firstSize);
+        }
+
+        @Override
+        Digit<T> dropLast(int lastSize) {
+            return new Two<>(a, b, size - lastSize);
+        }
+
+        @Override
+        Digit<T> with(int i, Object node, int delta) {
+            return switch (i) {
+                case 0 -> new Three<>(node, b, c, size + delta);
+                case 1 -> new Three<>(a, node, c, size + delta);
+                case 2 -> new Three<>(a, b, node, size + delta);
+                default -> throw new IndexOutOfBoundsException(i);
+            };
+        }
+    }
+
+    final class Four<T> extends Digit<T> {
+        final Object a, b, c, d;
+
+        public Four(Object a, Object b, Object c, Object d, int size) {
+            super(size);
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+        }
+
+        public Four(Object a, Object b, Object c, Object d) {
+            this(a, b, c, d, Utils.calcObjSize(a) + Utils.calcObjSize(b) + Utils.calcObjSize(c) + Utils.calcObjSize(d));
+        }
+
+        @Override
+        public int length() {
+            return 4;
+        }
+
+        @Override
+        public Object get(int i) {
+            return switch (i) {
+                case 0 -> a;
+                case 1 -> b;
+                case 2 -> c;
+                case 3 -> d;
+                default -> throw new IndexOutOfBoundsException(i);
+            };
+        }
+
+        @Override
+        public Object first() {
+            return a;
+        }
+
+        @Override
+        public Object last() {
+            return d;
+        }
+
+        @Override
+        public Object[] values() {
+            return new Object[] { a, b, c, d };
+        }
+
+        @Override
+        void forEachNode(Consumer<Object> action) {
+            action.accept(a);
+            action.accept(b);
+            action.accept(c);
+            action.accept(d);
+        }
+
+        @Override
+        Object elementAt(int idx, int level) {
+            if (level == 0) {
+                return idx == 0 ? a : idx == 1 ? b : idx == 2 ? c : d;
+            }
+            var n = (Digit<?> ) a;
+            if (idx >= n.size) {
+                idx -= n.size;
+                n = (Digit<?> ) b;
+                if (idx >= n.size) {
+                    idx -= n.size;
+                    n = (Digit<?> ) c;
+                    if (idx >= n.size) {
+                        idx -= n.size;
+                        n = (Digit<?> ) d;
+                    }
+                }
+            }
+            return n.elementAt(idx, level - 1);
+        }
+
+        @Override
+        Digit<T> prepend(Object node, int nodeSize) {
+            throw new AssertionError();
+        }
+
+        @Override
+        Digit<T> append(Object node, int nodeSize) {
+            throw new AssertionError();
+        }
+
+        @Override
+        Digit<T> dropFirst(int firstSize) {
+            return new Three<>(b, c, d, size - firstSize);
+        }
+
+        @Override
+        Digit<T> dropLast(int lastSize) {
+            return new Three<>(a, b, c, size - lastSize);
+        }
+
+        @Override
+        Digit<T> with(int i, Object node, int delta) {
+            return switch (i) {
+                case 0 -> new Four<>(node, b, c, d, size + delta);
+                case 1 -> new Four<>(a, node, c, d, size + delta);
+                case 2 -> new Four<>(a, b, node, d, size + delta);
+                case 3 -> new Four<>(a, b, c, node, size + delta);
+                default -> throw new IndexOutOfBoundsException(i);
+            };
         }
     }
 
+    /**
+     * Packed run of elements stored as one level 0 node; it counts as {@link #length()} elements in every size.
+     */
+    abstract class Chunk {
+
+        Chunk() {
+        }
+
+        public abstract int length();
+
+        /**
+         * The elements {@code [from, to)} as a new chunk.
+         */
+        abstract Chunk slice(int from, int to);
+    }
+
     final class Single<T> implements Finger<T> {
 
-        public T inner;
+        public final T inner;
+
+        public Single(T inner) {
+            this.inner = inner;
+        }
 
         @Override
         public int size() {
-            if (inner instanceof Finger.Digit<?> digitInner) {
-                return digitInner.size;
-            } else {
-                return 1;
-            }
+            return Utils.calcObjSize(inner);
         }
 
         @Override
@@ -82,14 +599,45 @@ public sealed interface Finger<T> {
         }
     }
 
+    /**
+     * Two digits around a spine of nodes one level up. The spine is read through {@link #deep()}: the end
+     * operations leave it suspended and it is computed, once, when first needed, which keeps them amortized
+     * O(1) even when the same version is pushed to or popped from over and over.
+     */
     final class Deep<T> implements Finger<T> {
-        public Digit<T> left;
-        public Finger<Digit<T>> deep;
-        public Digit<T> right;
-        public int size;
+        public final Digit<T> left;
+        // null while the spine is suspended, so only ever read through deep()
+        private final Finger<Digit<T>> deep;
+        public final Digit<T> right;
+        public final int size;
+        private final Utils.Suspension<T> suspended;
+
+        public Deep(Digit<T> left, Finger<Digit<T>> deep, Digit<T> right) {
+            this.left = left;
+            this.deep = deep;
+            this.right = right;
+            this.size = left.size + deep.size() + right.size;
+            this.suspended = null;
+        }
+
+        /**
+         * A node whose spine of {@code deepSize} elements is computed by {@code deep} on first use.
+         */
+        Deep(Digit<T> left, Supplier<Finger<Digit<T>>> deep, int deepSize, Digit<T> right) {
+            this.left = left;
+            this.deep = null;
+            this.right = right;
+            this.size = left.size + deepSize + right.size;
+            this.suspended = new Utils.Suspension<>(deep);
+        }
 
-        public void initSize() {
-            size = left.size + deep.size() + right.size;
+        public Finger<Digit<T>> deep() {
+            var s = suspended;
+            return s == null ? deep : s.force();
+        }
+
+        int deepSize() {
+            return size - left.size - right.size;
         }
 
         @Override
@@ -102,142 +650,119 @@ public sealed interface Finger<T> {
 
 class Utils {
 
+    /**
+     * Memoized spine of a lazy {@link Finger.Deep}: the first {@link #force()} runs the computation, later ones
+     * return its result.
+     * <p>
+     * The thunk of a node built by an end operation captures the node that operation was applied to, its
+     * older sibling at the same level, and forcing it first forces that sibling's spine, then runs the
+     * operation on the result, which may force suspensions inside that spine. Everything it reaches was
+     * reachable from the older sibling or is built from it during the force. Nodes are immutable and hold no
+     * reference to the versions derived from them, so none of that can lead back to this node or to anything
+     * newer: a thread holding this lock only waits for the locks of older suspensions, the wait-for graph
+     * is acyclic and forcing cannot deadlock.
+     */
+    static final class Suspension<T> {
+        private Supplier<Finger<Finger.Digit<T>>> thunk;
+        private volatile Finger<Finger.Digit<T>> value;
+
+        Suspension(Supplier<Finger<Finger.Digit<T>>> thunk) {
+            this.thunk = thunk;
+        }
+
+        Finger<Finger.Digit<T>> force() {
+            var v = value;
+            if (v == null) {
+                synchronized (this) {
+                    v = value;
+                    if (v == null) {
+                        v = thunk.get();
+                        value = v;
+                        thunk = null;
+                    }
+                }
+            }
+            return v;
+        }
+    }
+
     public static <T> int calcObjSize(T obj) {
         if (obj instanceof Finger.Digit<?> d) {
             return d.size;
+        } else if (obj instanceof Finger.Chunk c) {
+            return c.length();
         } else {
             return 1;
         }
     }
 
-    public static void updateDigitSize(Finger.Digit<?> digit) {
-        int calc = 0;
-        for (Object value : digit.values) {
-            calc += calcObjSize(value);
-        }
-        digit.size = calc;
-    }
-
     public static <T, O extends T> Finger<T> pushLeft(Finger<T> finger, O obj) {
         switch (finger) {
             case Finger.Deep<T> v -> {
-                int len = v.left.values.length;
-                if (len == 4) {
-                    var newLeft = new Finger.Digit<T>();
-                    newLeft.values = new Object[2];
-                    System.arraycopy(v.left.values, 0, newLeft.values, 1, 1);
-                    newLeft.values[0] = obj;
-                    updateDigitSize(newLeft);
-
-                    var nxtPushLeft = new Finger.Digit<T>();
-                    nxtPushLeft.values = new Object[3];
-                    System.arraycopy(v.left.values, 1, nxtPushLeft.values, 0, 3);
-                    updateDigitSize(nxtPushLeft);
-
-                    var newDeep = pushLeft(v.deep, nxtPushLeft);
-                    var newOut = new Finger.Deep<T>();
-                    newOut.left = newLeft;
-                    newOut.deep = newDeep;
-                    newOut.right = v.right;
-                    newOut.initSize();
-                    return newOut;
-                } else {
-                    var newLeft = new Finger.Digit<T>();
-                    newLeft.values = new Object[len + 1];
-                    System.arraycopy(v.left.values, 0, newLeft.values, 1, len);
-                    newLeft.values[0] = obj;
-                    updateDigitSize(newLeft);
-
-                    var newOut = new Finger.Deep<T>();
-                    newOut.left = newLeft;
-                    newOut.deep = v.deep;
-                    newOut.right = v.right;
-                    newOut.initSize();
-                    return newOut;
+                var objSize = calcObjSize(obj);
+                if (v.left instanceof Finger.Four<T> l) {
+                    // keep obj and the old first node, the other three move down as one node
+                    var first = calcObjSize(l.a);
+                    var newLeft = new Finger.Two<T>(obj, l.a, objSize + first);
+                    var down = new Finger.Three<T>(l.b, l.c, l.d, l.size - first);
+                    if (FingerStats.ENABLED) {
+                        FingerStats.pushCascade();
+                    }
+                    return new Finger.Deep<>(newLeft, () -> pushLeft(v.deep(), down), v.deepSize() + down.size, v.right);
                 }
+                return new Finger.Deep<>(v.left.prepend(obj, objSize), v.deep(), v.right);
             }
             case Finger.Empty<T> v -> {
-                var single = new Finger.Single<T>();
-                single.inner = obj;
-                return single;
+                return new Finger.Single<>(obj);
             }
             case Finger.Single<T> v -> {
-                var out = new Finger.Deep<T>();
-                var left = new Finger.Digit<T>();
-                left.values = new Object[] { obj };
-                updateDigitSize(left);
-
-                var right = new Finger.Digit<T>();
-                right.values = new Object[] { v.inner };
-                updateDigitSize(right);
-
-                out.left = left;
-                out.right = right;
-                out.deep = Finger.Empty.empty();
-                out.initSize();
-                return out;
+                return new Finger.Deep<>(new Finger.One<T>(obj), Finger.Empty.empty(), new Finger.One<T>(v.inner));
             }
         }
     }
 
+    // first and last node of a non-empty finger
+    static <T> T head(Finger<T> finger) {
+        return switch (finger) {
+            case Finger.Deep<T> v -> (T ) v.left.first();
+            case Finger.Single<T> v -> v.inner;
+            case Finger.Empty<T> v -> throw new NoSuchElementException();
+        };
+    }
+
+    static <T> T last(Finger<T> finger) {
+        return switch (finger) {
+            case Finger.Deep<T> v -> (T ) v.right.last();
+            case Finger.Single<T> v -> v.inner;
+            case Finger.Empty<T> v -> throw new NoSuchElementException();
+        };
+    }
+
     public static <T> Finger<T> popLeft(Finger<T> finger, Consumer<? super T> consume) {
         switch (finger) {
             case Finger.Deep<T> v -> {
-                var leftOne = (T ) v.left.values[0];
+                var leftOne = (T ) v.left.first();
                 consume.accept(leftOne);
 
-                if (v.left.values.length == 1) {
-                    // if deep is empty ...
-                    if (Objects.equals(v.deep, Finger.Empty.empty())) {
-                        // change to single or take a value from right ...
-                        if (v.right.values.length == 1) {
-                            var newSingle = new Finger.Single<T>();
-                            newSingle.inner = (T ) v.right.values[0];
-                            return newSingle;
-                        } else {
-                            var newLeft = new Finger.Digit<T>();
-                            newLeft.values = new Object[] { v.right.values[0] };
-                            updateDigitSize(newLeft);
-
-                            var newRight = new Finger.Digit<T>();
-                            newRight.values = new Object[v.right.values.length - 1];
-                            System.arraycopy(v.right.values, 1, newRight.values, 0, newRight.values.length);
-                            updateDigitSize(newRight);
-
-                            var newOut = new Finger.Deep<T>();
-                            newOut.left = newLeft;
-                            newOut.deep = Finger.Empty.empty();
-                            newOut.right = newRight;
-                            newOut.initSize();
-                            return newOut;
-                        }
-                    } else {
-                        // just pop from deep
-                        var getADigit = new AtomicReference<Finger.Digit<T>>();
-                        Consumer<Finger.Digit<T>> f = getADigit::set;
-                        var newDeep = popLeft(v.deep, f);
-                        var newLeft = getADigit.get();
-
-                        var newOut = new Finger.Deep<T>();
-                        newOut.left = newLeft;
-                        newOut.deep = newDeep;
-                        newOut.right = v.right;
-                        newOut.initSize();
-                        return newOut;
+                if (v.left.length() > 1) {
+                    return new Finger.Deep<>(v.left.dropFirst(calcObjSize(leftOne)), v.deep(), v.right);
+                }
+                var spine = v.deep();
+                if (!(spine instanceof Finger.Empty)) {
+                    // the first node of deep becomes the left digit, the rest of deep is left for later
+                    var first = head(spine);
+                    if (FingerStats.ENABLED) {
+                        FingerStats.popBorrow();
                     }
-                } else {
-                    var newLeft = new Finger.Digit<T>();
-                    newLeft.values = new Object[v.left.values.length - 1];
-                    System.arraycopy(v.left.values, 1, newLeft.values, 0, newLeft.values.length);
-                    updateDigitSize(newLeft);
-
-                    var newOut = new Finger.Deep<T>();
-                    newOut.left = newLeft;
-                    newOut.deep = v.deep;
-                    newOut.right = v.right;
-                    newOut.initSize();
-                    return newOut;
+                    return new Finger.Deep<T>(first, () -> popLeft(spine, _ -> {}), spine.size() - first.size, v.right);
                 }
+                // deep is empty: change to single or take a value from right
+                var r = v.right;
+                if (r.length() == 1) {
+                    return new Finger.Single<>((T ) r.first());
+                }
+                var newLeft = new Finger.One<T>(r.first());
+                return new Finger.Deep<>(newLeft, Finger.Empty.empty(), r.dropFirst(newLeft.size));
             }
             case Finger.Empty<T> v -> {
                 throw new RuntimeException();
@@ -252,61 +777,24 @@ class Utils {
     public static <T, O extends T> Finger<T> pushRight(Finger<T> finger, O obj) {
         switch (finger) {
             case Finger.Deep<T> v -> {
-                int len = v.right.values.length;
-                if (len == 4) {
-                    var newRight = new Finger.Digit<T>();
-                    newRight.values = new Object[2];
-                    System.arraycopy(v.right.values, 3, newRight.values, 0, 1);
-                    newRight.values[1] = obj;
-                    updateDigitSize(newRight);
-
-                    var nxtPushRight = new Finger.Digit<T>();
-                    nxtPushRight.values = new Object[3];
-                    System.arraycopy(v.right.values, 0, nxtPushRight.values, 0, 3);
-                    updateDigitSize(nxtPushRight);
-
-                    var newDeep = pushRight(v.deep, nxtPushRight);
-                    var newOut = new Finger.Deep<T>();
-                    newOut.left = v.left;
-                    newOut.deep = newDeep;
-                    newOut.right = newRight;
-                    newOut.initSize();
-                    return newOut;
-                } else {
-                    var newRight = new Finger.Digit<T>();
-                    newRight.values = new Object[len + 1];
-                    System.arraycopy(v.right.values, 0, newRight.values, 0, len);
-                    newRight.values[newRight.values.length - 1] = obj;
-                    updateDigitSize(newRight);
-
-                    var newOut = new Finger.Deep<T>();
-                    newOut.left = v.left;
-                    newOut.deep = v.deep;
-                    newOut.right = newRight;
-                    newOut.initSize();
-                    return newOut;
+                var objSize = calcObjSize(obj);
+                if (v.right instanceof Finger.Four<T> r) {
+                    // keep the old last node and obj, the other three move down as one node
+                    var last = calcObjSize(r.d);
+                    var newRight = new Finger.Two<T>(r.d, obj, last + objSize);
+                    var down = new Finger.Three<T>(r.a, r.b, r.c, r.size - last);
+                    if (FingerStats.ENABLED) {
+                        FingerStats.pushCascade();
+                    }
+                    return new Finger.Deep<T>(v.left, () -> pushRight(v.deep(), down), v.deepSize() + down.size, newRight);
                 }
+                return new Finger.Deep<>(v.left, v.deep(), v.right.append(obj, objSize));
             }
             case Finger.Empty<T> v -> {
-                var single = new Finger.Single<T>();
-                single.inner = obj;
-                return single;
+                return new Finger.Single<>(obj);
             }
             case Finger.Single<T> v -> {
-                var left = new Finger.Digit<T>();
-                left.values = new Object[] { v.inner };
-                updateDigitSize(left);
-
-                var right = new Finger.Digit<T>();
-                right.values = new Object[] { obj };
-                updateDigitSize(right);
-
-                var out = new Finger.Deep<T>();
-                out.left = left;
-                out.right = right;
-                out.deep = Finger.Empty.empty();
-                out.initSize();
-                return out;
+                return new Finger.Deep<>(new Finger.One<T>(v.inner), Finger.Empty.empty(), new Finger.One<T>(obj));
             }
         }
     }
@@ -315,61 +803,28 @@ class Utils {
     public static <T> Finger<T> popRight(Finger<T> finger, Consumer<? super T> consume) {
         switch (finger) {
             case Finger.Deep<T> v -> {
-                var rightOne = (T ) v.right.values[v.right.values.length - 1];
+                var rightOne = (T ) v.right.last();
                 consume.accept(rightOne);
 
-                if (v.right.values.length == 1) {
-                    // if deep is empty ...
-                    if (Objects.equals(v.deep, Finger.Empty.empty())) {
-                        // change to single or take a value from right ...
-                        if (v.left.values.length == 1) {
-                            var newSingle = new Finger.Single<T>();
-                            newSingle.inner = (T ) v.left.values[0];
-                            return newSingle;
-                        } else {
-                            var newRight = new Finger.Digit<T>();
-                            newRight.values = new Object[] { v.left.values[v.left.values.length - 1] };
-                            updateDigitSize(newRight);
-
-                            var newLeft = new Finger.Digit<T>();
-                            newLeft.values = new Object[v.left.values.length - 1];
-                            System.arraycopy(v.left.values, 0, newLeft.values, 0, newLeft.values.length);
-                            updateDigitSize(newLeft);
-
-                            var newOut = new Finger.Deep<T>();
-                            newOut.left = newLeft;
-                            newOut.deep = Finger.Empty.empty();
-                            newOut.right = newRight;
-                            newOut.initSize();
-                            return newOut;
-                        }
-                    } else {
-                        // just pop from deep
-                        var getADigit = new AtomicReference<Finger.Digit<T>>();
-                        Consumer<Finger.Digit<T>> f = getADigit::set;
-                        var newDeep = popRight(v.deep, f);
-                        var newRight = getADigit.get();
-
-                        var newOut = new Finger.Deep<T>();
-                        newOut.left = v.left;
-                        newOut.deep = newDeep;
-                        newOut.right = newRight;
-                        newOut.initSize();
-                        return newOut;
+                if (v.right.length() > 1) {
+                    return new Finger.Deep<>(v.left, v.deep(), v.right.dropLast(calcObjSize(rightOne)));
+                }
+                var spine = v.deep();
+                if (!(spine instanceof Finger.Empty)) {
+                    // the last node of deep becomes the right digit, the rest of deep is left for later
+                    var last = last(spine);
+                    if (FingerStats.ENABLED) {
+                        FingerStats.popBorrow();
                     }
-                } else {
-                    var newRight = new Finger.Digit<T>();
-                    newRight.values = new Object[v.right.values.length - 1];
-                    System.arraycopy(v.right.values, 0, newRight.values, 0, newRight.values.length);
-                    updateDigitSize(newRight);
-
-                    var newOut = new Finger.Deep<T>();
-                    newOut.left = v.left;
-                    newOut.deep = v.deep;
-                    newOut.right = newRight;
-                    newOut.initSize();
-                    return newOut;
+                    return new Finger.Deep<T>(v.left, () -> popRight(spine, _ -> {}), spine.size() - last.size, last);
+                }
+                // deep is empty: change to single or take a value from left
+                var l = v.left;
+                if (l.length() == 1) {
+                    return new Finger.Single<>((T ) l.last());
                 }
+                var newRight = new Finger.One<T>(l.last());
+                return new Finger.Deep<>(l.dropLast(newRight.size), Finger.Empty.empty(), newRight);
             }
             case Finger.Empty<T> v -> {
                 throw new RuntimeException();
@@ -384,17 +839,29 @@ class Utils {
     record EPair<T> (T left, T right) {}
 
     public static <T> Finger<T> merge(Finger<T> leftFinger, Finger<T> rightFinger) {
+        if (!FingerStats.ENABLED) {
+            return mergeImpl(leftFinger, rightFinger);
+        }
+        var event = new FingerStats.MergeEvent();
+        event.begin();
+        var start = System.nanoTime();
+        var out = mergeImpl(leftFinger, rightFinger);
+        FingerStats.merge(event, leftFinger.size(), rightFinger.size(), System.nanoTime() - start);
+        return out;
+    }
+
+    static <T> Finger<T> mergeImpl(Finger<T> leftFinger, Finger<T> rightFinger) {
         switch (leftFinger) {
             case Finger.Deep<T> lv -> {
                 switch (rightFinger) {
                     case Finger.Deep<T> rv -> {
-                        var lInner = lv.deep;
-                        var lc = lv.right.values.length;
-                        var rc = rv.left.values.length;
+                        var lInner = lv.deep();
+                        var lc = lv.right.length();
+                        var rc = rv.left.length();
                         var sum = lc + rc;
                         var buf = new Object[sum];
-                        System.arraycopy(lv.right.values, 0, buf, 0, lc);
-                        System.arraycopy(rv.left.values, 0, buf, lc, rc);
+                        System.arraycopy(lv.right.values(), 0, buf, 0, lc);
+                        System.arraycopy(rv.left.values(), 0, buf, lc, rc);
                         int[] bufNum;
                         // sum: 2, 3, 4, 5, 6, 7, 8
                         switch (sum) {
@@ -416,23 +883,11 @@ class Utils {
                         }
                         int start = 0;
                         for (int b : bufNum) {
-                            var tmpBuf = new Object[b];
-                            System.arraycopy(buf, start, tmpBuf, 0, b);
-                            var newDigit = new Finger.Digit<T>();
-                            newDigit.values = tmpBuf;
-                            updateDigitSize(newDigit);
-
-                            lInner = pushRight(lInner, newDigit);
+                            lInner = pushRight(lInner, Finger.Digit.<T>of(buf, start, start + b));
+                            start += b;
                         }
-                        lInner = merge(lInner, rv.deep);
-
-                        var newDeep = lInner;
-                        var newOut = new Finger.Deep<T>();
-                        newOut.left = lv.left;
-                        newOut.right = rv.right;
-                        newOut.deep = newDeep;
-                        newOut.initSize();
-                        return newOut;
+                        lInner = mergeImpl(lInner, rv.deep());
+                        return new Finger.Deep<>(lv.left, lInner, rv.right);
                     }
                     case Finger.Empty<T> v1 -> {
                         return leftFinger;
@@ -452,66 +907,304 @@ class Utils {
     }
 
     public static <T> Finger<T> fromDigit(Finger.Digit<T> digit) {
-        int len = digit.values.length;
-        switch (len) {
+        return switch (digit) {
+            case Finger.One<T> d -> new Finger.Single<>((T ) d.a);
+            case Finger.Two<T> d -> new Finger.Deep<>(new Finger.One<>(d.a), Finger.Empty.empty(), new Finger.One<>(d.b));
+            case Finger.Three<T> d -> new Finger.Deep<>(new Finger.One<>(d.a), Finger.Empty.empty(), new Finger.Two<>(d.b, d.c));
+            case Finger.Four<T> d -> new Finger.Deep<>(new Finger.Two<>(d.a, d.b), Finger.Empty.empty(), new Finger.Two<>(d.c, d.d));
+        };
+    }
+
+    static JList.ShapeStats shapeStats(Finger<?> finger) {
+        var spine = new long[JList.ShapeStats.BUCKETS];
+        var inner = new long[JList.ShapeStats.BUCKETS];
+        int depth = 0;
+        long nodes = 0;
+        Finger<?> cur = finger;
+        // spine level `level` holds level `level` nodes: elements at 0, digits of level - 1 nodes above
+        for (int level = 0; ; level++) {
+            depth += 1;
+            nodes += 1;
+            switch (cur) {
+                case Finger.Deep<?> v -> {
+                    for (var d : new Finger.Digit<?>[] { v.left, v.right }) {
+                        spine[Math.min(d.length(), spine.length - 1)] += 1;
+                        nodes += 1;
+                        if (level > 0) {
+                            for (int i = 0; i < d.length(); i++) {
+                                nodes += countInner((Finger.Digit<?> ) d.get(i), level, inner);
+                            }
+                        }
+                    }
+                    cur = v.deep();
+                }
+                case Finger.Single<?> v -> {
+                    if (level > 0) {
+                        nodes += countInner((Finger.Digit<?> ) v.inner, level, inner);
+                    }
+                    return new JList.ShapeStats(finger.size(), depth, nodes, spine, inner);
+                }
+                case Finger.Empty<?> v -> {
+                    return new JList.ShapeStats(finger.size(), depth, nodes, spine, inner);
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates {@link JList.ShapeStats#fanOut()} from {@code paths} root-to-leaf descents to random indices,
+     * in O(paths * log n).
+     */
+    static double sampleFanOut(Finger<?> finger, int paths, RandomGenerator rnd) {
+        var size = finger.size();
+        // a random index lands in a node with odds proportional to its size, weigh by 1 / size to undo that
+        double nodes = 0, children = 0;
+        for (int p = 0; p < paths && size > 0; p++) {
+            var idx = rnd.nextInt(size);
+            Finger<?> cur = finger;
+            int level = 0;
+            // a level 0 Single holds an element, which may be null, so the walk cannot stop on node != null
+            Object node = null;
+            var found = false;
+            while (!found) {
+                switch (cur) {
+                    case Finger.Deep<?> v -> {
+                        if (idx < v.left.size) {
+                            node = v.left;
+                            found = true;
+                        } else if (idx - v.left.size < v.deepSize()) {
+                            idx -= v.left.size;
+                            cur = v.deep();
+                        } else {
+                            idx -= v.left.size + v.deepSize();
+                            node = v.right;
+                            found = true;
+                        }
+                        level += 1;
+                    }
+                    case Finger.Single<?> v -> {
+                        node = v.inner;
+                        found = true;
+                    }
+                    case Finger.Empty<?> v -> throw new AssertionError();
+                }
+            }
+            // node is a level `level` node: a spine digit counts as one level above the nodes it holds;
+            // only the digits below the spine are tallied
+            var d = node;
+            for (int k = level; k > 0; k--) {
+                var digit = (Finger.Digit<?> ) d;
+                if (k < level || cur instanceof Finger.Single<?>) {
+                    nodes += 1.0 / digit.size;
+                    children += (double) digit.length() / digit.size;
+                }
+                int i = 0;
+                var s = calcObjSize(digit.get(0));
+                while (idx >= s) {
+                    idx -= s;
+                    i += 1;
+                    s = calcObjSize(digit.get(i));
+                }
+                d = digit.get(i);
+            }
+        }
+        return nodes == 0 ? 3 : children / nodes;
+    }
+
+    // adds a level `level` node and the digits below it to the histogram, returns how many digits that was
+    private static long countInner(Finger.Digit<?> node, int level, long[] inner) {
+        inner[Math.min(node.length(), inner.length - 1)] += 1;
+        long count = 1;
+        if (level > 1) {
+            for (int i = 0; i < node.length(); i++) {
+                count += countInner((Finger.Digit<?> ) node.get(i), level - 1, inner);
+            }
+        }
+        return count;
+    }
+
+    // inputs at least this long are built by fork/join tasks whose trees are joined with merge
+    static final int PARALLEL_BUILD_THRESHOLD = 1 << 16;
+
+    public static <T> Finger<T> fromArray(Object[] values) {
+        return fromArray(values, 0, values.length);
+    }
+
+    public static <T> Finger<T> fromArray(Object[] values, int from, int to) {
+        if (to - from >= PARALLEL_BUILD_THRESHOLD) {
+            return ForkJoinPool.commonPool().invoke(new BuildTask<>(values, from, to));
+        }
+        return buildImpl(values, from, to);
+    }
+
+    // ForkJoinTask is Serializable, but a task is only ever run in this JVM
+    @SuppressWarnings("serial")
+    static final class BuildTask<T> extends RecursiveTask<Finger<T>> {
+        private final Object[] values;
+        private final int from, to;
+
+        BuildTask(Object[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Finger<T> compute() {
+            if (to - from < PARALLEL_BUILD_THRESHOLD) {
+                return buildImpl(values, from, to);
+            }
+            var mid = (from + to) >>> 1;
+            var left = new BuildTask<T>(values, from, mid);
+            left.fork();
+            var right = new BuildTask<T>(values, mid, to).compute();
+            return merge(left.join(), right);
+        }
+    }
+
+    static final int PARALLEL_SEARCH_THRESHOLD = 1 << 16;
+    static final int SEARCH_LEAF = 1 << 13;
+
+    /**
+     * Index of the first element equal to {@code o}, or -1. One cursor walk with early exit; large trees are
+     * searched by a fork/join task per index range.
+     */
+    static int indexOf(Finger<?> finger, Object o) {
+        var size = finger.size();
+        if (size >= PARALLEL_SEARCH_THRESHOLD) {
+            var found = new AtomicInteger(Integer.MAX_VALUE);
+            new SearchTask(finger, o, 0, size, found).invoke();
+            var ans = found.get();
+            return ans == Integer.MAX_VALUE ? -1 : ans;
+        }
+        return scan(finger, o, 0, size, null);
+    }
+
+    static int lastIndexOf(Finger<?> finger, Object o) {
+        var it = new FingerIterator<>(finger, true);
+        for (int i = finger.size() - 1; i >= 0; i -= 1) {
+            if (Objects.equals(o, it.next())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // first match in [from, to); gives up once a match left of the cursor is known
+    private static int scan(Finger<?> finger, Object o, int from, int to, AtomicInteger found) {
+        if (from == to) {
+            return -1;
+        }
+        var it = new FingerIterator<>(finger, false, from);
+        for (int i = from; i < to; i += 1) {
+            if (Objects.equals(o, it.next())) {
+                return i;
+            }
+            if (found != null && (i & 1023) == 0 && found.get() < i) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Leftmost match in {@code [from, to)}: the right half is forked, and a match found in the left half is
+     * published in {@code found} so that ranges to its right stop early. Never serialized, like
+     * {@link BuildTask}.
+     */
+    @SuppressWarnings("serial")
+    static final class SearchTask extends RecursiveAction {
+        private final Finger<?> finger;
+        private final Object o;
+        private final int from, to;
+        private final AtomicInteger found;
+
+        SearchTask(Finger<?> finger, Object o, int from, int to, AtomicInteger found) {
+            this.finger = finger;
+            this.o = o;
+            this.from = from;
+            this.to = to;
+            this.found = found;
+        }
+
+        @Override
+        protected void compute() {
+            if (found.get() < from) {
+                return;
+            }
+            if (to - from <= SEARCH_LEAF) {
+                var i = scan(finger, o, from, to, found);
+                if (i >= 0) {
+                    found.accumulateAndGet(i, Math::min);
+                }
+                return;
+            }
+            var mid = (from + to) >>> 1;
+            var right = new SearchTask(finger, o, mid, to, found);
+            right.fork();
+            new SearchTask(finger, o, from, mid, found).compute();
+            right.join();
+        }
+    }
+
+    /**
+     * Builds a tree holding the nodes {@code values[from, to)} bottom-up in linear time: the outer digits
+     * take three or four nodes each so that the middle packs into full three-node digits, which become the
+     * nodes of the spine built the same way.
+     */
+    static <T> Finger<T> buildImpl(Object[] values, int from, int to) {
+        int n = to - from;
+        switch (n) {
+            case 0 -> {
+                return Finger.Empty.empty();
+            }
             case 1 -> {
-                var newOut = new Finger.Single<T>();
-                newOut.inner = (T ) digit.values[0];
-                return newOut;
-            }
-            case 2, 3, 4 -> {
-                var newOut = new Finger.Deep<T>();
-                var splitIdx = len / 2;
-                var newLeft = new Finger.Digit<T>();
-                newLeft.values = new Object[splitIdx];
-                System.arraycopy(digit.values, 0, newLeft.values, 0, newLeft.values.length);
-                updateDigitSize(newLeft);
-
-                var newRight = new Finger.Digit<T>();
-                newRight.values = new Object[len - splitIdx];
-                System.arraycopy(digit.values, splitIdx, newRight.values, 0, newRight.values.length);
-                updateDigitSize(newRight);
-
-                newOut.left = newLeft;
-                newOut.right = newRight;
-                newOut.deep = Finger.Empty.empty();
-                newOut.initSize();
-                return newOut;
+                return new Finger.Single<>((T ) values[from]);
             }
             default -> {
-                throw new AssertionError();
+                int l, r;
+                if (n <= 8) {
+                    l = n / 2;
+                    r = n - l;
+                } else {
+                    // l + r is 6, 7 or 8, matching n modulo 3
+                    l = n % 3 == 2 ? 4 : 3;
+                    r = n % 3 == 0 ? 3 : 4;
+                }
+                var m = (n - l - r) / 3;
+                var nodes = new Object[m];
+                for (int i = 0; i < m; i++) {
+                    var start = from + l + i * 3;
+                    nodes[i] = new Finger.Three<T>(values[start], values[start + 1], values[start + 2]);
+                }
+                var newLeft = Finger.Digit.<T>of(values, from, from + l);
+                var newRight = Finger.Digit.<T>of(values, to - r, to);
+                return new Finger.Deep<>(newLeft, buildImpl(nodes, 0, m), newRight);
             }
         }
     }
 
     public static <T> EPair<Finger<T>> split(Finger<T> finger, int index) {
+        if (!FingerStats.ENABLED) {
+            return splitDigits(finger, index);
+        }
+        var event = new FingerStats.SplitEvent();
+        event.begin();
+        var start = System.nanoTime();
+        var out = splitDigits(finger, index);
+        FingerStats.split(event, finger.size(), index, System.nanoTime() - start);
+        return out;
+    }
+
+    private static <T> EPair<Finger<T>> splitDigits(Finger<T> finger, int index) {
         return splitImpl(finger, index, (i, d) -> {
-            int len = d.values.length;
+            int len = d.length();
             if (i < 0 || i > len) {
                 throw new AssertionError();
             }
-            // notice here, the update of size is far away!
-            var leftDigit = new Finger.Digit<T>();
-            var rightDigit = new Finger.Digit<T>();
-            leftDigit.values = new Object[i];
-            System.arraycopy(d.values, 0, leftDigit.values, 0, leftDigit.values.length);
-
-            rightDigit.values = new Object[len - i];
-            System.arraycopy(d.values, i, rightDigit.values, 0, rightDigit.values.length);
-
-            Optional<Finger.Digit<T>> leftOut, rightOut;
-            if (leftDigit.values.length == 0) {
-                leftOut = Optional.empty();
-            } else {
-                updateDigitSize(leftDigit);
-                leftOut = Optional.of(leftDigit);
-            }
-            if (rightDigit.values.length == 0) {
-                rightOut = Optional.empty();
-            } else {
-                updateDigitSize(rightDigit);
-                rightOut = Optional.of(rightDigit);
-            }
+            var dv = d.values();
+            Optional<Finger.Digit<T>> leftOut = i == 0 ? Optional.empty() : Optional.of(Finger.Digit.of(dv, 0, i));
+            Optional<Finger.Digit<T>> rightOut = i == len ? Optional.empty() : Optional.of(Finger.Digit.of(dv, i, len));
             return new EPair<>(leftOut, rightOut);
         });
     }
@@ -541,45 +1234,36 @@ class Utils {
                         // great, just remove the left guys all
 
                         var newLeftInRightFinger = newLeftEpair.right.get();
-                        var rightFinger = new Finger.Deep<T>();
-                        rightFinger.left = newLeftInRightFinger;
-                        rightFinger.deep = v.deep;
-                        rightFinger.right = v.right;
-                        rightFinger.initSize();
+                        var rightFinger = new Finger.Deep<>(newLeftInRightFinger, v.deep(), v.right);
 
                         return new EPair<>(leftFinger, rightFinger);
                     } else {
                         // bad situation, should get some value from deep ()
 
                         var newLeftInRightFingerHolder = new AtomicReference<Finger.Digit<T>>();
-                        if (Objects.equals(v.deep, Finger.Empty.empty())) {
+                        if (v.deep() instanceof Finger.Empty) {
                             var rightFinger = fromDigit(v.right);
                             return new EPair<>(leftFinger, rightFinger);
                         }
-                        var newRightFingerDeep = popLeft(v.deep, newLeftInRightFingerHolder::set);
+                        var newRightFingerDeep = popLeft(v.deep(), newLeftInRightFingerHolder::set);
                         var newLeftInRightFinger = newLeftInRightFingerHolder.get();
 
-                        var rightFinger = new Finger.Deep<T>();
-                        rightFinger.left = newLeftInRightFinger;
-                        rightFinger.deep = newRightFingerDeep;
-                        rightFinger.right = v.right;
-                        rightFinger.initSize();
+                        var rightFinger = new Finger.Deep<>(newLeftInRightFinger, newRightFingerDeep, v.right);
                         return new EPair<>(leftFinger, rightFinger);
                     }
                 }
-                var deepSize = v.deep.size();
+                var deepSize = v.deepSize();
                 if (index <= leftSize + deepSize) {
                     // handle here
 
                     BiFunction<Integer, Finger.Digit<Finger.Digit<T>>, EPair<Optional<Finger.Digit<Finger.Digit<T>>>>>
                             bf = (i, d) -> {
                         // Array[Digit[T]]:
-                        var dvalues = d.values;
                         int less = i;
                         var newLeft = new ArrayList<Finger.Digit<T>>();
                         var newRight = new ArrayList<Finger.Digit<T>>();
-                        for (int i0 = 0; i0 < dvalues.length; i0++) {
-                            var di = (Finger.Digit<T> )dvalues[i0];
+                        for (int i0 = 0; i0 < d.length(); i0++) {
+                            var di = (Finger.Digit<T> ) d.get(i0);
                             var i0Size = di.size;
                             if (less >= i0Size) {
                                 newLeft.add(di);
@@ -602,43 +1286,31 @@ class Utils {
                         } else {
                             var leftAr = newLeft.toArray();
                             if (leftAr.length > 4) throw new AssertionError();
-                            var digit = new Finger.Digit<Finger.Digit<T>>();
-                            digit.values = leftAr;
-                            updateDigitSize(digit);
-                            leftOut = Optional.of(digit);
+                            leftOut = Optional.of(Finger.Digit.of(leftAr));
                         }
                         if (newRight.isEmpty()) {
                             rightOut = Optional.empty();
                         } else {
                             var rightAr = newRight.toArray();
                             if (rightAr.length > 4) throw new AssertionError();
-                            var digit = new Finger.Digit<Finger.Digit<T>>();
-                            digit.values = rightAr;
-                            updateDigitSize(digit);
-                            rightOut = Optional.of(digit);
+                            rightOut = Optional.of(Finger.Digit.of(rightAr));
                         }
                         return new EPair<>(leftOut, rightOut);
                     };
 
-                    var splitDeep = splitImpl(v.deep, index - leftSize, bf);
+                    var splitDeep = splitImpl(v.deep(), index - leftSize, bf);
                     var rightDigitHolderInLeftFinger = new AtomicReference<Finger.Digit<T>>();
                     // if successful ~
-                    var leftFinger = new Finger.Deep<T>();
-                    leftFinger.left = v.left;
-                    leftFinger.deep = popRight(splitDeep.left, rightDigitHolderInLeftFinger::set);
-                    leftFinger.right = rightDigitHolderInLeftFinger.get();
-                    leftFinger.initSize();
+                    var leftDeep = popRight(splitDeep.left, rightDigitHolderInLeftFinger::set);
+                    var leftFinger = new Finger.Deep<>(v.left, leftDeep, rightDigitHolderInLeftFinger.get());
 
                     if (Objects.equals(splitDeep.right, Finger.Empty.empty())) {
                         var rightFinger = fromDigit(v.right);
                         return new EPair<>(leftFinger, rightFinger);
                     }
-                    var rightFinger = new Finger.Deep<T>();
                     var leftDigitHolderInRightFinger = new AtomicReference<Finger.Digit<T>>();
-                    rightFinger.right = v.right;
-                    rightFinger.deep = popLeft(splitDeep.right, leftDigitHolderInRightFinger::set);
-                    rightFinger.left = leftDigitHolderInRightFinger.get();
-                    rightFinger.initSize();
+                    var rightDeep = popLeft(splitDeep.right, leftDigitHolderInRightFinger::set);
+                    var rightFinger = new Finger.Deep<>(leftDigitHolderInRightFinger.get(), rightDeep, v.right);
 
                     return new EPair<>(leftFinger, rightFinger);
                 }
@@ -656,11 +1328,7 @@ class Utils {
                         // great, just remove the left guys all
 
                         var newRightInLeftFinger = newRightSplit.left.get();
-                        var leftFinger = new Finger.Deep<T>();
-                        leftFinger.left = v.left;
-                        leftFinger.deep = v.deep;
-                        leftFinger.right = newRightInLeftFinger;
-                        leftFinger.initSize();
+                        var leftFinger = new Finger.Deep<>(v.left, v.deep(), newRightInLeftFinger);
 
                         return new EPair<>(leftFinger, rightFinger);
                     } else {
@@ -672,14 +1340,10 @@ class Utils {
                         }
 
                         var newRightInLeftFingerHolder = new AtomicReference<Finger.Digit<T>>();
-                        var newLeftFingerDeep = popRight(v.deep, newRightInLeftFingerHolder::set);
+                        var newLeftFingerDeep = popRight(v.deep(), newRightInLeftFingerHolder::set);
                         var newRightInLeftFinger = newRightInLeftFingerHolder.get();
 
-                        var leftFinger = new Finger.Deep<T>();
-                        leftFinger.left = v.left;
-                        leftFinger.deep = newLeftFingerDeep;
-                        leftFinger.right = newRightInLeftFinger;
-                        leftFinger.initSize();
+                        var leftFinger = new Finger.Deep<>(v.left, newLeftFingerDeep, newRightInLeftFinger);
                         return new EPair<>(leftFinger, rightFinger);
                     }
                 }
@@ -689,9 +1353,7 @@ class Utils {
                 throw new AssertionError();
             }
             case Finger.Single<T> v -> {
-                var asDigit = new Finger.Digit<T>();
-                asDigit.values = new Object[] { v.inner };
-                updateDigitSize(asDigit);
+                var asDigit = new Finger.One<T>(v.inner);
                 var spliter = splitOp.apply(index, asDigit);
                 var l = spliter.left.get();
                 var r = spliter.right.get();
@@ -702,13 +1364,94 @@ class Utils {
         }
     }
 
+    public static <T> Finger<T> insert(Finger<T> finger, int index, T element) {
+        if (index == 0) {
+            return pushLeft(finger, element);
+        }
+        if (index == finger.size()) {
+            return pushRight(finger, element);
+        }
+        var sp = split(finger, index);
+        return merge(sp.left(), pushLeft(sp.right(), element));
+    }
+
+    public static <T> Finger<T> removeAt(Finger<T> finger, int index, Consumer<? super T> consume) {
+        if (index == 0) {
+            return popLeft(finger, consume);
+        }
+        if (index == finger.size() - 1) {
+            return popRight(finger, consume);
+        }
+        var sp = split(finger, index);
+        return merge(sp.left(), popLeft(sp.right(), consume));
+    }
+
+    /**
+     * Replaces the element at {@code index} by copying the root-to-leaf path only.
+     */
+    public static <T> Finger<T> update(Finger<T> finger, int index, T element) {
+        return set(finger, index, element, 0);
+    }
+
     public static <T> T indexGet(Finger<T> finger, int index) {
-        var ans = new AtomicReference<T>();
-        indexGetImpl(finger, index, (i, d) -> {
-            var di = (T ) d.values[i];
-            ans.set(di);
-        });
-        return ans.get();
+        if (index < 0 || index >= finger.size()) {
+            throw new AssertionError();
+        }
+        // walk down the spine: each step into `deep` adds one level of digit nesting
+        Finger<?> cur = finger;
+        int idx = index;
+        int level = 0;
+        while (true) {
+            switch (cur) {
+                case Finger.Deep<?> v -> {
+                    var leftSize = v.left.size;
+                    if (idx < leftSize) {
+                        if (FingerStats.ENABLED) {
+                            FingerStats.indexGet(level);
+                        }
+                        return (T ) digitGet(v.left, idx, level);
+                    }
+                    idx -= leftSize;
+                    var deepSize = v.deepSize();
+                    if (idx < deepSize) {
+                        cur = v.deep();
+                        level += 1;
+                    } else {
+                        if (FingerStats.ENABLED) {
+                            FingerStats.indexGet(level);
+                        }
+                        return (T ) digitGet(v.right, idx - deepSize, level);
+                    }
+                }
+                case Finger.Single<?> v -> {
+                    if (FingerStats.ENABLED) {
+                        FingerStats.indexGet(level);
+                    }
+                    return (T ) nodeGet(v.inner, idx, level);
+                }
+                case Finger.Empty<?> v -> {
+                    throw new AssertionError();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the element at {@code idx} inside a node of the given level:
+     * level 0 is an element itself, level k is a digit of level k - 1 nodes.
+     */
+    static Object nodeGet(Object node, int idx, int level) {
+        if (level == 0) {
+            return node;
+        }
+        return digitGet((Finger.Digit<?>) node, idx, level - 1);
+    }
+
+    /**
+     * Reads the element at {@code idx} inside a digit whose values are nodes of the given level.
+     */
+    static Object digitGet(Finger.Digit<?> digit, int idx, int level) {
+        return digit.elementAt(idx, level);
     }
 
     public static <T> void indexGetImpl(Finger<T> finger, int idx, BiConsumer<Integer, Finger.Digit<T>> consume) {
@@ -719,16 +1462,15 @@ class Utils {
             case Finger.Deep<T> v -> {
                 if (idx < v.left.size) {
                     consume.accept(idx, v.left);
-                } else if (idx < v.left.size + v.deep.size()) {
+                } else if (idx < v.left.size + v.deepSize()) {
                     int l = idx - v.left.size;
                     // ...
                     BiConsumer<Integer, Finger.Digit<Finger.Digit<T>>> c = (i, d) -> {
                         if (i < 0 || i >= d.size) {
                             throw new AssertionError();
                         }
-                        var dv = d.values;
-                        for (int i0 = 0; i0 < dv.length; i0++) {
-                            var di = (Finger.Digit<T> ) dv[i0];
+                        for (int i0 = 0; i0 < d.length(); i0++) {
+                            var di = (Finger.Digit<T> ) d.get(i0);
                             if (i < di.size) {
                                 consume.accept(i, di);
                                 break ;
@@ -736,17 +1478,14 @@ class Utils {
                             i -= di.size;
                         }
                     };
-                    indexGetImpl(v.deep, l, c);
+                    indexGetImpl(v.deep(), l, c);
                 } else {
-                    int l = idx - v.left.size - v.deep.size();
+                    int l = idx - v.left.size - v.deepSize();
                     consume.accept(l, v.right);
                 }
             }
             case Finger.Single<T> v -> {
-                var selfDigit = new Finger.Digit<T>();
-                selfDigit.values = new Object[] { v.inner };
-                updateDigitSize(selfDigit);
-                consume.accept(idx, selfDigit);
+                consume.accept(idx, new Finger.One<>(v.inner));
             }
             default -> {
                 throw new AssertionError();
@@ -758,19 +1497,11 @@ class Utils {
     public static <T> void orderlyMethod(Finger<T> finger, Consumer<T> handle) {
         switch (finger) {
             case Finger.Deep<T> v -> {
-                for (Object value : v.left.values) {
-                    handle.accept((T ) value);
-                }
+                digitForEach(v.left, handle);
                 // deep inner ~
-                Consumer<Finger.Digit<T>> handleUp = d -> {
-                    for (Object value : d.values) {
-                        handle.accept((T ) value);
-                    }
-                };
-                orderlyMethod(v.deep, handleUp);
-                for (Object value : v.right.values) {
-                    handle.accept((T ) value);
-                }
+                Consumer<Finger.Digit<T>> handleUp = d -> digitForEach(d, handle);
+                orderlyMethod(v.deep(), handleUp);
+                digitForEach(v.right, handle);
             }
             case Finger.Empty<T> v -> {
             }
@@ -780,6 +1511,10 @@ class Utils {
         }
     }
 
+    private static <T> void digitForEach(Finger.Digit<T> digit, Consumer<T> handle) {
+        digit.forEachNode((Consumer<Object> ) handle);
+    }
+
     public static <T> List<T> toList(Finger<T> finger) {
         var l = new ArrayList<T>();
         l.ensureCapacity(finger.size());
@@ -793,4 +1528,88 @@ class Utils {
         return ans;
     }
 
-}
\ No newline at end of file
+
+    /**
+     * Appends the nodes {@code items[from, to)} to the right end. All but the last two to four nodes are
+     * grouped into three-node digits and handed down to the spine in one batch, so a level only copies its
+     * right digit once and allocates the new nodes it passes on.
+     */
+    static <T> Finger<T> appendAll(Finger<T> finger, Object[] items, int from, int to) {
+        while (from < to && !(finger instanceof Finger.Deep<T>)) {
+            finger = pushRight(finger, (T ) items[from]);
+            from += 1;
+        }
+        if (from == to) {
+            return finger;
+        }
+        var v = (Finger.Deep<T> ) finger;
+        var r = v.right.values();
+        var rc = r.length;
+        var m = rc + to - from;
+        if (m <= 4) {
+            var values = Arrays.copyOf(r, m);
+            System.arraycopy(items, from, values, rc, to - from);
+            return new Finger.Deep<>(v.left, v.deep(), Finger.Digit.of(values));
+        }
+        // keep t nodes on the right with (m - t) divisible by three
+        int t = switch (m % 3) {
+            case 0 -> 3;
+            case 1 -> 4;
+            default -> 2;
+        };
+        var all = new Object[m];
+        System.arraycopy(r, 0, all, 0, rc);
+        System.arraycopy(items, from, all, rc, to - from);
+        var nodes = new Object[(m - t) / 3];
+        for (int n = 0; n < nodes.length; n++) {
+            nodes[n] = new Finger.Three<T>(all[n * 3], all[n * 3 + 1], all[n * 3 + 2]);
+        }
+        var deep = appendAll(v.deep(), nodes, 0, nodes.length);
+        return new Finger.Deep<>(v.left, deep, Finger.Digit.of(all, m - t, m));
+    }
+
+    /**
+     * Replaces the element at {@code idx}, copying the nodes on its path.
+     * {@code level} is the level of the nodes of {@code finger}, 0 for a tree of elements.
+     */
+    static <T> Finger<T> set(Finger<T> finger, int idx, Object value, int level) {
+        switch (finger) {
+            case Finger.Deep<T> v -> {
+                var leftSize = v.left.size;
+                var deepSize = v.deepSize();
+                if (idx < leftSize) {
+                    return new Finger.Deep<>(digitSet(v.left, idx, value, level), v.deep(), v.right);
+                } else if (idx < leftSize + deepSize) {
+                    return new Finger.Deep<>(v.left, set(v.deep(), idx - leftSize, value, level + 1), v.right);
+                } else {
+                    return new Finger.Deep<>(v.left, v.deep(), digitSet(v.right, idx - leftSize - deepSize, value, level));
+                }
+            }
+            case Finger.Single<T> v -> {
+                if (level == 0) {
+                    return new Finger.Single<>((T ) value);
+                }
+                return new Finger.Single<>((T ) digitSet((Finger.Digit<?> ) v.inner, idx, value, level - 1));
+            }
+            case Finger.Empty<T> v -> {
+                throw new AssertionError();
+            }
+        }
+    }
+
+    // below level 0 sizes do not change along the path, every copy keeps the size of the node it replaces
+    static <T> Finger.Digit<T> digitSet(Finger.Digit<T> digit, int idx, Object value, int level) {
+        if (level == 0) {
+            return digit.with(idx, value, calcObjSize(value) - calcObjSize(digit.get(idx)));
+        }
+        int i0 = 0;
+        var di = (Finger.Digit<?> ) digit.first();
+        while (idx >= di.size) {
+            idx -= di.size;
+            i0 += 1;
+            di = (Finger.Digit<?> ) digit.get(i0);
+        }
+        return digit.with(i0, digitSet(di, idx, value, level - 1), 0);
+    }
+
+}
@@ -0,0 +1,142 @@
+package immut;
+
+import java.util.*;
+
+/**
+ * Cursor over a {@link Finger} snapshot.
+ * <p>
+ * The work still to be visited is kept on an explicit stack of fingers and digits, each tagged with its
+ * level, so advancing never has to descend from the root again. A finger entry of level k is a tree whose
+ * nodes have level k; a digit entry of level k holds nodes of level k. Level 0 nodes are the elements, a
+ * level k node is a digit of level k - 1 nodes.
+ */
+final class FingerIterator<T> implements Iterator<T> {
+
+    private final boolean descending;
+    private Object[] stack = new Object[16];
+    private int[] levels = new int[16];
+    private int top;
+
+    // nodes of the level 0 digit currently read, and the next position in them
+    private final Object[] leaf = new Object[4];
+    private int leafLength;
+    private int pos;
+
+    private int remaining;
+    // elements still to be passed over before the first one returned
+    private int skip;
+
+    FingerIterator(Finger<T> finger, boolean descending) {
+        this(finger, descending, 0);
+    }
+
+    /**
+     * Starts the cursor {@code skip} elements away from the first (or, descending, the last) element.
+     * Whole subtrees inside the skipped range are popped without being expanded, so this costs O(log n).
+     */
+    FingerIterator(Finger<T> finger, boolean descending, int skip) {
+        if (skip < 0 || skip > finger.size()) {
+            throw new IndexOutOfBoundsException(skip);
+        }
+        this.descending = descending;
+        this.remaining = finger.size() - skip;
+        this.skip = skip;
+        push(finger, 0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remaining > 0;
+    }
+
+    @Override
+    public T next() {
+        if (remaining <= 0) {
+            throw new NoSuchElementException();
+        }
+        if (pos < 0 || pos >= leafLength) {
+            advance();
+        }
+        remaining -= 1;
+        var n = (T ) leaf[pos];
+        pos += descending ? -1 : 1;
+        return n;
+    }
+
+    private void push(Object item, int level) {
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+            levels = Arrays.copyOf(levels, top * 2);
+        }
+        stack[top] = item;
+        levels[top] = level;
+        top += 1;
+    }
+
+    // the first `length` entries of leaf were just filled
+    private void setLeaf(int length) {
+        leafLength = length;
+        pos = descending ? length - 1 - skip : skip;
+        skip = 0;
+    }
+
+    private void advance() {
+        while (true) {
+            top -= 1;
+            var item = stack[top];
+            var level = levels[top];
+            stack[top] = null;
+            if (skip > 0) {
+                var itemSize = item instanceof Finger<?> f ? f.size() : ((Finger.Digit<?> ) item).size;
+                if (itemSize <= skip) {
+                    skip -= itemSize;
+                    continue;
+                }
+            }
+            switch (item) {
+                case Finger.Empty<?> v -> {
+                }
+                case Finger.Single<?> v -> {
+                    if (level == 0) {
+                        leaf[0] = v.inner;
+                        setLeaf(1);
+                        return;
+                    }
+                    push(v.inner, level - 1);
+                }
+                case Finger.Deep<?> v -> {
+                    if (descending) {
+                        push(v.left, level);
+                        push(v.deep(), level + 1);
+                        push(v.right, level);
+                    } else {
+                        push(v.right, level);
+                        push(v.deep(), level + 1);
+                        push(v.left, level);
+                    }
+                }
+                case Finger.Digit<?> d -> {
+                    if (level == 0) {
+                        setLeaf(d.copyTo(leaf, 0));
+                        return;
+                    }
+                    // the leaf is free here, borrow it to read the children in one call
+                    var n = d.copyTo(leaf, 0);
+                    if (descending) {
+                        for (int i = 0; i < n; i++) {
+                            push(leaf[i], level - 1);
+                        }
+                    } else {
+                        for (int i = n - 1; i >= 0; i--) {
+                            push(leaf[i], level - 1);
+                        }
+                    }
+                }
+                default -> {
+                    throw new AssertionError();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+package immut;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Max-priority queue on an {@link MFinger} measured by the greatest element.
+ * <p>
+ * The root caches the maximum, so {@link #peek()} is O(1); {@link #poll()} splits the tree at the leftmost
+ * maximal element and joins the rest back in O(log n), so equal priorities leave in insertion order.
+ * {@link #meld} concatenates a whole other queue in O(log n). Null elements are not permitted, iteration
+ * follows insertion order, not priority.
+ */
+public class FingerPriorityQueue <T> extends AbstractQueue<T> {
+
+    private final Comparator<? super T> comparator;
+    private final Measure<T, T> measure;
+    private MFinger<T, T> f;
+    private int size;
+
+    public FingerPriorityQueue(Comparator<? super T> comparator) {
+        this.comparator = Objects.requireNonNull(comparator);
+        this.measure = Measure.max(comparator);
+        this.f = MUtils.empty(measure);
+    }
+
+    public static <T extends Comparable<? super T>> FingerPriorityQueue<T> natural() {
+        return new FingerPriorityQueue<>(Comparator.naturalOrder());
+    }
+
+    public Comparator<? super T> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public boolean offer(T t) {
+        Objects.requireNonNull(t);
+        f = MUtils.pushRight(measure, f, t);
+        size += 1;
+        return true;
+    }
+
+    @Override
+    public T peek() {
+        return f.measure();
+    }
+
+    @Override
+    public T poll() {
+        if (size == 0) {
+            return null;
+        }
+        var max = f.measure();
+        var sp = MUtils.splitTree(measure, m -> m != null && comparator.compare(m, max) >= 0, measure.identity(), f);
+        f = MUtils.merge(measure, sp.left(), sp.right());
+        size -= 1;
+        return sp.item();
+    }
+
+    /**
+     * Moves every element of {@code other} into this queue in O(log n); {@code other} is left empty.
+     * Both queues must order by the same comparator, and must be different queues.
+     */
+    public void meld(FingerPriorityQueue<T> other) {
+        if (other == this) {
+            throw new IllegalArgumentException("cannot meld a queue into itself");
+        }
+        if (!comparator.equals(other.comparator)) {
+            throw new IllegalArgumentException("queues use different comparators");
+        }
+        f = MUtils.merge(measure, f, other.f);
+        size += other.size;
+        other.clear();
+    }
+
+    /**
+     * Removes the first element, in insertion order, equal to {@code o}. O(n): the element is found by a scan
+     * and the tree rebuilt without it.
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        var found = new boolean[1];
+        return retain(x -> {
+            if (!found[0] && o.equals(x)) {
+                found[0] = true;
+                return false;
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        return retain(x -> !filter.test(x));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return retain(x -> !c.contains(x));
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return retain(c::contains);
+    }
+
+    // keeps the elements that pass `keep` in insertion order, rebuilding the tree in O(n) if any is dropped
+    private boolean retain(Predicate<? super T> keep) {
+        var kept = new ArrayList<Object>(size);
+        MUtils.orderlyMethod(f, x -> {
+            if (keep.test(x)) {
+                kept.add(x);
+            }
+        });
+        if (kept.size() == size) {
+            return false;
+        }
+        f = MUtils.fromValues(measure, kept.toArray());
+        size = kept.size();
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        f = MUtils.empty(measure);
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        var l = new ArrayList<T>(size);
+        MUtils.orderlyMethod(f, l::add);
+        return Collections.unmodifiableList(l).iterator();
+    }
+
+}
@@ -0,0 +1,99 @@
+package immut;
+
+import java.nio.*;
+import java.util.*;
+
+import static immut.FingerWriter.*;
+
+/**
+ * Reads the stream of a {@link FingerWriter} straight from a {@link ByteBuffer}, e.g. a mapped file, without
+ * an intermediate stream or copy of the structure. Nodes shared between versions in the stream are shared
+ * between the returned lists as well.
+ */
+public class FingerReader <T> {
+
+    private final ByteBuffer in;
+    private final Codec<T> codec;
+    private final ArrayList<Object> nodes = new ArrayList<>();
+
+    public FingerReader(ByteBuffer in, Codec<T> codec) {
+        this.in = in;
+        this.codec = codec;
+    }
+
+    public boolean hasNext() {
+        return in.hasRemaining();
+    }
+
+    /**
+     * Decodes records up to and including the next version record and returns that version.
+     */
+    public JList<T> next() {
+        while (true) {
+            if (!in.hasRemaining()) {
+                throw new NoSuchElementException();
+            }
+            switch (in.get()) {
+                case ELEMENTS -> {
+                    var values = new Object[readVarint()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = readElement();
+                    }
+                    // elements count one each, whatever they are
+                    nodes.add(Finger.Digit.of(values, 0, values.length, values.length));
+                }
+                case DIGIT -> {
+                    var values = new Object[readVarint()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = nodes.get(readVarint());
+                    }
+                    nodes.add(Finger.Digit.of(values));
+                }
+                case EMPTY -> nodes.add(Finger.Empty.empty());
+                case SINGLE -> nodes.add(new Finger.Single<T>(readElement()));
+                case SINGLE_NODE -> nodes.add(new Finger.Single<>(nodes.get(readVarint())));
+                case DEEP -> {
+                    var left = (Finger.Digit<Object> ) nodes.get(readVarint());
+                    var deep = (Finger<Finger.Digit<Object>> ) nodes.get(readVarint());
+                    var right = (Finger.Digit<Object> ) nodes.get(readVarint());
+                    nodes.add(new Finger.Deep<>(left, deep, right));
+                }
+                case VERSION -> {
+                    return new JList<>((Finger<T> ) nodes.get(readVarint()));
+                }
+                default -> throw new IllegalStateException("corrupt stream at " + (in.position() - 1));
+            }
+        }
+    }
+
+    public List<JList<T>> readAll() {
+        var out = new ArrayList<JList<T>>();
+        while (hasNext()) {
+            out.add(next());
+        }
+        return out;
+    }
+
+    private T readElement() {
+        var length = readVarint();
+        if (length == 0) {
+            return null;
+        }
+        var bytes = new byte[length - 1];
+        in.get(bytes);
+        return codec.decode(bytes);
+    }
+
+    private int readVarint() {
+        int v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            v |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return v;
+    }
+
+}
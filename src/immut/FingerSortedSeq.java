@@ -0,0 +1,260 @@
+package immut;
+
+import java.util.*;
+
+/**
+ * Sorted sequence (duplicates allowed) on an {@link MFinger} whose nodes cache their size and greatest key.
+ * <p>
+ * Ordered search and rank queries descend by one of the two parts of the measure: key searches by the
+ * running maximum, {@link #select} by the running size. Insert, delete, floor/ceiling, rank, select and the
+ * {@link #headSeq}/{@link #tailSeq} splits are O(log n); {@link #union} of sequences whose key ranges do not
+ * overlap is a single O(log n) concatenation. Equal keys keep their insertion order.
+ */
+public class FingerSortedSeq <T> extends AbstractCollection<T> {
+
+    record Stat<T>(int size, T max) {}
+
+    private static final class StatMeasure<T> implements Measure<T, Stat<T>> {
+        private final Comparator<? super T> comparator;
+        private final Stat<T> identity = new Stat<>(0, null);
+
+        StatMeasure(Comparator<? super T> comparator) {
+            this.comparator = comparator;
+        }
+
+        @Override
+        public Stat<T> identity() {
+            return identity;
+        }
+
+        @Override
+        public Stat<T> combine(Stat<T> a, Stat<T> b) {
+            if (a.size() == 0) {
+                return b;
+            }
+            if (b.size() == 0) {
+                return a;
+            }
+            var max = comparator.compare(a.max(), b.max()) >= 0 ? a.max() : b.max();
+            return new Stat<>(a.size() + b.size(), max);
+        }
+
+        @Override
+        public Stat<T> measure(T element) {
+            return new Stat<>(1, element);
+        }
+    }
+
+    private final Comparator<? super T> comparator;
+    private final StatMeasure<T> measure;
+    private MFinger<T, Stat<T>> f;
+
+    public FingerSortedSeq(Comparator<? super T> comparator) {
+        this(comparator, new StatMeasure<>(comparator), null);
+    }
+
+    private FingerSortedSeq(Comparator<? super T> comparator, StatMeasure<T> measure, MFinger<T, Stat<T>> f) {
+        this.comparator = Objects.requireNonNull(comparator);
+        this.measure = measure;
+        this.f = f == null ? MUtils.empty(measure) : f;
+    }
+
+    public static <T extends Comparable<? super T>> FingerSortedSeq<T> natural() {
+        return new FingerSortedSeq<>(Comparator.naturalOrder());
+    }
+
+    public Comparator<? super T> comparator() {
+        return comparator;
+    }
+
+    // running maximum reached k: everything before the split point is < k
+    private boolean atLeast(Stat<T> m, T k) {
+        return m.size() > 0 && comparator.compare(m.max(), k) >= 0;
+    }
+
+    // running maximum passed k: everything before the split point is <= k
+    private boolean above(Stat<T> m, T k) {
+        return m.size() > 0 && comparator.compare(m.max(), k) > 0;
+    }
+
+    @Override
+    public int size() {
+        return f.measure().size();
+    }
+
+    @Override
+    public boolean add(T t) {
+        Objects.requireNonNull(t);
+        var sp = MUtils.split(measure, m -> above(m, t), f);
+        f = MUtils.merge(measure, MUtils.pushRight(measure, sp.left(), t), sp.right());
+        return true;
+    }
+
+    /**
+     * Removes one element equal to {@code o} under the comparator.
+     */
+    @Override
+    public boolean remove(Object o) {
+        var k = (T ) o;
+        if (!atLeast(f.measure(), k)) {
+            return false;
+        }
+        var sp = MUtils.split(measure, m -> atLeast(m, k), f);
+        if (comparator.compare(MUtils.head(sp.right()), k) != 0) {
+            return false;
+        }
+        f = MUtils.merge(measure, sp.left(), MUtils.popLeft(measure, sp.right(), _ -> {}));
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        var c = ceiling((T ) o);
+        return c != null && comparator.compare(c, (T ) o) == 0;
+    }
+
+    @Override
+    public void clear() {
+        f = MUtils.empty(measure);
+    }
+
+    public T first() {
+        return MUtils.head(f);
+    }
+
+    public T last() {
+        return MUtils.last(f);
+    }
+
+    public T pollFirst() {
+        if (size() == 0) {
+            return null;
+        }
+        var ans = new Object[1];
+        f = MUtils.popLeft(measure, f, x -> ans[0] = x);
+        return (T ) ans[0];
+    }
+
+    public T pollLast() {
+        if (size() == 0) {
+            return null;
+        }
+        var ans = new Object[1];
+        f = MUtils.popRight(measure, f, x -> ans[0] = x);
+        return (T ) ans[0];
+    }
+
+    /**
+     * Least element {@code >= k}, or null.
+     */
+    public T ceiling(T k) {
+        if (!atLeast(f.measure(), k)) {
+            return null;
+        }
+        return MUtils.lookup(measure, m -> atLeast(m, k), measure.identity(), f).item();
+    }
+
+    /**
+     * Least element {@code > k}, or null.
+     */
+    public T higher(T k) {
+        if (!above(f.measure(), k)) {
+            return null;
+        }
+        return MUtils.lookup(measure, m -> above(m, k), measure.identity(), f).item();
+    }
+
+    /**
+     * Greatest element {@code <= k}, or null.
+     */
+    public T floor(T k) {
+        var r = rankAbove(k);
+        return r == 0 ? null : select(r - 1);
+    }
+
+    /**
+     * Greatest element {@code < k}, or null.
+     */
+    public T lower(T k) {
+        var r = rank(k);
+        return r == 0 ? null : select(r - 1);
+    }
+
+    /**
+     * Number of elements {@code < k}.
+     */
+    public int rank(T k) {
+        if (!atLeast(f.measure(), k)) {
+            return size();
+        }
+        return MUtils.lookup(measure, m -> atLeast(m, k), measure.identity(), f).before().size();
+    }
+
+    // number of elements <= k
+    private int rankAbove(T k) {
+        if (!above(f.measure(), k)) {
+            return size();
+        }
+        return MUtils.lookup(measure, m -> above(m, k), measure.identity(), f).before().size();
+    }
+
+    /**
+     * The element with {@code index} smaller ones before it, i.e. the k-th smallest counting from 0.
+     */
+    public T select(int index) {
+        Objects.checkIndex(index, size());
+        return MUtils.lookup(measure, m -> m.size() > index, measure.identity(), f).item();
+    }
+
+    /**
+     * Elements {@code < k} (or {@code <= k} if inclusive), sharing structure with this sequence.
+     */
+    public FingerSortedSeq<T> headSeq(T k, boolean inclusive) {
+        var sp = MUtils.split(measure, m -> inclusive ? above(m, k) : atLeast(m, k), f);
+        return new FingerSortedSeq<>(comparator, measure, sp.left());
+    }
+
+    /**
+     * Elements {@code >= k} (or {@code > k} if not inclusive), sharing structure with this sequence.
+     */
+    public FingerSortedSeq<T> tailSeq(T k, boolean inclusive) {
+        var sp = MUtils.split(measure, m -> inclusive ? atLeast(m, k) : above(m, k), f);
+        return new FingerSortedSeq<>(comparator, measure, sp.right());
+    }
+
+    /**
+     * Adds every element of {@code other}, which must use the same comparator. When one sequence lies entirely
+     * before the other this is one O(log n) concatenation; overlapping ranges are merged by splitting the
+     * larger sequence at each element of the smaller one.
+     */
+    public void union(FingerSortedSeq<T> other) {
+        if (!comparator.equals(other.comparator)) {
+            throw new IllegalArgumentException("sequences use different comparators");
+        }
+        if (other.size() == 0) {
+            return;
+        }
+        if (size() == 0) {
+            f = other.f;
+            return;
+        }
+        if (comparator.compare(last(), other.first()) <= 0) {
+            f = MUtils.merge(measure, f, other.f);
+        } else if (comparator.compare(other.last(), first()) < 0) {
+            f = MUtils.merge(measure, other.f, f);
+        } else {
+            var small = size() < other.size() ? f : other.f;
+            f = size() < other.size() ? other.f : f;
+            MUtils.orderlyMethod(small, this::add);
+        }
+    }
+
+    /**
+     * Iterates in ascending order over the sequence as it is now; later changes are not seen.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new MFingerIterator<>(f);
+    }
+
+}
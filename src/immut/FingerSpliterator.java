@@ -0,0 +1,84 @@
+package immut;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Spliterator over the index range {@code [index, fence)} of a {@link Finger} snapshot.
+ * <p>
+ * Splitting only halves the range, both halves keep sharing the same immutable root, so a split costs
+ * nothing; traversal starts a {@link FingerIterator} at {@code index}, which seeks in O(log n) and then
+ * reads leaf digits directly.
+ */
+final class FingerSpliterator<T> implements Spliterator<T> {
+
+    private final Finger<T> root;
+    private int index;
+    private final int fence;
+    private FingerIterator<T> cursor;
+
+    FingerSpliterator(Finger<T> root) {
+        this(root, 0, root.size());
+    }
+
+    FingerSpliterator(Finger<T> root, int index, int fence) {
+        this.root = root;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        if (index >= fence) {
+            return false;
+        }
+        if (cursor == null) {
+            cursor = new FingerIterator<>(root, false, index);
+        }
+        index += 1;
+        action.accept(cursor.next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        if (index >= fence) {
+            return;
+        }
+        var c = cursor == null ? new FingerIterator<>(root, false, index) : cursor;
+        var n = fence - index;
+        index = fence;
+        cursor = null;
+        for (int i = 0; i < n; i++) {
+            action.accept(c.next());
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int lo = index;
+        int mid = (lo + fence) >>> 1;
+        if (lo >= mid) {
+            return null;
+        }
+        // the prefix may continue the cursor already positioned at lo
+        var prefix = new FingerSpliterator<>(root, lo, mid);
+        prefix.cursor = cursor;
+        cursor = null;
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE;
+    }
+
+}
@@ -0,0 +1,221 @@
+package immut;
+
+import jdk.jfr.*;
+
+import javax.management.*;
+import java.lang.management.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Opt-in counters for the tree operations of {@link Utils}.
+ * <p>
+ * Off unless the JVM is started with {@code -Dimmut.stats=true}. {@link #ENABLED} is a static final, so
+ * with the switch off the JIT drops the guarded calls and the operations pay nothing. When on:
+ * <ul>
+ *     <li>counts of splits, merges, digit overflows pushed into the spine ({@code Deep.deep()}), pops that
+ *     borrow a node from it, and {@code indexGet} calls with the spine levels they descended;</li>
+ *     <li>latency histograms of split and merge with power-of-two nanosecond buckets;</li>
+ *     <li>all of the above as the MXBean {@code immut:type=FingerStats};</li>
+ *     <li>the Flight Recorder events {@code immut.Split} and {@code immut.Merge}, recorded when slower than
+ *     {@code 1 ms} unless the recording's settings give another threshold.</li>
+ * </ul>
+ * Counters are {@link LongAdder}s and can be read at any time; values read while operations run are not a
+ * consistent snapshot.
+ */
+public final class FingerStats {
+
+    public static final boolean ENABLED = Boolean.getBoolean("immut.stats");
+
+    static final int BUCKETS = 40;
+
+    static final LongAdder splits = new LongAdder();
+    static final LongAdder merges = new LongAdder();
+    static final LongAdder pushCascades = new LongAdder();
+    static final LongAdder popBorrows = new LongAdder();
+    static final LongAdder indexGets = new LongAdder();
+    static final LongAdder indexGetLevels = new LongAdder();
+    static final LongAdder[] splitNanos = newHistogram();
+    static final LongAdder[] mergeNanos = newHistogram();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(new Bean(), new ObjectName("immut:type=FingerStats"));
+            } catch (JMException e) {
+                // another copy of the class already registered it, counters still work
+            }
+        }
+    }
+
+    private FingerStats() {
+    }
+
+    private static LongAdder[] newHistogram() {
+        var h = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            h[i] = new LongAdder();
+        }
+        return h;
+    }
+
+    // bucket i holds durations in [2^(i-1), 2^i) ns, bucket 0 zero, the last one everything above
+    private static void record(LongAdder[] histogram, long nanos) {
+        var bucket = 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0));
+        histogram[Math.min(bucket, BUCKETS - 1)].increment();
+    }
+
+    private static long[] read(LongAdder[] histogram) {
+        var out = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            out[i] = histogram[i].sum();
+        }
+        return out;
+    }
+
+    @Name("immut.Split")
+    @Label("Finger Split")
+    @Category("JingerTree")
+    @Threshold("1 ms")
+    static final class SplitEvent extends Event {
+        @Label("Size")
+        int size;
+        @Label("Index")
+        int index;
+    }
+
+    @Name("immut.Merge")
+    @Label("Finger Merge")
+    @Category("JingerTree")
+    @Threshold("1 ms")
+    static final class MergeEvent extends Event {
+        @Label("Left Size")
+        int leftSize;
+        @Label("Right Size")
+        int rightSize;
+    }
+
+    static void split(SplitEvent event, int size, int index, long nanos) {
+        splits.increment();
+        record(splitNanos, nanos);
+        event.end();
+        if (event.shouldCommit()) {
+            event.size = size;
+            event.index = index;
+            event.commit();
+        }
+    }
+
+    static void merge(MergeEvent event, int leftSize, int rightSize, long nanos) {
+        merges.increment();
+        record(mergeNanos, nanos);
+        event.end();
+        if (event.shouldCommit()) {
+            event.leftSize = leftSize;
+            event.rightSize = rightSize;
+            event.commit();
+        }
+    }
+
+    static void pushCascade() {
+        pushCascades.increment();
+    }
+
+    static void popBorrow() {
+        popBorrows.increment();
+    }
+
+    static void indexGet(int level) {
+        indexGets.increment();
+        indexGetLevels.add(level);
+    }
+
+    public static void reset() {
+        for (var a : new LongAdder[] { splits, merges, pushCascades, popBorrows, indexGets, indexGetLevels }) {
+            a.reset();
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            splitNanos[i].reset();
+            mergeNanos[i].reset();
+        }
+    }
+
+    public interface FingerStatsMXBean {
+        long getSplitCount();
+
+        long getMergeCount();
+
+        long getPushCascadeCount();
+
+        long getPopBorrowCount();
+
+        long getIndexGetCount();
+
+        double getAverageIndexGetDepth();
+
+        /**
+         * Split durations: entry {@code i} counts those in {@code [2^(i-1), 2^i)} ns.
+         */
+        long[] getSplitLatencyHistogram();
+
+        long[] getMergeLatencyHistogram();
+
+        void reset();
+    }
+
+    static final class Bean implements FingerStatsMXBean {
+        @Override
+        public long getSplitCount() {
+            return splits.sum();
+        }
+
+        @Override
+        public long getMergeCount() {
+            return merges.sum();
+        }
+
+        @Override
+        public long getPushCascadeCount() {
+            return pushCascades.sum();
+        }
+
+        @Override
+        public long getPopBorrowCount() {
+            return popBorrows.sum();
+        }
+
+        @Override
+        public long getIndexGetCount() {
+            return indexGets.sum();
+        }
+
+        @Override
+        public double getAverageIndexGetDepth() {
+            var n = indexGets.sum();
+            return n == 0 ? 0 : (double) indexGetLevels.sum() / n;
+        }
+
+        @Override
+        public long[] getSplitLatencyHistogram() {
+            return read(splitNanos);
+        }
+
+        @Override
+        public long[] getMergeLatencyHistogram() {
+            return read(mergeNanos);
+        }
+
+        @Override
+        public void reset() {
+            FingerStats.reset();
+        }
+    }
+
+    /**
+     * The counters as an MXBean, also when not registered.
+     */
+    public static FingerStatsMXBean bean() {
+        return new Bean();
+    }
+
+}
@@ -0,0 +1,153 @@
+package immut;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Writes successive versions of {@link JList}s as one binary stream in which every tree node appears once.
+ * <p>
+ * Nodes get ids in the order they are written and an identity table remembers them, so a version produced by
+ * {@code split}/{@code merge}/{@code add} from an earlier one costs only the nodes on the changed paths plus a
+ * version record pointing at its root. The table keeps the written nodes reachable, which is also what makes
+ * identity a safe key. Records, ids and lengths are written as
+ * <pre>
+ *   ELEMENTS  count (element)*    digit of elements, each element 0 for null or length + 1, then codec bytes
+ *   DIGIT     count (id)*         digit of earlier digits
+ *   EMPTY
+ *   SINGLE    element             level 0 single
+ *   SINGLE_NODE id
+ *   DEEP      id id id            left digit, spine, right digit
+ *   VERSION   id                  root of the next version
+ * </pre>
+ * with unsigned LEB128 varints for all numbers; sizes are not stored, {@link FingerReader} recomputes them.
+ */
+public class FingerWriter <T> implements Closeable {
+
+    static final byte ELEMENTS = 1;
+    static final byte DIGIT = 2;
+    static final byte EMPTY = 3;
+    static final byte SINGLE = 4;
+    static final byte SINGLE_NODE = 5;
+    static final byte DEEP = 6;
+    static final byte VERSION = 7;
+
+    private final DataOutputStream out;
+    private final Codec<T> codec;
+    private final IdentityHashMap<Object, Integer> ids = new IdentityHashMap<>();
+    private int versions;
+
+    public FingerWriter(OutputStream out, Codec<T> codec) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.codec = codec;
+    }
+
+    /**
+     * Appends {@code list} as the next version, writing only the nodes no earlier version shares.
+     *
+     * @return the number of this version, counting from 0
+     */
+    public int write(JList<T> list) throws IOException {
+        var root = writeFinger(list.finger(), 0);
+        out.writeByte(VERSION);
+        writeVarint(root);
+        return versions++;
+    }
+
+    /**
+     * Number of distinct nodes written so far.
+     */
+    public int nodeCount() {
+        return ids.size();
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private int writeFinger(Finger<?> finger, int level) throws IOException {
+        var id = ids.get(finger);
+        if (id != null) {
+            return id;
+        }
+        switch (finger) {
+            case Finger.Empty<?> v -> out.writeByte(EMPTY);
+            case Finger.Single<?> v -> {
+                if (level == 0) {
+                    out.writeByte(SINGLE);
+                    writeElement(v.inner);
+                } else {
+                    var inner = writeDigit((Finger.Digit<?> ) v.inner, level - 1);
+                    out.writeByte(SINGLE_NODE);
+                    writeVarint(inner);
+                }
+            }
+            case Finger.Deep<?> v -> {
+                var left = writeDigit(v.left, level);
+                var deep = writeFinger(v.deep(), level + 1);
+                var right = writeDigit(v.right, level);
+                out.writeByte(DEEP);
+                writeVarint(left);
+                writeVarint(deep);
+                writeVarint(right);
+            }
+        }
+        return newId(finger);
+    }
+
+    // a digit holding level `level` nodes: elements at level 0, digits above
+    private int writeDigit(Finger.Digit<?> digit, int level) throws IOException {
+        var id = ids.get(digit);
+        if (id != null) {
+            return id;
+        }
+        if (level == 0) {
+            out.writeByte(ELEMENTS);
+            writeVarint(digit.length());
+            for (int i = 0; i < digit.length(); i++) {
+                writeElement(digit.get(i));
+            }
+        } else {
+            var children = new int[digit.length()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = writeDigit((Finger.Digit<?> ) digit.get(i), level - 1);
+            }
+            out.writeByte(DIGIT);
+            writeVarint(children.length);
+            for (var c : children) {
+                writeVarint(c);
+            }
+        }
+        return newId(digit);
+    }
+
+    private int newId(Object node) {
+        var id = ids.size();
+        ids.put(node, id);
+        return id;
+    }
+
+    // null never reaches the codec
+    private void writeElement(Object value) throws IOException {
+        if (value == null) {
+            writeVarint(0);
+            return;
+        }
+        var bytes = codec.encode((T ) value);
+        writeVarint(bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private void writeVarint(int v) throws IOException {
+        while ((v & ~0x7f) != 0) {
+            out.writeByte((v & 0x7f) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+}
@@ -0,0 +1,116 @@
+package immut;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * List of {@code int}s without boxing.
+ * <p>
+ * Level 0 of the tree holds chunks of up to {@value #CHUNK} values in a plain {@code int[]}, so a million
+ * elements take about four megabytes plus a few thousand tree nodes, and a read touches one array instead of
+ * an {@code Integer} per element. Appends fill a tail array in place that joins the tree as one chunk when
+ * full. The {@code List<Integer>} methods box at the boundary only.
+ * <p>
+ * Not thread-safe; iterators and streams see the contents at the time they were created.
+ */
+public class IntJList extends PrimitiveJList<Integer> {
+
+    public IntJList() {
+        super(new int[CHUNK]);
+    }
+
+    public static IntJList of(int... values) {
+        var out = new IntJList();
+        out.fill(values, values.length);
+        return out;
+    }
+
+    @Override
+    Object newArray(int length) {
+        return new int[length];
+    }
+
+    public int getInt(int index) {
+        var slot = slot(index);
+        return ((int[] ) slot.values())[slot.offset()];
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    public void addInt(int value) {
+        var at = appendAt();
+        ((int[] ) tail)[at] = value;
+        appended();
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        addInt(value);
+        return true;
+    }
+
+    public int setInt(int index, int value) {
+        var slot = writableSlot(index);
+        var values = (int[] ) slot.values();
+        var old = values[slot.offset()];
+        values[slot.offset()] = value;
+        return old;
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        return setInt(index, value);
+    }
+
+    public void addInt(int index, int value) {
+        var slot = insertSlot(index);
+        ((int[] ) slot.values())[slot.offset()] = value;
+    }
+
+    @Override
+    public void add(int index, Integer value) {
+        addInt(index, value);
+    }
+
+    public int removeInt(int index) {
+        var old = getInt(index);
+        removeSlot(index);
+        return old;
+    }
+
+    @Override
+    public Integer remove(int index) {
+        return removeInt(index);
+    }
+
+    public PrimitiveIterator.OfInt intIterator() {
+        return new IntCursor();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return intIterator();
+    }
+
+    public IntStream intStream() {
+        var spliterator = Spliterators.spliterator(intIterator(), size(),
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.IMMUTABLE);
+        return StreamSupport.intStream(spliterator, false);
+    }
+
+    public int[] toIntArray() {
+        return (int[] ) toRawArray();
+    }
+
+    private final class IntCursor extends Cursor implements PrimitiveIterator.OfInt {
+        @Override
+        public int nextInt() {
+            var at = step();
+            return ((int[] ) values)[at];
+        }
+    }
+
+}
@@ -0,0 +1,265 @@
+package immut;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * {@link Deque} over a persistent {@link Finger}: both ends map straight onto {@link Utils#pushLeft},
+ * {@link Utils#pushRight}, {@link Utils#popLeft} and {@link Utils#popRight}, amortized O(1) each, and
+ * {@link #toSeq()} hands out the current contents in O(1) without copying. Null elements are not permitted.
+ * <p>
+ * {@link JList} has the end operations too but stays a plain {@code List}: declaring {@code Deque} would
+ * also take a {@code reversed()} view that is both a {@code List} and a {@code Deque}, as {@link LinkedList}
+ * has, and {@code JList} holds nulls, which {@link #poll()} and {@link #peek()} use to mean empty. Code that
+ * wants the {@code Deque} type uses this class; {@code new JDeque<>(list)} and {@link #toJList()} share the
+ * tree. Not thread-safe; iterators see the contents at the time they were created.
+ */
+public class JDeque <T> extends AbstractCollection<T> implements Deque<T> {
+
+    private Finger<T> f = Finger.Empty.empty();
+
+    public JDeque() {
+    }
+
+    public JDeque(Collection<? extends T> c) {
+        f = new JList<T>(c).finger();
+        if (Utils.indexOf(f, null) >= 0) {
+            throw new NullPointerException();
+        }
+    }
+
+    public Seq<T> toSeq() {
+        return new Seq<>(f);
+    }
+
+    public JList<T> toJList() {
+        return new JList<>(f);
+    }
+
+    @Override
+    public int size() {
+        return f.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return f.size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        f = Finger.Empty.empty();
+    }
+
+    @Override
+    public void addFirst(T t) {
+        f = Utils.pushLeft(f, Objects.requireNonNull(t));
+    }
+
+    @Override
+    public void addLast(T t) {
+        f = Utils.pushRight(f, Objects.requireNonNull(t));
+    }
+
+    @Override
+    public boolean offerFirst(T t) {
+        addFirst(t);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(T t) {
+        addLast(t);
+        return true;
+    }
+
+    @Override
+    public T pollFirst() {
+        if (f.size() == 0) {
+            return null;
+        }
+        var ans = Utils.head(f);
+        f = Utils.popLeft(f, _ -> {});
+        return ans;
+    }
+
+    @Override
+    public T pollLast() {
+        if (f.size() == 0) {
+            return null;
+        }
+        var ans = Utils.last(f);
+        f = Utils.popRight(f, _ -> {});
+        return ans;
+    }
+
+    @Override
+    public T removeFirst() {
+        if (f.size() == 0) {
+            throw new NoSuchElementException();
+        }
+        return pollFirst();
+    }
+
+    @Override
+    public T removeLast() {
+        if (f.size() == 0) {
+            throw new NoSuchElementException();
+        }
+        return pollLast();
+    }
+
+    @Override
+    public T peekFirst() {
+        return f.size() == 0 ? null : Utils.head(f);
+    }
+
+    @Override
+    public T peekLast() {
+        return f.size() == 0 ? null : Utils.last(f);
+    }
+
+    @Override
+    public T getFirst() {
+        if (f.size() == 0) {
+            throw new NoSuchElementException();
+        }
+        return Utils.head(f);
+    }
+
+    @Override
+    public T getLast() {
+        if (f.size() == 0) {
+            throw new NoSuchElementException();
+        }
+        return Utils.last(f);
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        var i = Utils.indexOf(f, o);
+        if (i < 0) {
+            return false;
+        }
+        f = Utils.removeAt(f, i, _ -> {});
+        return true;
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        var i = Utils.lastIndexOf(f, o);
+        if (i < 0) {
+            return false;
+        }
+        f = Utils.removeAt(f, i, _ -> {});
+        return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        return retain(x -> !filter.test(x));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return retain(x -> !c.contains(x));
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return retain(c::contains);
+    }
+
+    // the iterators cannot remove, so bulk removal rebuilds the tree from the kept elements in O(n)
+    private boolean retain(Predicate<? super T> keep) {
+        var values = new Object[f.size()];
+        var n = new int[1];
+        Utils.orderlyMethod(f, x -> {
+            if (keep.test(x)) {
+                values[n[0]++] = x;
+            }
+        });
+        if (n[0] == values.length) {
+            return false;
+        }
+        f = Utils.fromArray(values, 0, n[0]);
+        return true;
+    }
+
+    @Override
+    public boolean add(T t) {
+        addLast(t);
+        return true;
+    }
+
+    @Override
+    public boolean offer(T t) {
+        addLast(t);
+        return true;
+    }
+
+    @Override
+    public T remove() {
+        return removeFirst();
+    }
+
+    @Override
+    public T poll() {
+        return pollFirst();
+    }
+
+    @Override
+    public T element() {
+        return getFirst();
+    }
+
+    @Override
+    public T peek() {
+        return peekFirst();
+    }
+
+    @Override
+    public void push(T t) {
+        addFirst(t);
+    }
+
+    @Override
+    public T pop() {
+        return removeFirst();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return removeFirstOccurrence(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return Utils.indexOf(f, o) >= 0;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new FingerIterator<>(f, false);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new FingerIterator<>(f, true);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new FingerSpliterator<>(f);
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        Utils.orderlyMethod(f, action::accept);
+    }
+
+}
@@ -1,12 +1,90 @@
 package immut;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
+import java.util.function.*;
+import java.util.stream.*;
 
 @SuppressWarnings({"NonAtomicOperationOnVolatileField", "UnnecessaryLocalVariable"})
 public class JList <T> extends AbstractList<T> implements List<T> {
 
     private volatile Finger<T> f = Finger.Empty.empty();
+    // automatic compaction: off while autoCompactBelow is 0, see autoCompact
+    private double autoCompactBelow;
+    private int editsSinceCheck;
+
+    public JList() {
+    }
+
+    public JList(Collection<? extends T> c) {
+        this.f = treeOf(c);
+    }
+
+    JList(Finger<T> f) {
+        this.f = f;
+    }
+
+    // the current tree, for code that works on the nodes (serialization)
+    Finger<T> finger() {
+        return f;
+    }
+
+    // fromArray only reads the array and keeps no reference to it
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> JList<T> of(T... values) {
+        return fromArray(values);
+    }
+
+    /**
+     * Builds a list holding the elements of {@code values} in linear time; the array is not retained.
+     */
+    public static <T> JList<T> fromArray(T[] values) {
+        return new JList<>(Utils.fromArray(values));
+    }
+
+    private static <T> Finger<T> treeOf(Collection<? extends T> c) {
+        if (c instanceof JList<? extends T> c2) {
+            @SuppressWarnings("unchecked") var c3 = (JList<T> ) c2;
+            return c3.f;
+        }
+        if (c instanceof Seq<? extends T> c2) {
+            return (Finger<T> ) c2.finger();
+        }
+        return Utils.fromArray(c.toArray());
+    }
+
+    /**
+     * Collector into a {@code JList}: every thread appends to its own {@link TransientJList} and the partial
+     * lists are joined by {@link Utils#merge} in O(log n), so a parallel stream collects without copying.
+     */
+    public static <T> Collector<T, ?, JList<T>> toJList() {
+        return Collector.of(() -> new JList<T>().asTransient(), TransientJList::add, TransientJList::concat,
+                TransientJList::persistent);
+    }
+
+    /**
+     * Same as {@link #toJList()}.
+     */
+    public static <T> Collector<T, ?, JList<T>> collector() {
+        return toJList();
+    }
+
+    /**
+     * The current contents as an immutable value sharing this list's tree, in O(1).
+     */
+    public Seq<T> toSeq() {
+        return new Seq<>(f);
+    }
+
+    /**
+     * Starts a single-owner editing session on the current contents, see {@link TransientJList}.
+     * This list is not affected by edits made through the transient.
+     */
+    public TransientJList<T> asTransient() {
+        return new TransientJList<>(f);
+    }
 
     @Override
     public int size() {
@@ -20,65 +98,243 @@ public class JList <T> extends AbstractList<T> implements List<T> {
 
     @Override
     public boolean contains(Object o) {
-        var local_f = f;
-        var s = f.size();
-        for (int i = 0; i < s; i += 1) {
-            var li = Utils.indexGet(local_f, i);
-            if (Objects.equals(li, o)) {
-                return true;
-            }
-        }
-        return false;
+        return Utils.indexOf(f, o) >= 0;
     }
 
-    static class IteratorJList <T> implements Iterator<T> {
-        private final Finger<T> f2;
-        private int i;
-        public IteratorJList(JList<T> l) {
-            f2 = l.f;
-            i = 0;
-        }
+    @Override
+    public int indexOf(Object o) {
+        return Utils.indexOf(f, o);
+    }
 
-        @Override
-        public boolean hasNext() {
-            return i < f2.size();
-        }
+    @Override
+    public int lastIndexOf(Object o) {
+        return Utils.lastIndexOf(f, o);
+    }
 
-        @Override
-        public T next() {
-            if (i >= f2.size()) {
-                throw new NoSuchElementException();
+    @Override
+    public Iterator<T> iterator() {
+        return new FingerIterator<>(f, false);
+    }
+
+    public Iterator<T> descendingIterator() {
+        return new FingerIterator<>(f, true);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new FingerSpliterator<>(f);
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        Utils.orderlyMethod(f, action::accept);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof List<?> other)) {
+            return false;
+        }
+        var local_f = f;
+        if (o instanceof JList<?> j && j.size() != local_f.size()) {
+            return false;
+        }
+        var e1 = new FingerIterator<>(local_f, false);
+        var e2 = other.iterator();
+        while (e1.hasNext() && e2.hasNext()) {
+            if (!Objects.equals(e1.next(), e2.next())) {
+                return false;
             }
-            // System.out.printf("i = %d, f2:size = %d. \n", i, f2.size());
-            var n = Utils.indexGet(f2, i);
-            i += 1;
-            return n;
         }
+        return !(e1.hasNext() || e2.hasNext());
     }
 
     @Override
-    public Iterator<T> iterator() {
-        return new IteratorJList<>(this);
+    public int hashCode() {
+        int h = 1;
+        var it = new FingerIterator<>(f, false);
+        while (it.hasNext()) {
+            h = 31 * h + Objects.hashCode(it.next());
+        }
+        return h;
     }
 
     @Override
     public Object[] toArray() {
-        var l = Utils.toList(f);
-        return l.toArray();
+        var local_f = f;
+        var out = new Object[local_f.size()];
+        fill(local_f, out);
+        return out;
     }
 
     @Override
     public <T1> T1[] toArray(T1[] a) {
-        var l = Utils.toList(f);
-        return l.toArray(a);
+        var local_f = f;
+        var s = local_f.size();
+        var out = a.length >= s ? a : Arrays.copyOf(a, s);
+        fill(local_f, out);
+        if (out.length > s) {
+            out[s] = null;
+        }
+        return out;
+    }
+
+    // one walk over the whole tree
+    private static void fill(Finger<?> finger, Object[] out) {
+        var at = new int[1];
+        Utils.orderlyMethod(finger, x -> out[at[0]++] = x);
+    }
+
+    /**
+     * Copies the elements {@code [fromIndex, toIndex)} to {@code dest} starting at {@code destPos}: one descent
+     * to {@code fromIndex}, then the leaves in order.
+     */
+    public void copyRange(int fromIndex, int toIndex, Object[] dest, int destPos) {
+        var local_f = f;
+        Objects.checkFromToIndex(fromIndex, toIndex, local_f.size());
+        Objects.checkFromIndexSize(destPos, toIndex - fromIndex, dest.length);
+        if (fromIndex == toIndex) {
+            return;
+        }
+        var it = new FingerIterator<>(local_f, false, fromIndex);
+        for (int i = fromIndex; i < toIndex; i += 1) {
+            dest[destPos++] = it.next();
+        }
+    }
+
+    // a gap this short is walked by the cursor instead of descending again
+    private static final int SEEK_DISTANCE = 64;
+
+    /**
+     * The elements at {@code indices}, which must be in ascending order (repeats allowed). Nearby indices share
+     * one descent: the cursor walks forward over short gaps and only seeks anew across long ones.
+     */
+    public List<T> getAll(int[] indices) {
+        var local_f = f;
+        var s = local_f.size();
+        var out = new Object[indices.length];
+        FingerIterator<T> it = null;
+        int next = 0;
+        Object last = null;
+        for (int k = 0; k < indices.length; k += 1) {
+            var idx = Objects.checkIndex(indices[k], s);
+            if (k > 0 && idx < indices[k - 1]) {
+                throw new IllegalArgumentException("indices not sorted at " + k);
+            }
+            if (k > 0 && idx == indices[k - 1]) {
+                out[k] = last;
+                continue;
+            }
+            if (it == null || idx - next >= SEEK_DISTANCE) {
+                it = new FingerIterator<>(local_f, false, idx);
+                next = idx;
+            }
+            while (next < idx) {
+                it.next();
+                next += 1;
+            }
+            last = it.next();
+            next += 1;
+            out[k] = last;
+        }
+        return (List<T> ) Collections.unmodifiableList(Arrays.asList(out));
     }
 
     @Override
     public boolean add(T t) {
         f = Utils.pushRight(f, t);
+        modCount += 1;
         return true;
     }
 
+    @Override
+    public void addFirst(T t) {
+        f = Utils.pushLeft(f, t);
+        modCount += 1;
+    }
+
+    @Override
+    public void addLast(T t) {
+        f = Utils.pushRight(f, t);
+        modCount += 1;
+    }
+
+    @Override
+    public T getFirst() {
+        var local_f = f;
+        if (local_f.size() == 0) {
+            throw new NoSuchElementException();
+        }
+        return Utils.head(local_f);
+    }
+
+    @Override
+    public T getLast() {
+        var local_f = f;
+        if (local_f.size() == 0) {
+            throw new NoSuchElementException();
+        }
+        return Utils.last(local_f);
+    }
+
+    @Override
+    public T removeFirst() {
+        var local_f = f;
+        if (local_f.size() == 0) {
+            throw new NoSuchElementException();
+        }
+        var ans = Utils.head(local_f);
+        f = Utils.popLeft(local_f, _ -> {});
+        modCount += 1;
+        return ans;
+    }
+
+    @Override
+    public T removeLast() {
+        var local_f = f;
+        if (local_f.size() == 0) {
+            throw new NoSuchElementException();
+        }
+        var ans = Utils.last(local_f);
+        f = Utils.popRight(local_f, _ -> {});
+        modCount += 1;
+        return ans;
+    }
+
+    /**
+     * First element, or null if the list is empty.
+     */
+    public T peekFirst() {
+        var local_f = f;
+        return local_f.size() == 0 ? null : Utils.head(local_f);
+    }
+
+    /**
+     * Last element, or null if the list is empty.
+     */
+    public T peekLast() {
+        var local_f = f;
+        return local_f.size() == 0 ? null : Utils.last(local_f);
+    }
+
+    /**
+     * Removes and returns the first element, or null if the list is empty.
+     */
+    public T pollFirst() {
+        return f.size() == 0 ? null : removeFirst();
+    }
+
+    /**
+     * Removes and returns the last element, or null if the list is empty.
+     */
+    public T pollLast() {
+        return f.size() == 0 ? null : removeLast();
+    }
+
     @Override
     public T get(int index) {
         var local_f = f;
@@ -91,19 +347,14 @@ public class JList <T> extends AbstractList<T> implements List<T> {
     @Override
     public boolean remove(Object o) {
         var local_f = f;
-        var s = f.size();
-        for (int i = 0; i < s; i += 1) {
-            var li = Utils.indexGet(local_f, i);
-            if (Objects.equals(li, o)) {
-                var pair = Utils.split(local_f, i);
-                var l = pair.left();
-                var r = Utils.popLeft(pair.right(), _ -> {});
-                var ans = Utils.merge(l, r);
-                f = ans;
-                return true;
-            }
+        var i = Utils.indexOf(local_f, o);
+        if (i < 0) {
+            return false;
         }
-        return false;
+        f = Utils.removeAt(local_f, i, _ -> {});
+        modCount += 1;
+        edited();
+        return true;
     }
 
     @Override
@@ -122,6 +373,7 @@ public class JList <T> extends AbstractList<T> implements List<T> {
         r = Utils.pushLeft(r, element);
         var rst = Utils.merge(l, r);
         f = rst;
+        edited();
         return ans.get();
     }
 
@@ -131,12 +383,9 @@ public class JList <T> extends AbstractList<T> implements List<T> {
         if (index < 0 || index > local_f.size()) {
             throw new IllegalArgumentException();
         }
-        var sp = Utils.split(local_f, index);
-        var l = sp.left();
-        var r = sp.right();
-        r = Utils.pushLeft(r, element);
-        var rst = Utils.merge(l, r);
-        f = rst;
+        f = Utils.insert(local_f, index, element);
+        modCount += 1;
+        edited();
     }
 
     @Override
@@ -146,57 +395,304 @@ public class JList <T> extends AbstractList<T> implements List<T> {
             throw new IllegalArgumentException();
         }
         var ans = new AtomicReference<T>();
-        var sp = Utils.split(local_f, index);
-        var l = sp.left();
-        var r = sp.right();
-        r = Utils.popLeft(r, ans::set);
-        var rst = Utils.merge(l, r);
-        f = rst;
+        f = Utils.removeAt(local_f, index, ans::set);
+        modCount += 1;
+        edited();
         return ans.get();
     }
 
     @Override
     public void clear() {
         f = Finger.Empty.empty();
+        modCount += 1;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        Finger<T> f2 = treeOf(c);
+        if (f2.size() == 0) {
+            return false;
+        }
+        f = Utils.merge(f, f2);
+        modCount += 1;
+        return true;
     }
 
     @Override
     public boolean addAll(int index, Collection<? extends T> c) {
         var current_f = f;
-        if (c instanceof JList<? extends T> c2) {
-            if (index < 0 || index >= current_f.size()) {
-                throw new IllegalArgumentException("index: Out of bounds");
-            }
-            @SuppressWarnings("unchecked") var c3 = (JList<T> ) c2;
-            if (c3.size() == 0) {
-                return false;
-            }
-            var f2 = c3.f;
-            var sp = Utils.split(current_f, index);
-            var l = sp.left();
-            l = Utils.merge(l, f2);
-            l = Utils.merge(l, sp.right());
-            f = l;
-            return true;
-        } else {
-            return super.addAll(index, c);
+        if (index < 0 || index > current_f.size()) {
+            throw new IllegalArgumentException("index: Out of bounds");
         }
+        Finger<T> f2 = treeOf(c);
+        if (f2.size() == 0) {
+            return false;
+        }
+        var sp = Utils.split(current_f, index);
+        var l = sp.left();
+        l = Utils.merge(l, f2);
+        l = Utils.merge(l, sp.right());
+        f = l;
+        modCount += 1;
+        edited();
+        return true;
     }
 
     @Override
     protected void removeRange(int fromIndex, int toIndex) {
         // super.removeRange(fromIndex, toIndex);
         var local_f = f;
-        if (toIndex < 0 || toIndex >= local_f.size()) {
+        if (toIndex < 0 || toIndex > local_f.size()) {
             throw new IllegalArgumentException();
         }
-        if (fromIndex < 0 || fromIndex >= local_f.size()) {
+        if (fromIndex < 0 || fromIndex > toIndex) {
             throw new IllegalArgumentException();
         }
+        if (fromIndex == toIndex) {
+            return;
+        }
         var sp = Utils.split(local_f, toIndex);
         var sp2 = Utils.split(sp.left(), fromIndex);
         var ans = Utils.merge(sp2.left(), sp.right());
         f = ans;
+        modCount += 1;
+        edited();
+    }
+
+    public record Split<T>(JList<T> left, JList<T> right) {}
+
+    /**
+     * Shape of the tree behind a list, see {@link #shapeStats()}.
+     *
+     * @param depth       levels of the spine, the innermost {@code Single} or {@code Empty} included
+     * @param nodes       fingers and digits in the tree
+     * @param spineDigits entry {@code i} counts spine digits (the left and right digits of each level)
+     *                    holding {@code i} nodes, the last entry also those holding more
+     * @param innerNodes  entry {@code i} counts nodes below the spine with {@code i} children, the last entry
+     *                    also those with more
+     */
+    public record ShapeStats(int size, int depth, long nodes, long[] spineDigits, long[] innerNodes) {
+        // histogram entries; the last one also counts anything larger
+        static final int BUCKETS = 6;
+
+        /**
+         * Average number of children of the nodes below the spine; 3 for a freshly built tree.
+         */
+        public double fanOut() {
+            long count = 0, children = 0;
+            for (int i = 0; i < innerNodes.length; i++) {
+                count += innerNodes[i];
+                children += (long) i * innerNodes[i];
+            }
+            return count == 0 ? 0 : (double) children / count;
+        }
+    }
+
+    /**
+     * Walks the whole tree and reports its shape. O(n / 3); spines still suspended after pushes and pops are
+     * forced on the way.
+     */
+    public ShapeStats shapeStats() {
+        return Utils.shapeStats(f);
+    }
+
+    /**
+     * Rebuilds the tree into the packed shape {@link Utils#fromArray} gives a fresh list, in linear time.
+     * The contents and size do not change, so open {@link #subList} views stay valid.
+     */
+    public void compact() {
+        f = Utils.fromArray(toArray());
+        editsSinceCheck = 0;
+    }
+
+    // edits between two shape checks: the check is O(log n) and a compaction O(n), both amortized to O(1)
+    private static final int COMPACT_CHECK_MIN = 1024;
+    private static final int COMPACT_SAMPLES = 32;
+
+    /**
+     * Compacts the tree automatically once its fan-out drops below {@code minFanOut}. Every
+     * {@code max(1024, size / 8)} edits in the middle of the list (indexed add, remove and set, removeRange,
+     * addAll at an index) the fan-out is estimated from a few random root-to-leaf paths; a freshly built tree
+     * has 3, trees worn by many edits drift towards 2. A value of 0 turns it off, which is the default.
+     */
+    public void autoCompact(double minFanOut) {
+        if (minFanOut < 0 || minFanOut > 3) {
+            throw new IllegalArgumentException("minFanOut: " + minFanOut);
+        }
+        autoCompactBelow = minFanOut;
+        editsSinceCheck = 0;
+    }
+
+    private void edited() {
+        if (autoCompactBelow == 0) {
+            return;
+        }
+        editsSinceCheck += 1;
+        if (editsSinceCheck < Math.max(COMPACT_CHECK_MIN, f.size() >> 3)) {
+            return;
+        }
+        editsSinceCheck = 0;
+        if (Utils.sampleFanOut(f, COMPACT_SAMPLES, ThreadLocalRandom.current()) < autoCompactBelow) {
+            compact();
+        }
+    }
+
+    /**
+     * The first {@code index} elements and the rest, as two lists sharing this list's nodes.
+     */
+    public Split<T> splitAt(int index) {
+        var local_f = f;
+        Objects.checkIndex(index, local_f.size() + 1);
+        var sp = Utils.split(local_f, index);
+        return new Split<>(new JList<>(sp.left()), new JList<>(sp.right()));
+    }
+
+    /**
+     * The elements {@code [fromIndex, toIndex)} as a new list sharing this list's nodes, in O(log n).
+     */
+    public JList<T> slice(int fromIndex, int toIndex) {
+        var local_f = f;
+        Objects.checkFromToIndex(fromIndex, toIndex, local_f.size());
+        return new JList<>(sliceOf(local_f, fromIndex, toIndex));
+    }
+
+    public JList<T> take(int n) {
+        return slice(0, Math.min(Math.max(n, 0), size()));
+    }
+
+    public JList<T> drop(int n) {
+        var local_f = f;
+        var from = Math.min(Math.max(n, 0), local_f.size());
+        return new JList<>(sliceOf(local_f, from, local_f.size()));
+    }
+
+    private static <T> Finger<T> sliceOf(Finger<T> finger, int fromIndex, int toIndex) {
+        if (fromIndex == 0 && toIndex == finger.size()) {
+            return finger;
+        }
+        return Utils.split(Utils.split(finger, toIndex).left(), fromIndex).right();
+    }
+
+    /**
+     * A view of {@code [fromIndex, toIndex)} that copies nothing: reads index into this list's current tree
+     * with an offset, writes go through to this list. Adding or removing elements of this list other than
+     * through the view invalidates it, replacing them with {@link #set} does not; use {@link #slice} for an
+     * independent list.
+     */
+    @Override
+    public List<T> subList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size());
+        return new SubList<>(this, fromIndex, toIndex);
+    }
+
+    private static final class SubList<T> extends AbstractList<T> {
+        private final JList<T> parent;
+        private final int from;
+        private int to;
+        // the parent modCount this view is valid for: the offsets go stale when elements come or go, even if
+        // as many come as go
+        private int expectedModCount;
+
+        SubList(JList<T> parent, int from, int to) {
+            this.parent = parent;
+            this.from = from;
+            this.to = to;
+            this.expectedModCount = parent.modCount;
+        }
+
+        private Finger<T> root() {
+            if (parent.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return parent.f;
+        }
+
+        private void changed() {
+            expectedModCount = parent.modCount;
+            modCount += 1;
+        }
+
+        @Override
+        public int size() {
+            root();
+            return to - from;
+        }
+
+        @Override
+        public T get(int index) {
+            var cur = root();
+            Objects.checkIndex(index, to - from);
+            return Utils.indexGet(cur, from + index);
+        }
+
+        @Override
+        public T set(int index, T element) {
+            root();
+            Objects.checkIndex(index, to - from);
+            var old = parent.set(from + index, element);
+            changed();
+            return old;
+        }
+
+        @Override
+        public void add(int index, T element) {
+            root();
+            Objects.checkIndex(index, to - from + 1);
+            parent.add(from + index, element);
+            to += 1;
+            changed();
+        }
+
+        @Override
+        public T remove(int index) {
+            root();
+            Objects.checkIndex(index, to - from);
+            var old = parent.remove(from + index);
+            to -= 1;
+            changed();
+            return old;
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            root();
+            Objects.checkFromToIndex(fromIndex, toIndex, to - from);
+            parent.removeRange(from + fromIndex, from + toIndex);
+            to -= toIndex - fromIndex;
+            changed();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            var cur = root();
+            var n = to - from;
+            if (n == 0) {
+                return Collections.emptyIterator();
+            }
+            var it = new FingerIterator<>(cur, false, from);
+            return new Iterator<>() {
+                private int left = n;
+
+                @Override
+                public boolean hasNext() {
+                    return left > 0;
+                }
+
+                @Override
+                public T next() {
+                    if (left == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    left -= 1;
+                    return it.next();
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return new FingerSpliterator<>(root(), from, to);
+        }
     }
 
 }
@@ -0,0 +1,116 @@
+package immut;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * List of {@code long}s without boxing.
+ * <p>
+ * Level 0 of the tree holds chunks of up to {@value #CHUNK} values in a plain {@code long[]}, so a million
+ * elements take about eight megabytes plus a few thousand tree nodes, and a read touches one array instead of
+ * a {@code Long} per element. Appends fill a tail array in place that joins the tree as one chunk when
+ * full. The {@code List<Long>} methods box at the boundary only.
+ * <p>
+ * Not thread-safe; iterators and streams see the contents at the time they were created.
+ */
+public class LongJList extends PrimitiveJList<Long> {
+
+    public LongJList() {
+        super(new long[CHUNK]);
+    }
+
+    public static LongJList of(long... values) {
+        var out = new LongJList();
+        out.fill(values, values.length);
+        return out;
+    }
+
+    @Override
+    Object newArray(int length) {
+        return new long[length];
+    }
+
+    public long getLong(int index) {
+        var slot = slot(index);
+        return ((long[] ) slot.values())[slot.offset()];
+    }
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    public void addLong(long value) {
+        var at = appendAt();
+        ((long[] ) tail)[at] = value;
+        appended();
+    }
+
+    @Override
+    public boolean add(Long value) {
+        addLong(value);
+        return true;
+    }
+
+    public long setLong(int index, long value) {
+        var slot = writableSlot(index);
+        var values = (long[] ) slot.values();
+        var old = values[slot.offset()];
+        values[slot.offset()] = value;
+        return old;
+    }
+
+    @Override
+    public Long set(int index, Long value) {
+        return setLong(index, value);
+    }
+
+    public void addLong(int index, long value) {
+        var slot = insertSlot(index);
+        ((long[] ) slot.values())[slot.offset()] = value;
+    }
+
+    @Override
+    public void add(int index, Long value) {
+        addLong(index, value);
+    }
+
+    public long removeLong(int index) {
+        var old = getLong(index);
+        removeSlot(index);
+        return old;
+    }
+
+    @Override
+    public Long remove(int index) {
+        return removeLong(index);
+    }
+
+    public PrimitiveIterator.OfLong longIterator() {
+        return new LongCursor();
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return longIterator();
+    }
+
+    public LongStream longStream() {
+        var spliterator = Spliterators.spliterator(longIterator(), size(),
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.IMMUTABLE);
+        return StreamSupport.longStream(spliterator, false);
+    }
+
+    public long[] toLongArray() {
+        return (long[] ) toRawArray();
+    }
+
+    private final class LongCursor extends Cursor implements PrimitiveIterator.OfLong {
+        @Override
+        public long nextLong() {
+            var at = step();
+            return ((long[] ) values)[at];
+        }
+    }
+
+}
@@ -0,0 +1,451 @@
+package immut;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Finger tree annotated with an arbitrary {@link Measure}.
+ * <p>
+ * Same shape as {@link Finger}, but every digit and deep node caches the combined measure of its contents
+ * instead of an element count, and trees are split by a predicate on the accumulated measure. The operations
+ * live in {@link MUtils} and take the measure as their first argument; a tree must always be used with the
+ * measure it was built with.
+ * <p>
+ * {@link Finger} is not built on this class: with {@link Measure#size()} every node would hold a boxed
+ * {@code Integer} and every step of an indexed read would combine and allocate one. The two must agree on
+ * every operation they share.
+ */
+public sealed interface MFinger<T, M> {
+
+    M measure();
+
+    final class Empty<T, M> implements MFinger<T, M> {
+        public final M measure;
+
+        public Empty(M measure) {
+            this.measure = measure;
+        }
+
+        @Override
+        public M measure() {
+            return measure;
+        }
+    }
+
+    final class Digit<T, M> {
+        public Object[] values;
+        public M measure;
+    }
+
+    final class Single<T, M> implements MFinger<T, M> {
+        public T inner;
+        public M measure;
+
+        @Override
+        public M measure() {
+            return measure;
+        }
+    }
+
+    final class Deep<T, M> implements MFinger<T, M> {
+        public Digit<T, M> left;
+        public MFinger<Digit<T, M>, M> deep;
+        public Digit<T, M> right;
+        public M measure;
+
+        public void initMeasure(Measure<?, M> ms) {
+            measure = ms.combine(ms.combine(left.measure, deep.measure()), right.measure);
+        }
+
+        @Override
+        public M measure() {
+            return measure;
+        }
+    }
+
+}
+
+class MUtils {
+
+    record Split<T, M>(MFinger<T, M> left, T item, MFinger<T, M> right) {}
+
+    record DigitSplit(Object[] left, Object item, Object[] right) {}
+
+    record Found<T, M>(T item, M before) {}
+
+    static <M> M measureOf(Measure<?, M> ms, Object item) {
+        if (item instanceof MFinger.Digit<?, ?> d) {
+            return (M ) d.measure;
+        }
+        return ((Measure<Object, M> ) ms).measure(item);
+    }
+
+    static <T, M> MFinger.Digit<T, M> digit(Measure<?, M> ms, Object[] values) {
+        var out = new MFinger.Digit<T, M>();
+        out.values = values;
+        var acc = ms.identity();
+        for (Object value : values) {
+            acc = ms.combine(acc, measureOf(ms, value));
+        }
+        out.measure = acc;
+        return out;
+    }
+
+    static <T, M> MFinger<T, M> empty(Measure<?, M> ms) {
+        return new MFinger.Empty<>(ms.identity());
+    }
+
+    static <T, M> MFinger<T, M> single(Measure<?, M> ms, Object inner) {
+        var out = new MFinger.Single<T, M>();
+        out.inner = (T ) inner;
+        out.measure = measureOf(ms, inner);
+        return out;
+    }
+
+    static <T, M> MFinger<T, M> deep(Measure<?, M> ms, MFinger.Digit<T, M> left, MFinger<MFinger.Digit<T, M>, M> deep,
+                                     MFinger.Digit<T, M> right) {
+        var out = new MFinger.Deep<T, M>();
+        out.left = left;
+        out.deep = deep;
+        out.right = right;
+        out.initMeasure(ms);
+        return out;
+    }
+
+    static <T, M> MFinger<T, M> fromValues(Measure<?, M> ms, Object[] values) {
+        MFinger<T, M> out = empty(ms);
+        for (Object value : values) {
+            out = pushRight(ms, out, value);
+        }
+        return out;
+    }
+
+    public static <T, M> MFinger<T, M> pushLeft(Measure<?, M> ms, MFinger<T, M> finger, Object obj) {
+        switch (finger) {
+            case MFinger.Deep<T, M> v -> {
+                var l = v.left.values;
+                if (l.length == 4) {
+                    MFinger.Digit<T, M> node = digit(ms, new Object[] { l[1], l[2], l[3] });
+                    return deep(ms, digit(ms, new Object[] { obj, l[0] }), pushLeft(ms, v.deep, node), v.right);
+                }
+                var newLeft = new Object[l.length + 1];
+                System.arraycopy(l, 0, newLeft, 1, l.length);
+                newLeft[0] = obj;
+                return deep(ms, digit(ms, newLeft), v.deep, v.right);
+            }
+            case MFinger.Empty<T, M> v -> {
+                return single(ms, obj);
+            }
+            case MFinger.Single<T, M> v -> {
+                return deep(ms, digit(ms, new Object[] { obj }), empty(ms), digit(ms, new Object[] { v.inner }));
+            }
+        }
+    }
+
+    public static <T, M> MFinger<T, M> pushRight(Measure<?, M> ms, MFinger<T, M> finger, Object obj) {
+        switch (finger) {
+            case MFinger.Deep<T, M> v -> {
+                var r = v.right.values;
+                if (r.length == 4) {
+                    MFinger.Digit<T, M> node = digit(ms, new Object[] { r[0], r[1], r[2] });
+                    return deep(ms, v.left, pushRight(ms, v.deep, node), digit(ms, new Object[] { r[3], obj }));
+                }
+                var newRight = Arrays.copyOf(r, r.length + 1);
+                newRight[r.length] = obj;
+                return deep(ms, v.left, v.deep, digit(ms, newRight));
+            }
+            case MFinger.Empty<T, M> v -> {
+                return single(ms, obj);
+            }
+            case MFinger.Single<T, M> v -> {
+                return deep(ms, digit(ms, new Object[] { v.inner }), empty(ms), digit(ms, new Object[] { obj }));
+            }
+        }
+    }
+
+    public static <T, M> MFinger<T, M> popLeft(Measure<?, M> ms, MFinger<T, M> finger, Consumer<? super T> consume) {
+        switch (finger) {
+            case MFinger.Deep<T, M> v -> {
+                var l = v.left.values;
+                consume.accept((T ) l[0]);
+                return deepL(ms, Arrays.copyOfRange(l, 1, l.length), v.deep, v.right);
+            }
+            case MFinger.Empty<T, M> v -> {
+                throw new NoSuchElementException();
+            }
+            case MFinger.Single<T, M> v -> {
+                consume.accept(v.inner);
+                return empty(ms);
+            }
+        }
+    }
+
+    public static <T, M> MFinger<T, M> popRight(Measure<?, M> ms, MFinger<T, M> finger, Consumer<? super T> consume) {
+        switch (finger) {
+            case MFinger.Deep<T, M> v -> {
+                var r = v.right.values;
+                consume.accept((T ) r[r.length - 1]);
+                return deepR(ms, v.left, v.deep, Arrays.copyOf(r, r.length - 1));
+            }
+            case MFinger.Empty<T, M> v -> {
+                throw new NoSuchElementException();
+            }
+            case MFinger.Single<T, M> v -> {
+                consume.accept(v.inner);
+                return empty(ms);
+            }
+        }
+    }
+
+    /**
+     * Deep node whose left digit may have run empty, refilled from the spine.
+     */
+    static <T, M> MFinger<T, M> deepL(Measure<?, M> ms, Object[] left, MFinger<MFinger.Digit<T, M>, M> deep,
+                                      MFinger.Digit<T, M> right) {
+        if (left.length > 0) {
+            return deep(ms, digit(ms, left), deep, right);
+        }
+        if (deep instanceof MFinger.Empty<?, ?>) {
+            return fromValues(ms, right.values);
+        }
+        var holder = new Object[1];
+        var newDeep = popLeft(ms, deep, x -> holder[0] = x);
+        return deep(ms, (MFinger.Digit<T, M> ) holder[0], newDeep, right);
+    }
+
+    /**
+     * Deep node whose right digit may have run empty, refilled from the spine.
+     */
+    static <T, M> MFinger<T, M> deepR(Measure<?, M> ms, MFinger.Digit<T, M> left, MFinger<MFinger.Digit<T, M>, M> deep,
+                                      Object[] right) {
+        if (right.length > 0) {
+            return deep(ms, left, deep, digit(ms, right));
+        }
+        if (deep instanceof MFinger.Empty<?, ?>) {
+            return fromValues(ms, left.values);
+        }
+        var holder = new Object[1];
+        var newDeep = popRight(ms, deep, x -> holder[0] = x);
+        return deep(ms, left, newDeep, (MFinger.Digit<T, M> ) holder[0]);
+    }
+
+    public static <T, M> MFinger<T, M> merge(Measure<?, M> ms, MFinger<T, M> leftFinger, MFinger<T, M> rightFinger) {
+        return app3(ms, leftFinger, new Object[0], rightFinger);
+    }
+
+    /**
+     * Concatenates {@code left}, the nodes {@code middle} and {@code right}; the middle of two deep trees is
+     * regrouped into two- and three-node digits that are concatenated one level down.
+     */
+    static <T, M> MFinger<T, M> app3(Measure<?, M> ms, MFinger<T, M> left, Object[] middle, MFinger<T, M> right) {
+        if (left instanceof MFinger.Empty<T, M>) {
+            var out = right;
+            for (int i = middle.length - 1; i >= 0; i--) {
+                out = pushLeft(ms, out, middle[i]);
+            }
+            return out;
+        }
+        if (right instanceof MFinger.Empty<T, M>) {
+            var out = left;
+            for (Object value : middle) {
+                out = pushRight(ms, out, value);
+            }
+            return out;
+        }
+        if (left instanceof MFinger.Single<T, M> v) {
+            return pushLeft(ms, app3(ms, empty(ms), middle, right), v.inner);
+        }
+        if (right instanceof MFinger.Single<T, M> v) {
+            return pushRight(ms, app3(ms, left, middle, empty(ms)), v.inner);
+        }
+        var lv = (MFinger.Deep<T, M> ) left;
+        var rv = (MFinger.Deep<T, M> ) right;
+        var lc = lv.right.values.length;
+        var rc = rv.left.values.length;
+        var buf = new Object[lc + middle.length + rc];
+        System.arraycopy(lv.right.values, 0, buf, 0, lc);
+        System.arraycopy(middle, 0, buf, lc, middle.length);
+        System.arraycopy(rv.left.values, 0, buf, lc + middle.length, rc);
+        return deep(ms, lv.left, app3(ms, lv.deep, nodes(ms, buf), rv.deep), rv.right);
+    }
+
+    static Object[] nodes(Measure<?, ?> ms, Object[] buf) {
+        var out = new ArrayList<Object>();
+        int i = 0;
+        while (buf.length - i > 4) {
+            out.add(digit(ms, Arrays.copyOfRange(buf, i, i + 3)));
+            i += 3;
+        }
+        switch (buf.length - i) {
+            case 2, 3 -> {
+                out.add(digit(ms, Arrays.copyOfRange(buf, i, buf.length)));
+            }
+            case 4 -> {
+                out.add(digit(ms, Arrays.copyOfRange(buf, i, i + 2)));
+                out.add(digit(ms, Arrays.copyOfRange(buf, i + 2, i + 4)));
+            }
+            default -> {
+                throw new AssertionError();
+            }
+        }
+        return out.toArray();
+    }
+
+    /**
+     * Splits before the first element at which {@code pred} holds for the measure accumulated from the left.
+     * {@code pred} must be monotone: once true for a prefix it stays true for every longer prefix.
+     */
+    public static <T, M> Utils.EPair<MFinger<T, M>> split(Measure<?, M> ms, Predicate<? super M> pred, MFinger<T, M> finger) {
+        if (finger instanceof MFinger.Empty<T, M> || !pred.test(finger.measure())) {
+            return new Utils.EPair<>(finger, empty(ms));
+        }
+        var sp = splitTree(ms, pred, ms.identity(), finger);
+        return new Utils.EPair<>(sp.left(), pushLeft(ms, sp.right(), sp.item()));
+    }
+
+    /**
+     * Finds the element at which {@code pred} first holds for {@code acc} combined with the measure to its
+     * left; the tree must not be empty and {@code pred} must hold for its total measure.
+     */
+    public static <T, M> Split<T, M> splitTree(Measure<?, M> ms, Predicate<? super M> pred, M acc, MFinger<T, M> finger) {
+        switch (finger) {
+            case MFinger.Deep<T, M> v -> {
+                var vpr = ms.combine(acc, v.left.measure);
+                if (pred.test(vpr)) {
+                    var sd = splitDigit(ms, pred, acc, v.left.values);
+                    return new Split<>(fromValues(ms, sd.left()), (T ) sd.item(), deepL(ms, sd.right(), v.deep, v.right));
+                }
+                var vm = ms.combine(vpr, v.deep.measure());
+                if (pred.test(vm)) {
+                    var st = splitTree(ms, pred, vpr, v.deep);
+                    var sd = splitDigit(ms, pred, ms.combine(vpr, st.left().measure()), st.item().values);
+                    return new Split<>(deepR(ms, v.left, st.left(), sd.left()), (T ) sd.item(),
+                            deepL(ms, sd.right(), st.right(), v.right));
+                }
+                var sd = splitDigit(ms, pred, vm, v.right.values);
+                return new Split<>(deepR(ms, v.left, v.deep, sd.left()), (T ) sd.item(), fromValues(ms, sd.right()));
+            }
+            case MFinger.Single<T, M> v -> {
+                return new Split<>(empty(ms), v.inner, empty(ms));
+            }
+            case MFinger.Empty<T, M> v -> {
+                throw new AssertionError();
+            }
+        }
+    }
+
+    static <M> DigitSplit splitDigit(Measure<?, M> ms, Predicate<? super M> pred, M acc, Object[] values) {
+        int i = 0;
+        for (; i < values.length - 1; i++) {
+            acc = ms.combine(acc, measureOf(ms, values[i]));
+            if (pred.test(acc)) {
+                break;
+            }
+        }
+        return new DigitSplit(Arrays.copyOfRange(values, 0, i), values[i],
+                Arrays.copyOfRange(values, i + 1, values.length));
+    }
+
+    /**
+     * Same search as {@link #splitTree}, but only walks down to the element and returns it with the measure
+     * accumulated before it; no tree is rebuilt.
+     */
+    public static <T, M> Found<T, M> lookup(Measure<?, M> ms, Predicate<? super M> pred, M acc, MFinger<T, M> finger) {
+        MFinger<?, M> cur = finger;
+        int level = 0;
+        while (true) {
+            switch (cur) {
+                case MFinger.Deep<?, M> v -> {
+                    var vpr = ms.combine(acc, v.left.measure);
+                    if (pred.test(vpr)) {
+                        return digitLookup(ms, pred, acc, v.left.values, level);
+                    }
+                    var vm = ms.combine(vpr, v.deep.measure());
+                    if (!pred.test(vm)) {
+                        return digitLookup(ms, pred, vm, v.right.values, level);
+                    }
+                    acc = vpr;
+                    cur = v.deep;
+                    level += 1;
+                }
+                case MFinger.Single<?, M> v -> {
+                    if (level == 0) {
+                        return new Found<>((T ) v.inner, acc);
+                    }
+                    return digitLookup(ms, pred, acc, ((MFinger.Digit<?, ?> ) v.inner).values, level - 1);
+                }
+                case MFinger.Empty<?, M> v -> {
+                    throw new AssertionError();
+                }
+            }
+        }
+    }
+
+    static <T, M> Found<T, M> digitLookup(Measure<?, M> ms, Predicate<? super M> pred, M acc, Object[] values, int level) {
+        while (true) {
+            int i = 0;
+            for (; i < values.length - 1; i++) {
+                var next = ms.combine(acc, measureOf(ms, values[i]));
+                if (pred.test(next)) {
+                    break;
+                }
+                acc = next;
+            }
+            if (level == 0) {
+                return new Found<>((T ) values[i], acc);
+            }
+            values = ((MFinger.Digit<?, ?> ) values[i]).values;
+            level -= 1;
+        }
+    }
+
+    public static <T> T head(MFinger<T, ?> finger) {
+        return switch (finger) {
+            case MFinger.Deep<T, ?> v -> (T ) v.left.values[0];
+            case MFinger.Single<T, ?> v -> v.inner;
+            case MFinger.Empty<T, ?> v -> throw new NoSuchElementException();
+        };
+    }
+
+    public static <T> T last(MFinger<T, ?> finger) {
+        return switch (finger) {
+            case MFinger.Deep<T, ?> v -> (T ) v.right.values[v.right.values.length - 1];
+            case MFinger.Single<T, ?> v -> v.inner;
+            case MFinger.Empty<T, ?> v -> throw new NoSuchElementException();
+        };
+    }
+
+    public static <T> void orderlyMethod(MFinger<T, ?> finger, Consumer<T> handle) {
+        orderlyImpl(finger, 0, (Consumer<Object> ) handle);
+    }
+
+    static void orderlyImpl(MFinger<?, ?> finger, int level, Consumer<Object> handle) {
+        switch (finger) {
+            case MFinger.Deep<?, ?> v -> {
+                digitOrderly(v.left, level, handle);
+                orderlyImpl(v.deep, level + 1, handle);
+                digitOrderly(v.right, level, handle);
+            }
+            case MFinger.Single<?, ?> v -> {
+                if (level == 0) {
+                    handle.accept(v.inner);
+                } else {
+                    digitOrderly((MFinger.Digit<?, ?> ) v.inner, level - 1, handle);
+                }
+            }
+            case MFinger.Empty<?, ?> v -> {
+            }
+        }
+    }
+
+    static void digitOrderly(MFinger.Digit<?, ?> digit, int level, Consumer<Object> handle) {
+        for (Object value : digit.values) {
+            if (level == 0) {
+                handle.accept(value);
+            } else {
+                digitOrderly((MFinger.Digit<?, ?> ) value, level - 1, handle);
+            }
+        }
+    }
+
+}
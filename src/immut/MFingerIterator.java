@@ -0,0 +1,99 @@
+package immut;
+
+import java.util.*;
+
+/**
+ * Ascending cursor over an {@link MFinger} snapshot.
+ * <p>
+ * Works like {@link FingerIterator}: the parts still to be visited sit on an explicit stack of fingers and
+ * digits tagged with their level, and a level 0 digit is read in place, so each step is amortized O(1) and
+ * nothing is copied up front.
+ */
+final class MFingerIterator<T> implements Iterator<T> {
+
+    private static final Object[] NONE = new Object[0];
+
+    private Object[] stack = new Object[16];
+    private int[] levels = new int[16];
+    private int top;
+
+    // values of the level 0 digit currently read, and the next position in it
+    private Object[] leaf = NONE;
+    private int pos;
+    private final Object[] one = new Object[1];
+
+    MFingerIterator(MFinger<T, ?> finger) {
+        push(finger, 0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return pos < leaf.length || advance();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return (T ) leaf[pos++];
+    }
+
+    private void push(Object item, int level) {
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+            levels = Arrays.copyOf(levels, top * 2);
+        }
+        stack[top] = item;
+        levels[top] = level;
+        top += 1;
+    }
+
+    private boolean advance() {
+        while (top > 0) {
+            top -= 1;
+            var item = stack[top];
+            var level = levels[top];
+            stack[top] = null;
+            switch (item) {
+                case MFinger.Empty<?, ?> v -> {
+                }
+                case MFinger.Single<?, ?> v -> {
+                    if (level == 0) {
+                        one[0] = v.inner;
+                        leaf = one;
+                        pos = 0;
+                        return true;
+                    }
+                    push(v.inner, level - 1);
+                }
+                case MFinger.Deep<?, ?> v -> {
+                    push(v.right, level);
+                    push(v.deep, level + 1);
+                    push(v.left, level);
+                }
+                case MFinger.Digit<?, ?> d -> {
+                    var dv = d.values;
+                    if (level == 0) {
+                        if (dv.length > 0) {
+                            leaf = dv;
+                            pos = 0;
+                            return true;
+                        }
+                        continue;
+                    }
+                    for (int i = dv.length - 1; i >= 0; i--) {
+                        push(dv[i], level - 1);
+                    }
+                }
+                default -> {
+                    throw new AssertionError();
+                }
+            }
+        }
+        leaf = NONE;
+        pos = 0;
+        return false;
+    }
+
+}
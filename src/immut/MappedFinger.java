@@ -0,0 +1,431 @@
+package immut;
+
+import java.util.*;
+
+import immut.MappedStore.*;
+
+/**
+ * Immutable sequence whose finger tree lives in a {@link MappedStore} file rather than on the heap.
+ * <p>
+ * The tree has the shape of {@link Finger}: level 0 nodes are leaf records of up to {@value #CHUNK} encoded
+ * elements, a level k node is a digit record of level k-1 nodes. Every operation copies the path it changes
+ * into new records at the end of the file and returns a new sequence; the receiver stays valid, so versions
+ * are as cheap to keep as on the heap. {@link #get}, {@link #split} and {@link #concat} are O(log n) record
+ * reads and writes, appends amortized O(1).
+ */
+public final class MappedFinger <T> implements Iterable<T> {
+
+    static final int CHUNK = 64;
+
+    public record Split<T>(MappedFinger<T> left, MappedFinger<T> right) {}
+
+    final MappedStore<T> store;
+    final Ref root;
+
+    MappedFinger(MappedStore<T> store, Ref root) {
+        this.store = store;
+        this.root = root;
+    }
+
+    public long size() {
+        return root.size();
+    }
+
+    public boolean isEmpty() {
+        return root.size() == 0;
+    }
+
+    public T get(long index) {
+        Objects.checkIndex(index, root.size());
+        var cur = root;
+        while (true) {
+            switch (store.read(cur)) {
+                case Leaf v -> {
+                    return (T ) v.values()[(int) index];
+                }
+                case Dig v -> {
+                    var children = v.children();
+                    int i = 0;
+                    while (index >= children[i].size()) {
+                        index -= children[i].size();
+                        i += 1;
+                    }
+                    cur = children[i];
+                }
+                case Sgl v -> cur = v.inner();
+                case Dp v -> {
+                    if (index < v.left().size()) {
+                        cur = v.left();
+                    } else if (index < v.left().size() + v.mid().size()) {
+                        index -= v.left().size();
+                        cur = v.mid();
+                    } else {
+                        index -= v.left().size() + v.mid().size();
+                        cur = v.right();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends one element, rewriting the last leaf and the path to it while the leaf has room; prefer
+     * {@link #appendAll} for bulk data.
+     */
+    public MappedFinger<T> append(T value) {
+        if (root.size() > 0) {
+            var last = ((Leaf ) store.read(lastLeaf(store, root))).values();
+            if (last.length < CHUNK) {
+                var values = Arrays.copyOf(last, last.length + 1);
+                values[last.length] = value;
+                return new MappedFinger<>(store, withLastLeaf(store, root, store.leaf(values)));
+            }
+        }
+        return new MappedFinger<>(store, pushRight(store, root, store.leaf(new Object[] { value })));
+    }
+
+    public MappedFinger<T> appendAll(Iterable<? extends T> values) {
+        var out = root;
+        var buffer = new Object[CHUNK];
+        int n = 0;
+        for (var v : values) {
+            buffer[n++] = v;
+            if (n == CHUNK) {
+                out = pushRight(store, out, store.leaf(buffer.clone()));
+                n = 0;
+            }
+        }
+        if (n > 0) {
+            out = pushRight(store, out, store.leaf(Arrays.copyOf(buffer, n)));
+        }
+        return new MappedFinger<>(store, out);
+    }
+
+    /**
+     * The elements before {@code index} and the rest; a leaf holding the split point is cut in two.
+     */
+    public Split<T> split(long index) {
+        Objects.checkIndex(index, root.size() + 1);
+        if (index == 0) {
+            return new Split<>(new MappedFinger<>(store, MappedStore.EMPTY), this);
+        }
+        if (index == root.size()) {
+            return new Split<>(this, new MappedFinger<>(store, MappedStore.EMPTY));
+        }
+        var cut = splitTree(store, root, index);
+        var left = cut.left();
+        var item = cut.item();
+        if (cut.offset() > 0) {
+            var values = ((Leaf ) store.read(item)).values();
+            var off = (int) cut.offset();
+            left = pushRight(store, left, store.leaf(Arrays.copyOfRange(values, 0, off)));
+            item = store.leaf(Arrays.copyOfRange(values, off, values.length));
+        }
+        return new Split<>(new MappedFinger<>(store, left), new MappedFinger<>(store, pushLeft(store, cut.right(), item)));
+    }
+
+    /**
+     * This sequence followed by {@code other}, which must live in the same store.
+     */
+    public MappedFinger<T> concat(MappedFinger<T> other) {
+        if (other.store != store) {
+            throw new IllegalArgumentException("sequences belong to different stores");
+        }
+        return new MappedFinger<>(store, app3(store, root, new Ref[0], other.root));
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        var stack = new ArrayDeque<Ref>();
+        if (root.size() > 0) {
+            stack.push(root);
+        }
+        return new Iterator<>() {
+            private Object[] leaf = new Object[0];
+            private int pos;
+
+            @Override
+            public boolean hasNext() {
+                return pos < leaf.length || !stack.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                while (pos == leaf.length) {
+                    if (stack.isEmpty()) {
+                        throw new NoSuchElementException();
+                    }
+                    switch (store.read(stack.pop())) {
+                        case Leaf v -> {
+                            leaf = v.values();
+                            pos = 0;
+                        }
+                        case Dig v -> {
+                            var children = v.children();
+                            for (int i = children.length - 1; i >= 0; i--) {
+                                stack.push(children[i]);
+                            }
+                        }
+                        case Sgl v -> stack.push(v.inner());
+                        case Dp v -> {
+                            stack.push(v.right());
+                            if (v.mid().size() > 0) {
+                                stack.push(v.mid());
+                            }
+                            stack.push(v.left());
+                        }
+                    }
+                }
+                return (T ) leaf[pos++];
+            }
+        };
+    }
+
+    // ----- tree operations on records, same algorithms as Utils -----
+
+    record Cut(Ref left, Ref item, Ref right, long offset) {}
+
+    static Ref pushRight(MappedStore<?> s, Ref tree, Ref x) {
+        if (tree.size() == 0) {
+            return s.single(x);
+        }
+        switch (s.read(tree)) {
+            case Sgl v -> {
+                return s.deep(s.digit(v.inner()), MappedStore.EMPTY, s.digit(x));
+            }
+            case Dp v -> {
+                var r = s.children(v.right());
+                if (r.length < 4) {
+                    var nr = Arrays.copyOf(r, r.length + 1);
+                    nr[r.length] = x;
+                    return s.deep(v.left(), v.mid(), s.digit(nr));
+                }
+                var node = s.digit(r[0], r[1], r[2]);
+                return s.deep(v.left(), pushRight(s, v.mid(), node), s.digit(r[3], x));
+            }
+            default -> throw new IllegalStateException();
+        }
+    }
+
+    static Ref pushLeft(MappedStore<?> s, Ref tree, Ref x) {
+        if (tree.size() == 0) {
+            return s.single(x);
+        }
+        switch (s.read(tree)) {
+            case Sgl v -> {
+                return s.deep(s.digit(x), MappedStore.EMPTY, s.digit(v.inner()));
+            }
+            case Dp v -> {
+                var l = s.children(v.left());
+                if (l.length < 4) {
+                    var nl = new Ref[l.length + 1];
+                    nl[0] = x;
+                    System.arraycopy(l, 0, nl, 1, l.length);
+                    return s.deep(s.digit(nl), v.mid(), v.right());
+                }
+                var node = s.digit(l[1], l[2], l[3]);
+                return s.deep(s.digit(x, l[0]), pushLeft(s, v.mid(), node), v.right());
+            }
+            default -> throw new IllegalStateException();
+        }
+    }
+
+    // the rightmost leaf of a non-empty tree, found without writing anything
+    static Ref lastLeaf(MappedStore<?> s, Ref tree) {
+        while (true) {
+            switch (s.read(tree)) {
+                case Leaf v -> {
+                    return tree;
+                }
+                case Dig v -> tree = v.children()[v.children().length - 1];
+                case Sgl v -> tree = v.inner();
+                case Dp v -> tree = v.right();
+            }
+        }
+    }
+
+    // the tree with its rightmost leaf replaced by leaf; only the records on the path to it are written
+    static Ref withLastLeaf(MappedStore<?> s, Ref tree, Ref leaf) {
+        switch (s.read(tree)) {
+            case Leaf v -> {
+                return leaf;
+            }
+            case Dig v -> {
+                var children = v.children().clone();
+                children[children.length - 1] = withLastLeaf(s, children[children.length - 1], leaf);
+                return s.digit(children);
+            }
+            case Sgl v -> {
+                return s.single(withLastLeaf(s, v.inner(), leaf));
+            }
+            case Dp v -> {
+                return s.deep(v.left(), v.mid(), withLastLeaf(s, v.right(), leaf));
+            }
+        }
+    }
+
+    // { first node, rest of the tree }
+    static Ref[] popLeft(MappedStore<?> s, Ref tree) {
+        switch (s.read(tree)) {
+            case Sgl v -> {
+                return new Ref[] { v.inner(), MappedStore.EMPTY };
+            }
+            case Dp v -> {
+                var l = s.children(v.left());
+                return new Ref[] { l[0], deepL(s, Arrays.copyOfRange(l, 1, l.length), v.mid(), v.right()) };
+            }
+            default -> throw new IllegalStateException();
+        }
+    }
+
+    // { last node, rest of the tree }
+    static Ref[] popRight(MappedStore<?> s, Ref tree) {
+        switch (s.read(tree)) {
+            case Sgl v -> {
+                return new Ref[] { v.inner(), MappedStore.EMPTY };
+            }
+            case Dp v -> {
+                var r = s.children(v.right());
+                return new Ref[] { r[r.length - 1], deepR(s, v.left(), v.mid(), Arrays.copyOf(r, r.length - 1)) };
+            }
+            default -> throw new IllegalStateException();
+        }
+    }
+
+    // a deep tree whose left digit may be empty; a node popped from mid is a digit record already
+    static Ref deepL(MappedStore<?> s, Ref[] left, Ref mid, Ref right) {
+        if (left.length > 0) {
+            return s.deep(s.digit(left), mid, right);
+        }
+        if (mid.size() == 0) {
+            return toTree(s, s.children(right));
+        }
+        var pop = popLeft(s, mid);
+        return s.deep(pop[0], pop[1], right);
+    }
+
+    static Ref deepR(MappedStore<?> s, Ref left, Ref mid, Ref[] right) {
+        if (right.length > 0) {
+            return s.deep(left, mid, s.digit(right));
+        }
+        if (mid.size() == 0) {
+            return toTree(s, s.children(left));
+        }
+        var pop = popRight(s, mid);
+        return s.deep(left, pop[1], pop[0]);
+    }
+
+    static Ref toTree(MappedStore<?> s, Ref[] nodes) {
+        var out = MappedStore.EMPTY;
+        for (var n : nodes) {
+            out = pushRight(s, out, n);
+        }
+        return out;
+    }
+
+    // the node holding element index of a non-empty tree, the trees on either side, and index inside the node
+    static Cut splitTree(MappedStore<?> s, Ref tree, long index) {
+        switch (s.read(tree)) {
+            case Sgl v -> {
+                return new Cut(MappedStore.EMPTY, v.inner(), MappedStore.EMPTY, index);
+            }
+            case Dp v -> {
+                if (index < v.left().size()) {
+                    var l = s.children(v.left());
+                    var k = childAt(l, index);
+                    var left = toTree(s, Arrays.copyOf(l, k));
+                    var right = deepL(s, Arrays.copyOfRange(l, k + 1, l.length), v.mid(), v.right());
+                    return new Cut(left, l[k], right, index - sizeOf(l, k));
+                }
+                index -= v.left().size();
+                if (index < v.mid().size()) {
+                    var cut = splitTree(s, v.mid(), index);
+                    var n = s.children(cut.item());
+                    var k = childAt(n, cut.offset());
+                    var left = deepR(s, v.left(), cut.left(), Arrays.copyOf(n, k));
+                    var right = deepL(s, Arrays.copyOfRange(n, k + 1, n.length), cut.right(), v.right());
+                    return new Cut(left, n[k], right, cut.offset() - sizeOf(n, k));
+                }
+                index -= v.mid().size();
+                var r = s.children(v.right());
+                var k = childAt(r, index);
+                var left = deepR(s, v.left(), v.mid(), Arrays.copyOf(r, k));
+                var right = toTree(s, Arrays.copyOfRange(r, k + 1, r.length));
+                return new Cut(left, r[k], right, index - sizeOf(r, k));
+            }
+            default -> throw new IllegalStateException();
+        }
+    }
+
+    private static int childAt(Ref[] children, long index) {
+        int i = 0;
+        while (index >= children[i].size()) {
+            index -= children[i].size();
+            i += 1;
+        }
+        return i;
+    }
+
+    private static long sizeOf(Ref[] children, int count) {
+        long size = 0;
+        for (int i = 0; i < count; i++) {
+            size += children[i].size();
+        }
+        return size;
+    }
+
+    static Ref app3(MappedStore<?> s, Ref a, Ref[] middle, Ref b) {
+        if (a.size() == 0) {
+            var out = b;
+            for (int i = middle.length - 1; i >= 0; i--) {
+                out = pushLeft(s, out, middle[i]);
+            }
+            return out;
+        }
+        if (b.size() == 0) {
+            var out = a;
+            for (var m : middle) {
+                out = pushRight(s, out, m);
+            }
+            return out;
+        }
+        var ra = s.read(a);
+        var rb = s.read(b);
+        if (ra instanceof Sgl v) {
+            return pushLeft(s, app3(s, MappedStore.EMPTY, middle, b), v.inner());
+        }
+        if (rb instanceof Sgl v) {
+            return pushRight(s, app3(s, a, middle, MappedStore.EMPTY), v.inner());
+        }
+        var da = (Dp ) ra;
+        var db = (Dp ) rb;
+        var ar = s.children(da.right());
+        var bl = s.children(db.left());
+        var all = new Ref[ar.length + middle.length + bl.length];
+        System.arraycopy(ar, 0, all, 0, ar.length);
+        System.arraycopy(middle, 0, all, ar.length, middle.length);
+        System.arraycopy(bl, 0, all, ar.length + middle.length, bl.length);
+        return s.deep(da.left(), app3(s, da.mid(), nodes(s, all), db.mid()), db.right());
+    }
+
+    // groups 2 or more nodes into digit records of 3, ending with one or two of 2
+    static Ref[] nodes(MappedStore<?> s, Ref[] all) {
+        var out = new ArrayList<Ref>();
+        int i = 0;
+        while (all.length - i > 4) {
+            out.add(s.digit(all[i], all[i + 1], all[i + 2]));
+            i += 3;
+        }
+        switch (all.length - i) {
+            case 2 -> out.add(s.digit(all[i], all[i + 1]));
+            case 3 -> out.add(s.digit(all[i], all[i + 1], all[i + 2]));
+            case 4 -> {
+                out.add(s.digit(all[i], all[i + 1]));
+                out.add(s.digit(all[i + 2], all[i + 3]));
+            }
+            default -> throw new IllegalStateException();
+        }
+        return out.toArray(new Ref[0]);
+    }
+
+}
@@ -0,0 +1,294 @@
+package immut;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * File holding the nodes of {@link MappedFinger}s.
+ * <p>
+ * The file is a 40 byte header followed by node records that are only ever appended, never changed, so a
+ * sequence is just the offset of its root record and any number of versions share their common nodes. The
+ * file is mapped in fixed size segments ({@link FileChannel#map}) as they are first touched and no record
+ * crosses a segment boundary. Records are decoded when read and kept in a bounded LRU cache, so the heap
+ * holds the recently used part of the tree only; opening a file reads nothing but the header.
+ * <p>
+ * {@link #commit} makes a sequence the one the next {@link #open} returns; records written after the last
+ * commit are reused space after a reopen. Not thread-safe.
+ */
+public final class MappedStore <T> implements Closeable {
+
+    static final int MAGIC = 0x4a464d46;
+    static final int VERSION = 1;
+    static final int HEADER = 40;
+    static final int DEFAULT_SEGMENT = 1 << 26;
+    static final int DEFAULT_CACHE = 4096;
+
+    static final byte LEAF = 1;
+    static final byte DIGIT = 2;
+    static final byte SINGLE = 3;
+    static final byte DEEP = 4;
+
+    /**
+     * A node on disk with the number of elements below it.
+     */
+    record Ref(long offset, long size) {}
+
+    static final Ref EMPTY = new Ref(0, 0);
+
+    // decoded records
+    sealed interface Rec {}
+    record Leaf(Object[] values) implements Rec {}
+    record Dig(Ref[] children) implements Rec {}
+    record Sgl(Ref inner) implements Rec {}
+    record Dp(Ref left, Ref mid, Ref right) implements Rec {}
+
+    final Codec<T> codec;
+    private final FileChannel channel;
+    private final int segmentSize;
+    private final ArrayList<MappedByteBuffer> segments = new ArrayList<>();
+    private final LinkedHashMap<Long, Rec> cache;
+    private long end;
+
+    private MappedStore(FileChannel channel, Codec<T> codec, int segmentSize, int cacheSize) {
+        this.channel = channel;
+        this.codec = codec;
+        this.segmentSize = segmentSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Rec> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Opens the store at {@code path} with the segment size it was created with, or creates it with the
+     * default one.
+     */
+    public static <T> MappedStore<T> open(Path path, Codec<T> codec) throws IOException {
+        var segmentSize = DEFAULT_SEGMENT;
+        if (Files.exists(path)) {
+            try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                var header = readHeader(channel);
+                if (header.getInt(0) == MAGIC) {
+                    segmentSize = header.getInt(32);
+                }
+            }
+        }
+        return open(path, codec, segmentSize, DEFAULT_CACHE);
+    }
+
+    /**
+     * Opens or creates the store at {@code path}. An existing file must have been created with the same
+     * {@code segmentSize}, which the header records; {@code cacheSize} bounds the number of decoded records
+     * kept on the heap.
+     */
+    public static <T> MappedStore<T> open(Path path, Codec<T> codec, int segmentSize, int cacheSize) throws IOException {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("segment size too small: " + segmentSize);
+        }
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var store = new MappedStore<T>(channel, codec, segmentSize, cacheSize);
+        try {
+            // checked before mapping, which would grow a file of another segment size
+            var header = readHeader(channel);
+            if (header.getInt(0) == 0) {
+                var mapped = store.segment(0);
+                mapped.putInt(0, MAGIC);
+                mapped.putInt(4, VERSION);
+                mapped.putInt(32, segmentSize);
+                store.end = HEADER;
+                store.writeHeader(EMPTY);
+            } else if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("not a finger store: " + path);
+            } else if (header.getInt(32) != segmentSize) {
+                throw new IOException(path + " has segment size " + header.getInt(32) + ", not " + segmentSize);
+            } else {
+                store.end = header.getLong(24);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private static ByteBuffer readHeader(FileChannel channel) throws IOException {
+        var header = ByteBuffer.allocate(HEADER);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                break;
+            }
+        }
+        return header;
+    }
+
+    /**
+     * The sequence of the last {@link #commit}, empty for a new file.
+     */
+    public MappedFinger<T> root() {
+        var header = segment(0);
+        return new MappedFinger<>(this, new Ref(header.getLong(8), header.getLong(16)));
+    }
+
+    /**
+     * Records {@code finger} as the root and forces the written records to disk.
+     */
+    public void commit(MappedFinger<T> finger) {
+        if (finger.store != this) {
+            throw new IllegalArgumentException("sequence belongs to another store");
+        }
+        for (var s : segments) {
+            if (s != null) {
+                s.force();
+            }
+        }
+        writeHeader(finger.root);
+        segment(0).force();
+    }
+
+    // bytes in use, header included
+    long end() {
+        return end;
+    }
+
+    private void writeHeader(Ref root) {
+        var header = segment(0);
+        header.putLong(8, root.offset());
+        header.putLong(16, root.size());
+        header.putLong(24, end);
+    }
+
+    @Override
+    public void close() throws IOException {
+        segments.clear();
+        cache.clear();
+        channel.close();
+    }
+
+    private MappedByteBuffer segment(int i) {
+        while (segments.size() <= i) {
+            segments.add(null);
+        }
+        var s = segments.get(i);
+        if (s == null) {
+            try {
+                s = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * segmentSize, segmentSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            segments.set(i, s);
+        }
+        return s;
+    }
+
+    // ----- reading -----
+
+    Rec read(Ref ref) {
+        var rec = cache.get(ref.offset());
+        if (rec == null) {
+            rec = decode(ref.offset());
+            cache.put(ref.offset(), rec);
+        }
+        return rec;
+    }
+
+    Ref[] children(Ref digit) {
+        return ((Dig ) read(digit)).children();
+    }
+
+    private Rec decode(long offset) {
+        var buf = segment((int) (offset / segmentSize));
+        int pos = (int) (offset % segmentSize);
+        switch (buf.get(pos)) {
+            case LEAF -> {
+                var count = buf.getInt(pos + 1);
+                var values = new Object[count];
+                pos += 5;
+                for (int i = 0; i < count; i++) {
+                    var bytes = new byte[buf.getInt(pos)];
+                    buf.get(pos + 4, bytes);
+                    values[i] = codec.decode(bytes);
+                    pos += 4 + bytes.length;
+                }
+                return new Leaf(values);
+            }
+            case DIGIT -> {
+                var children = new Ref[buf.getInt(pos + 1)];
+                for (int i = 0; i < children.length; i++) {
+                    children[i] = readRef(buf, pos + 5 + 16 * i);
+                }
+                return new Dig(children);
+            }
+            case SINGLE -> {
+                return new Sgl(readRef(buf, pos + 1));
+            }
+            case DEEP -> {
+                return new Dp(readRef(buf, pos + 1), readRef(buf, pos + 17), readRef(buf, pos + 33));
+            }
+            default -> throw new IllegalStateException("corrupt record at " + offset);
+        }
+    }
+
+    private static Ref readRef(ByteBuffer buf, int pos) {
+        return new Ref(buf.getLong(pos), buf.getLong(pos + 8));
+    }
+
+    // ----- writing -----
+
+    private long append(ByteBuffer record, Rec decoded) {
+        var len = record.position();
+        if (len > segmentSize) {
+            throw new IllegalArgumentException("record of " + len + " bytes exceeds the segment size");
+        }
+        if (end % segmentSize + len > segmentSize) {
+            end = (end / segmentSize + 1) * segmentSize;
+        }
+        var offset = end;
+        segment((int) (offset / segmentSize)).put((int) (offset % segmentSize), record.array(), 0, len);
+        end += len;
+        cache.put(offset, decoded);
+        return offset;
+    }
+
+    Ref leaf(Object[] values) {
+        var encoded = new byte[values.length][];
+        int len = 5;
+        for (int i = 0; i < values.length; i++) {
+            encoded[i] = codec.encode((T ) values[i]);
+            len += 4 + encoded[i].length;
+        }
+        var buf = ByteBuffer.allocate(len).put(LEAF).putInt(values.length);
+        for (var bytes : encoded) {
+            buf.putInt(bytes.length).put(bytes);
+        }
+        return new Ref(append(buf, new Leaf(values)), values.length);
+    }
+
+    Ref digit(Ref... children) {
+        var buf = ByteBuffer.allocate(5 + 16 * children.length).put(DIGIT).putInt(children.length);
+        long size = 0;
+        for (var c : children) {
+            buf.putLong(c.offset()).putLong(c.size());
+            size += c.size();
+        }
+        return new Ref(append(buf, new Dig(children)), size);
+    }
+
+    Ref single(Ref inner) {
+        var buf = ByteBuffer.allocate(17).put(SINGLE).putLong(inner.offset()).putLong(inner.size());
+        return new Ref(append(buf, new Sgl(inner)), inner.size());
+    }
+
+    Ref deep(Ref left, Ref mid, Ref right) {
+        var buf = ByteBuffer.allocate(49).put(DEEP);
+        for (var r : new Ref[] { left, mid, right }) {
+            buf.putLong(r.offset()).putLong(r.size());
+        }
+        return new Ref(append(buf, new Dp(left, mid, right)), left.size() + mid.size() + right.size());
+    }
+
+}
@@ -0,0 +1,68 @@
+package immut;
+
+import java.util.*;
+
+/**
+ * Monoid annotation cached in every node of an {@link MFinger}: {@code identity} and {@code combine} must form
+ * a monoid, {@code measure} gives the annotation of a single element.
+ */
+public interface Measure<T, M> {
+
+    M identity();
+
+    M combine(M a, M b);
+
+    M measure(T element);
+
+    /**
+     * Element count, the measure {@link Finger} has built in.
+     */
+    static <T> Measure<T, Integer> size() {
+        return new Measure<>() {
+            @Override
+            public Integer identity() {
+                return 0;
+            }
+
+            @Override
+            public Integer combine(Integer a, Integer b) {
+                return a + b;
+            }
+
+            @Override
+            public Integer measure(T element) {
+                return 1;
+            }
+        };
+    }
+
+    /**
+     * Greatest element under {@code comparator}, {@code null} standing for the empty maximum.
+     * On ties the left operand wins.
+     */
+    static <T> Measure<T, T> max(Comparator<? super T> comparator) {
+        return new Measure<>() {
+            @Override
+            public T identity() {
+                return null;
+            }
+
+            @Override
+            public T combine(T a, T b) {
+                if (a == null) {
+                    return b;
+                }
+                if (b == null) {
+                    return a;
+                }
+                return comparator.compare(a, b) >= 0 ? a : b;
+            }
+
+            @Override
+            public T measure(T element) {
+                return element;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,563 @@
+package immut;
+
+import java.util.*;
+
+/**
+ * The tree of a {@link TransientJList}: persistent nodes mixed with mutable nodes owned by the session.
+ * <p>
+ * The persistent node classes have final fields, so a session cannot change them. Before it edits a node it
+ * takes ownership of it: a shared node is copied once into an {@link OwnedDigit}, {@link OwnedDeep} or
+ * {@link OwnedSingle} carrying the session's edit token, and every later edit of that node changes the
+ * copy in place. Once a node is owned it is only reached through owned parents, so a persistent node never
+ * holds an owned one and the nodes shared with other lists are never touched. {@link #freeze()} turns the
+ * owned nodes back into persistent ones, visiting only the owned part of the tree.
+ * <p>
+ * Not thread-safe, like the session.
+ */
+final class OwnedTree<T> {
+
+    // a node of level k >= 1 being edited: values[0, length) are its level k - 1 nodes, owned or not
+    static final class OwnedDigit {
+        final Object edit;
+        final Object[] values = new Object[4];
+        int length;
+        int size;
+
+        OwnedDigit(Object edit) {
+            this.edit = edit;
+        }
+    }
+
+    static final class OwnedDeep {
+        final Object edit;
+        // Finger.Digit or OwnedDigit
+        Object left, right;
+        // Finger of the next level, OwnedDeep or OwnedSingle
+        Object deep;
+        int size;
+
+        OwnedDeep(Object edit, Object left, Object deep, Object right, int size) {
+            this.edit = edit;
+            this.left = left;
+            this.deep = deep;
+            this.right = right;
+            this.size = size;
+        }
+    }
+
+    static final class OwnedSingle {
+        final Object edit;
+        Object inner;
+        int size;
+
+        OwnedSingle(Object edit, Object inner, int size) {
+            this.edit = edit;
+            this.inner = inner;
+            this.size = size;
+        }
+    }
+
+    private static final int LEFT = 0, DEEP = 1, RIGHT = 2;
+
+    private final Object edit = new Object();
+    // a Finger, OwnedDeep or OwnedSingle holding the elements
+    private Object root;
+
+    // the owned nodes passed by the last descend(), top down, and where the path leaves each of them: LEFT,
+    // DEEP or RIGHT for a spine node, the child index for a digit, the element index for the last one
+    private Object[] path = new Object[32];
+    private int[] slot = new int[32];
+    private int depth;
+
+    OwnedTree(Finger<T> root) {
+        this.root = root;
+    }
+
+    int size() {
+        return fingerSize(root);
+    }
+
+    /**
+     * The tree as persistent nodes; the owned nodes are replaced, so later edits start from shared nodes.
+     */
+    Finger<T> freeze() {
+        var f = (Finger<T> ) freezeFinger(root);
+        root = f;
+        return f;
+    }
+
+    void reset(Finger<T> root) {
+        this.root = root;
+    }
+
+    T get(int idx) {
+        var f = root;
+        int level = 0;
+        while (true) {
+            switch (f) {
+                case OwnedDeep v -> {
+                    var leftSize = digitSize(v.left);
+                    if (idx < leftSize) {
+                        return (T ) digitGet(v.left, idx, level);
+                    }
+                    idx -= leftSize;
+                    var deepSize = v.size - leftSize - digitSize(v.right);
+                    if (idx >= deepSize) {
+                        return (T ) digitGet(v.right, idx - deepSize, level);
+                    }
+                    f = v.deep;
+                    level += 1;
+                }
+                case OwnedSingle v -> {
+                    return (T ) (level == 0 ? v.inner : digitGet(v.inner, idx, level - 1));
+                }
+                case Finger.Deep<?> v -> {
+                    var leftSize = v.left.size;
+                    if (idx < leftSize) {
+                        return (T ) Utils.digitGet(v.left, idx, level);
+                    }
+                    idx -= leftSize;
+                    var deepSize = v.deepSize();
+                    if (idx >= deepSize) {
+                        return (T ) Utils.digitGet(v.right, idx - deepSize, level);
+                    }
+                    f = v.deep();
+                    level += 1;
+                }
+                case Finger.Single<?> v -> {
+                    return (T ) Utils.nodeGet(v.inner, idx, level);
+                }
+                default -> throw new AssertionError();
+            }
+        }
+    }
+
+    /**
+     * Replaces element {@code idx} in place, taking ownership of the nodes on its path the session does not
+     * own yet.
+     */
+    T set(int idx, T value) {
+        if (!deepRoot()) {
+            var old = get(idx);
+            root = Utils.update(freeze(), idx, value);
+            return old;
+        }
+        var leaf = descend(idx);
+        var pos = slot[depth - 1];
+        var old = (T ) leaf.values[pos];
+        leaf.values[pos] = value;
+        clearPath();
+        return old;
+    }
+
+    /**
+     * Inserts {@code value} before element {@code idx}. A full node on the way splits in two inside its owned
+     * parent, and a full digit at the edge of the spine hands three nodes down to the next level.
+     */
+    void insert(int idx, T value) {
+        if (!deepRoot()) {
+            root = Utils.insert(freeze(), idx, value);
+            return;
+        }
+        descend(idx);
+        var i = depth - 1;
+        Object carry = value;
+        var carryAt = slot[i];
+        int level = 0;
+        while (true) {
+            var d = (OwnedDigit) path[i];
+            if (d.length < 4) {
+                System.arraycopy(d.values, carryAt, d.values, carryAt + 1, d.length - carryAt);
+                d.values[carryAt] = carry;
+                d.length += 1;
+                // a carried node was split off a child, so either way the node gains one element
+                d.size += 1;
+                i -= 1;
+                break;
+            }
+            var five = new Object[5];
+            System.arraycopy(d.values, 0, five, 0, carryAt);
+            five[carryAt] = carry;
+            System.arraycopy(d.values, carryAt, five, carryAt + 1, 4 - carryAt);
+            var parent = path[i - 1];
+            if (parent instanceof OwnedDeep v && slot[i - 1] != DEEP) {
+                // an edge digit: keep two nodes at the end and move the three inner ones down a level
+                var toLeft = slot[i - 1] == LEFT;
+                var down = new OwnedDigit(edit);
+                fill(d, five, toLeft ? 0 : 3, 2, level);
+                fill(down, five, toLeft ? 2 : 0, 3, level);
+                v.deep = pushEnd(v.deep, down, level + 1, toLeft);
+                i -= 1;
+                break;
+            }
+            // a node splits in two; its parent takes the new one, or becomes a spine of both
+            var sibling = new OwnedDigit(edit);
+            fill(d, five, 0, 3, level);
+            fill(sibling, five, 3, 2, level);
+            if (parent instanceof OwnedSingle s) {
+                var up = (OwnedDeep) path[i - 2];
+                up.deep = new OwnedDeep(edit, ownedOf(d, level + 1), Finger.Empty.empty(),
+                        ownedOf(sibling, level + 1), s.size + 1);
+                i -= 2;
+                break;
+            }
+            carry = sibling;
+            carryAt = slot[i - 1] + 1;
+            level += 1;
+            i -= 1;
+        }
+        // the nodes above the one that took the element grow by it
+        for (int k = i; k >= 0; k--) {
+            grow(path[k], 1);
+        }
+        clearPath();
+    }
+
+    /**
+     * Removes element {@code idx}. A node left empty is dropped from its owned parent; only when that would
+     * empty a digit of the spine does the tree go back to persistent nodes for the removal.
+     */
+    T remove(int idx) {
+        if (!deepRoot()) {
+            return removePersistent(idx);
+        }
+        var leaf = descend(idx);
+        var i = depth - 1;
+        while (i > 0 && path[i] instanceof OwnedDigit c && c.length == 1) {
+            i -= 1;
+        }
+        if (!(path[i] instanceof OwnedDigit d)) {
+            clearPath();
+            return removePersistent(idx);
+        }
+        var old = (T ) leaf.values[slot[depth - 1]];
+        var at = slot[i];
+        System.arraycopy(d.values, at + 1, d.values, at, d.length - at - 1);
+        d.length -= 1;
+        d.values[d.length] = null;
+        d.size -= 1;
+        for (int k = i - 1; k >= 0; k--) {
+            grow(path[k], -1);
+        }
+        clearPath();
+        return old;
+    }
+
+    /**
+     * Appends the elements {@code items[from, to)} at the right end, filling the owned right digits in place.
+     */
+    void appendAll(Object[] items, int from, int to) {
+        root = appendAll(root, items, from, to, 0);
+    }
+
+    private boolean deepRoot() {
+        return root instanceof OwnedDeep || root instanceof Finger.Deep<?>;
+    }
+
+    private T removePersistent(int idx) {
+        var ans = new Object[1];
+        root = Utils.removeAt(freeze(), idx, x -> ans[0] = x);
+        return (T ) ans[0];
+    }
+
+    private static void grow(Object node, int delta) {
+        switch (node) {
+            case OwnedDeep v -> v.size += delta;
+            case OwnedSingle v -> v.size += delta;
+            case OwnedDigit d -> d.size += delta;
+            default -> throw new AssertionError();
+        }
+    }
+
+    // makes d hold the `count` level `level` nodes from[at, at + count)
+    private static void fill(OwnedDigit d, Object[] from, int at, int count, int level) {
+        Arrays.fill(d.values, null);
+        System.arraycopy(from, at, d.values, 0, count);
+        d.length = count;
+        d.size = 0;
+        for (int k = 0; k < count; k++) {
+            d.size += nodeSize(from[at + k], level);
+        }
+    }
+
+    private void clearPath() {
+        Arrays.fill(path, 0, depth, null);
+        depth = 0;
+    }
+
+    private void push(Object node, int at) {
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, depth * 2);
+            slot = Arrays.copyOf(slot, depth * 2);
+        }
+        path[depth] = node;
+        slot[depth] = at;
+        depth += 1;
+    }
+
+    // the level 0 node holding element idx, with every node on the way owned and recorded in path
+    private OwnedDigit descend(int idx) {
+        depth = 0;
+        if (root instanceof Finger.Deep<?> v) {
+            root = ownDeep(v);
+        }
+        var v = (OwnedDeep) root;
+        int level = 0;
+        while (true) {
+            var leftSize = digitSize(v.left);
+            if (idx < leftSize) {
+                push(v, LEFT);
+                var d = own(v.left);
+                v.left = d;
+                return into(d, idx, level);
+            }
+            idx -= leftSize;
+            var deepSize = v.size - leftSize - digitSize(v.right);
+            if (idx >= deepSize) {
+                push(v, RIGHT);
+                var d = own(v.right);
+                v.right = d;
+                return into(d, idx - deepSize, level);
+            }
+            push(v, DEEP);
+            level += 1;
+            switch (v.deep) {
+                case OwnedDeep o when o.edit == edit -> v = o;
+                case Finger.Deep<?> o -> {
+                    var owned = ownDeep(o);
+                    v.deep = owned;
+                    v = owned;
+                }
+                case OwnedSingle o when o.edit == edit -> {
+                    push(o, 0);
+                    var d = own(o.inner);
+                    o.inner = d;
+                    return into(d, idx, level - 1);
+                }
+                case Finger.Single<?> o -> {
+                    var d = own(o.inner);
+                    var owned = new OwnedSingle(edit, d, d.size);
+                    v.deep = owned;
+                    push(owned, 0);
+                    return into(d, idx, level - 1);
+                }
+                default -> throw new AssertionError();
+            }
+        }
+    }
+
+    // descends from a digit of level `level` nodes to the level 0 node holding element idx
+    private OwnedDigit into(OwnedDigit d, int idx, int level) {
+        while (level > 0) {
+            int i = 0;
+            var s = digitSize(d.values[0]);
+            while (idx >= s) {
+                idx -= s;
+                i += 1;
+                s = digitSize(d.values[i]);
+            }
+            push(d, i);
+            var child = own(d.values[i]);
+            d.values[i] = child;
+            d = child;
+            level -= 1;
+        }
+        push(d, idx);
+        return d;
+    }
+
+    // f with the level `level` node added at its left or right end
+    private Object pushEnd(Object f, OwnedDigit node, int level, boolean toLeft) {
+        var size = node.size;
+        OwnedDeep v;
+        switch (f) {
+            case OwnedDeep o when o.edit == edit -> v = o;
+            case Finger.Deep<?> o -> v = ownDeep(o);
+            case Finger.Empty<?> o -> {
+                return new OwnedSingle(edit, node, size);
+            }
+            case OwnedSingle o when o.edit == edit -> {
+                return spineOf(node, o.inner, o.size, level, toLeft);
+            }
+            case Finger.Single<?> o -> {
+                return spineOf(node, o.inner, o.size(), level, toLeft);
+            }
+            default -> throw new AssertionError();
+        }
+        var d = own(toLeft ? v.left : v.right);
+        if (d.length < 4) {
+            var at = toLeft ? 0 : d.length;
+            System.arraycopy(d.values, at, d.values, at + 1, d.length - at);
+            d.values[at] = node;
+            d.length += 1;
+            d.size += size;
+        } else {
+            var five = new Object[5];
+            System.arraycopy(d.values, 0, five, toLeft ? 1 : 0, 4);
+            five[toLeft ? 0 : 4] = node;
+            var down = new OwnedDigit(edit);
+            fill(d, five, toLeft ? 0 : 3, 2, level);
+            fill(down, five, toLeft ? 2 : 0, 3, level);
+            v.deep = pushEnd(v.deep, down, level + 1, toLeft);
+        }
+        if (toLeft) {
+            v.left = d;
+        } else {
+            v.right = d;
+        }
+        v.size += size;
+        return v;
+    }
+
+    // the spine of the level `level` nodes `node` and `inner`, the latter of `innerSize` elements
+    private OwnedDeep spineOf(Object node, Object inner, int innerSize, int level, boolean nodeFirst) {
+        var n = ownedOf(node, level);
+        var o = ownedOf(inner, level);
+        return new OwnedDeep(edit, nodeFirst ? n : o, Finger.Empty.empty(), nodeFirst ? o : n, n.size + innerSize);
+    }
+
+    private Object appendAll(Object f, Object[] items, int from, int to, int level) {
+        if (from == to) {
+            return f;
+        }
+        OwnedDeep v;
+        switch (f) {
+            case OwnedDeep o when o.edit == edit -> v = o;
+            case Finger.Deep<?> o -> v = ownDeep(o);
+            case Finger.Empty<?> o -> {
+                if (to - from == 1) {
+                    return new OwnedSingle(edit, items[from], nodeSize(items[from], level));
+                }
+                var left = ownedOf(items[from], level);
+                var right = ownedOf(items[from + 1], level);
+                v = new OwnedDeep(edit, left, Finger.Empty.empty(), right, left.size + right.size);
+                from += 2;
+            }
+            case OwnedSingle o when o.edit == edit -> {
+                v = spineOf(items[from], o.inner, o.size, level, false);
+                from += 1;
+            }
+            case Finger.Single<?> o -> {
+                v = spineOf(items[from], o.inner, o.size(), level, false);
+                from += 1;
+            }
+            default -> throw new AssertionError();
+        }
+        if (from == to) {
+            return v;
+        }
+        var r = own(v.right);
+        v.right = r;
+        int added = 0;
+        for (int i = from; i < to; i++) {
+            added += nodeSize(items[i], level);
+        }
+        var rc = r.length;
+        var m = rc + to - from;
+        if (m <= 4) {
+            System.arraycopy(items, from, r.values, rc, to - from);
+            r.length = m;
+            r.size += added;
+        } else {
+            // keep t nodes on the right with (m - t) divisible by three, the others go down as owned 3-nodes
+            int t = switch (m % 3) {
+                case 0 -> 3;
+                case 1 -> 4;
+                default -> 2;
+            };
+            var all = new Object[m];
+            System.arraycopy(r.values, 0, all, 0, rc);
+            System.arraycopy(items, from, all, rc, to - from);
+            var nodes = new Object[(m - t) / 3];
+            for (int n = 0; n < nodes.length; n++) {
+                var node = new OwnedDigit(edit);
+                fill(node, all, n * 3, 3, level);
+                nodes[n] = node;
+            }
+            fill(r, all, m - t, t, level);
+            v.deep = appendAll(v.deep, nodes, 0, nodes.length, level + 1);
+        }
+        v.size += added;
+        return v;
+    }
+
+    private OwnedDeep ownDeep(Finger.Deep<?> v) {
+        return new OwnedDeep(edit, v.left, v.deep(), v.right, v.size);
+    }
+
+    // an owned digit of the one level `level` node
+    private OwnedDigit ownedOf(Object node, int level) {
+        var d = new OwnedDigit(edit);
+        d.values[0] = node;
+        d.length = 1;
+        d.size = nodeSize(node, level);
+        return d;
+    }
+
+    private OwnedDigit own(Object digit) {
+        if (digit instanceof OwnedDigit o && o.edit == edit) {
+            return o;
+        }
+        var d = (Finger.Digit<?> ) digit;
+        var out = new OwnedDigit(edit);
+        out.length = d.copyTo(out.values, 0);
+        out.size = d.size;
+        return out;
+    }
+
+    // elements count one each, whatever they are
+    private static int nodeSize(Object node, int level) {
+        return level == 0 ? 1 : digitSize(node);
+    }
+
+    private static int digitSize(Object digit) {
+        return digit instanceof OwnedDigit o ? o.size : ((Finger.Digit<?> ) digit).size;
+    }
+
+    private static int fingerSize(Object f) {
+        return switch (f) {
+            case OwnedDeep v -> v.size;
+            case OwnedSingle v -> v.size;
+            default -> ((Finger<?> ) f).size();
+        };
+    }
+
+    // element idx below a digit of level `level` nodes
+    private static Object digitGet(Object digit, int idx, int level) {
+        while (digit instanceof OwnedDigit d) {
+            if (level == 0) {
+                return d.values[idx];
+            }
+            int i = 0;
+            var s = digitSize(d.values[0]);
+            while (idx >= s) {
+                idx -= s;
+                i += 1;
+                s = digitSize(d.values[i]);
+            }
+            digit = d.values[i];
+            level -= 1;
+        }
+        return Utils.digitGet((Finger.Digit<?> ) digit, idx, level);
+    }
+
+    private static Object freezeNode(Object node) {
+        if (!(node instanceof OwnedDigit d)) {
+            return node;
+        }
+        for (int i = 0; i < d.length; i++) {
+            d.values[i] = freezeNode(d.values[i]);
+        }
+        return Finger.Digit.of(d.values, 0, d.length, d.size);
+    }
+
+    private static Object freezeFinger(Object f) {
+        return switch (f) {
+            case OwnedDeep v -> new Finger.Deep<>((Finger.Digit<Object> ) freezeNode(v.left),
+                    (Finger<Finger.Digit<Object>> ) freezeFinger(v.deep), (Finger.Digit<Object> ) freezeNode(v.right));
+            case OwnedSingle v -> new Finger.Single<>(freezeNode(v.inner));
+            default -> f;
+        };
+    }
+
+}
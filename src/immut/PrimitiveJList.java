@@ -0,0 +1,371 @@
+package immut;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Storage shared by {@link IntJList} and {@link LongJList}: a tree of {@link ArrayChunk}s of up to
+ * {@value #CHUNK} values in a plain {@code int[]} or {@code long[]}, and a tail array the appends fill in
+ * place. This class moves values around with {@link System#arraycopy} and never reads them; the subclasses
+ * read and write the slots it hands out through their primitive types.
+ * <p>
+ * Not thread-safe; iterators see the contents at the time they were created.
+ */
+abstract class PrimitiveJList<E> extends AbstractList<E> implements List<E> {
+
+    static final int CHUNK = 64;
+
+    static final class ArrayChunk extends Finger.Chunk {
+        // an int[] or a long[]
+        final Object values;
+        private final int length;
+
+        ArrayChunk(Object values) {
+            this.values = values;
+            this.length = lengthOf(values);
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        ArrayChunk slice(int from, int to) {
+            return new ArrayChunk(copyOfRange(values, from, to));
+        }
+    }
+
+    /**
+     * Where a value is stored: {@code values} is the subclass's array type.
+     */
+    record Slot(Object values, int offset) {}
+
+    private Finger<ArrayChunk> f = Finger.Empty.empty();
+    // appended values go to tail[tailLen], see appendAt()
+    Object tail;
+    private int tailLen;
+    // the tail array is also read by an iterator, copy it before writing
+    private boolean tailShared;
+
+    PrimitiveJList(Object tail) {
+        this.tail = tail;
+    }
+
+    /**
+     * A zeroed array of the subclass's element type.
+     */
+    abstract Object newArray(int length);
+
+    static int lengthOf(Object values) {
+        return switch (values) {
+            case int[] a -> a.length;
+            case long[] a -> a.length;
+            default -> throw new AssertionError();
+        };
+    }
+
+    static Object copyOfRange(Object values, int from, int to) {
+        return switch (values) {
+            case int[] a -> Arrays.copyOfRange(a, from, to);
+            case long[] a -> Arrays.copyOfRange(a, from, to);
+            default -> throw new AssertionError();
+        };
+    }
+
+    /**
+     * Replaces the contents by {@code values[0, length)}: full chunks go to the tree, the rest to the tail.
+     */
+    final void fill(Object values, int length) {
+        var full = length / CHUNK;
+        var chunks = new Object[full];
+        for (int i = 0; i < full; i++) {
+            chunks[i] = new ArrayChunk(copyOfRange(values, i * CHUNK, (i + 1) * CHUNK));
+        }
+        f = Utils.fromArray(chunks);
+        tail = newArray(CHUNK);
+        tailLen = length - full * CHUNK;
+        tailShared = false;
+        System.arraycopy(values, full * CHUNK, tail, 0, tailLen);
+    }
+
+    private void writableTail() {
+        if (tailShared) {
+            tail = copyOfRange(tail, 0, CHUNK);
+            tailShared = false;
+        }
+    }
+
+    private void flushTail() {
+        f = Utils.pushRight(f, new ArrayChunk(tail));
+        tail = newArray(CHUNK);
+        tailLen = 0;
+        tailShared = false;
+    }
+
+    @Override
+    public int size() {
+        return f.size() + tailLen;
+    }
+
+    /**
+     * Makes the tail writable and returns where the next appended value goes in {@link #tail}; the caller
+     * stores it there and calls {@link #appended()}.
+     */
+    final int appendAt() {
+        writableTail();
+        return tailLen;
+    }
+
+    final void appended() {
+        tailLen += 1;
+        modCount += 1;
+        if (tailLen == CHUNK) {
+            flushTail();
+        }
+    }
+
+    /**
+     * The slot of element {@code index}, for reading.
+     */
+    final Slot slot(int index) {
+        var treeSize = f.size();
+        Objects.checkIndex(index, treeSize + tailLen);
+        if (index >= treeSize) {
+            return new Slot(tail, index - treeSize);
+        }
+        var leaf = Chunks.locate(f, index);
+        return new Slot(((ArrayChunk ) leaf.chunk()).values, leaf.offset());
+    }
+
+    /**
+     * The slot of element {@code index} in an array only this list sees, copied first if it is shared.
+     */
+    final Slot writableSlot(int index) {
+        var treeSize = f.size();
+        Objects.checkIndex(index, treeSize + tailLen);
+        if (index >= treeSize) {
+            writableTail();
+            return new Slot(tail, index - treeSize);
+        }
+        var out = new Slot[1];
+        f = Chunks.replaceLeaf(f, index, (c, off) -> {
+            var copy = new ArrayChunk(copyOfRange(((ArrayChunk ) c).values, 0, c.length()));
+            out[0] = new Slot(copy.values, off);
+            return copy;
+        });
+        return out[0];
+    }
+
+    /**
+     * Makes room for a new element {@code index} and returns its slot; the caller stores the value before
+     * anything else reads the list.
+     */
+    final Slot insertSlot(int index) {
+        var treeSize = f.size();
+        Objects.checkIndex(index, treeSize + tailLen + 1);
+        modCount += 1;
+        if (index >= treeSize) {
+            writableTail();
+            var at = index - treeSize;
+            System.arraycopy(tail, at, tail, at + 1, tailLen - at);
+            tailLen += 1;
+            var slot = new Slot(tail, at);
+            // a full tail joins the tree as it is, the slot still points into it
+            if (tailLen == CHUNK) {
+                flushTail();
+            }
+            return slot;
+        }
+        var leaf = Chunks.locate(f, index);
+        if (leaf.chunk().length() < CHUNK) {
+            var out = new Slot[1];
+            f = Chunks.replaceLeaf(f, index, (c, off) -> {
+                var values = ((ArrayChunk ) c).values;
+                var len = c.length();
+                var newValues = newArray(len + 1);
+                System.arraycopy(values, 0, newValues, 0, off);
+                System.arraycopy(values, off, newValues, off + 1, len - off);
+                out[0] = new Slot(newValues, off);
+                return new ArrayChunk(newValues);
+            });
+            return out[0];
+        }
+        // the chunk is full: cut the tree at index and put the value in a chunk of its own
+        var values = newArray(1);
+        var sp = Chunks.split(f, index);
+        f = Utils.merge(Utils.pushRight(sp.left(), new ArrayChunk(values)), sp.right());
+        return new Slot(values, 0);
+    }
+
+    /**
+     * Removes element {@code index}; read it first if it is needed.
+     */
+    final void removeSlot(int index) {
+        var treeSize = f.size();
+        Objects.checkIndex(index, treeSize + tailLen);
+        modCount += 1;
+        if (index >= treeSize) {
+            writableTail();
+            var at = index - treeSize;
+            System.arraycopy(tail, at + 1, tail, at, tailLen - at - 1);
+            tailLen -= 1;
+            return;
+        }
+        var leaf = Chunks.locate(f, index);
+        if (leaf.chunk().length() > 1) {
+            f = Chunks.replaceLeaf(f, index, (c, off) -> {
+                var values = ((ArrayChunk ) c).values;
+                var len = c.length();
+                var newValues = newArray(len - 1);
+                System.arraycopy(values, 0, newValues, 0, off);
+                System.arraycopy(values, off + 1, newValues, off, len - off - 1);
+                return new ArrayChunk(newValues);
+            });
+        } else {
+            f = Chunks.removeRange(f, index, index + 1);
+        }
+    }
+
+    @Override
+    public void clear() {
+        modCount += 1;
+        f = Finger.Empty.empty();
+        tail = newArray(CHUNK);
+        tailLen = 0;
+        tailShared = false;
+    }
+
+    /**
+     * All values in one array of the subclass's type.
+     */
+    final Object toRawArray() {
+        var out = newArray(size());
+        var at = new int[1];
+        Utils.orderlyMethod(f, c -> {
+            System.arraycopy(c.values, 0, out, at[0], c.length());
+            at[0] += c.length();
+        });
+        System.arraycopy(tail, 0, out, at[0], tailLen);
+        return out;
+    }
+
+    /**
+     * Removes the elements {@code filter} accepts in one pass, rebuilding the chunks in linear time.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        var drop = new BitSet();
+        int i = 0;
+        for (var x : this) {
+            if (filter.test(x)) {
+                drop.set(i);
+            }
+            i += 1;
+        }
+        if (drop.isEmpty()) {
+            return false;
+        }
+        var values = toRawArray();
+        var n = lengthOf(values);
+        var kept = newArray(n - drop.cardinality());
+        int at = 0;
+        var from = drop.nextClearBit(0);
+        while (from < n) {
+            var next = drop.nextSetBit(from);
+            var to = next < 0 ? n : next;
+            System.arraycopy(values, from, kept, at, to - from);
+            at += to - from;
+            from = drop.nextClearBit(to);
+        }
+        fill(kept, at);
+        modCount += 1;
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(x -> !c.contains(x));
+    }
+
+    /**
+     * Cursor over the contents at the time it was created, one chunk at a time; {@link #remove()} removes
+     * from the list. The subclasses read the value at {@link #step()} in {@link #values}.
+     */
+    abstract class Cursor {
+        private final FingerIterator<ArrayChunk> chunks = new FingerIterator<>(f, false);
+        private int treeLeft = f.size();
+        private final Object cursorTail = tail;
+        private final int cursorTailLen = tailLen;
+        private boolean inTail;
+        // the array read now and the next position in it
+        Object values = newArray(0);
+        private int pos;
+        private int end;
+        // elements passed before values[0], elements removed through the cursor, and the elements passed at
+        // the last removal
+        private int before;
+        private int removed;
+        private int removedAt;
+        private int expectedModCount = modCount;
+
+        Cursor() {
+            tailShared = true;
+        }
+
+        public boolean hasNext() {
+            return pos < end || treeLeft > 0 || (!inTail && cursorTailLen > 0);
+        }
+
+        /**
+         * Moves to the next element and returns its position in {@link #values}.
+         */
+        final int step() {
+            if (pos == end) {
+                load();
+            }
+            return pos++;
+        }
+
+        private void load() {
+            if (treeLeft > 0) {
+                var c = chunks.next();
+                values = c.values;
+                before += end;
+                end = c.length();
+                treeLeft -= end;
+            } else if (!inTail && cursorTailLen > 0) {
+                inTail = true;
+                values = cursorTail;
+                before += end;
+                end = cursorTailLen;
+            } else {
+                throw new NoSuchElementException();
+            }
+            pos = 0;
+        }
+
+        public void remove() {
+            var passed = before + pos;
+            if (passed == removedAt) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeSlot(passed - 1 - removed);
+            removed += 1;
+            removedAt = passed;
+            expectedModCount = modCount;
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+package immut;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Immutable sequence value over a persistent {@link Finger}.
+ * <p>
+ * Every operation returns a new {@code Seq} that shares all untouched nodes with the receiver: the end
+ * operations ({@link #prepend}, {@link #append}, {@link #tail}, {@link #init}) are amortized O(1), indexed
+ * ones and {@link #concat}/{@link #splitAt} O(log n). Instances never change, so they can be passed between
+ * threads and cached without copying; the hash code is computed once. The {@link List} mutators throw
+ * {@link UnsupportedOperationException}. {@link #toJList()} and {@code new JList<>(seq)} share the tree.
+ */
+public final class Seq <T> extends AbstractList<T> implements List<T> {
+
+    private static final Seq<?> EMPTY = new Seq<>(Finger.Empty.empty());
+
+    public record Split<T>(Seq<T> left, Seq<T> right) {}
+
+    private final Finger<T> f;
+    private int hash;
+    private boolean hashIsZero;
+
+    Seq(Finger<T> f) {
+        this.f = f;
+    }
+
+    public static <T> Seq<T> empty() {
+        return (Seq<T> ) EMPTY;
+    }
+
+    // the tree is built from copies of slices of values, nothing keeps the array itself
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> Seq<T> of(T... values) {
+        return new Seq<>(Utils.fromArray(values));
+    }
+
+    /**
+     * A sequence of the elements of {@code c}; a {@code Seq} is returned as is and a {@link JList}'s tree is
+     * shared, anything else is built in linear time.
+     */
+    public static <T> Seq<T> from(Collection<? extends T> c) {
+        if (c instanceof Seq<? extends T> s) {
+            return (Seq<T> ) s;
+        }
+        if (c instanceof JList<? extends T> l) {
+            return new Seq<>((Finger<T> ) l.finger());
+        }
+        return new Seq<>(Utils.fromArray(c.toArray()));
+    }
+
+    Finger<T> finger() {
+        return f;
+    }
+
+    /**
+     * A mutable list starting with these elements, sharing the tree.
+     */
+    public JList<T> toJList() {
+        return new JList<>(f);
+    }
+
+    @Override
+    public int size() {
+        return f.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return f.size() == 0;
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, f.size());
+        return Utils.indexGet(f, index);
+    }
+
+    public T head() {
+        if (f.size() == 0) {
+            throw new NoSuchElementException();
+        }
+        return Utils.head(f);
+    }
+
+    public T last() {
+        if (f.size() == 0) {
+            throw new NoSuchElementException();
+        }
+        return Utils.last(f);
+    }
+
+    /**
+     * All but the first element.
+     */
+    public Seq<T> tail() {
+        if (f.size() == 0) {
+            throw new NoSuchElementException();
+        }
+        return new Seq<>(Utils.popLeft(f, _ -> {}));
+    }
+
+    /**
+     * All but the last element.
+     */
+    public Seq<T> init() {
+        if (f.size() == 0) {
+            throw new NoSuchElementException();
+        }
+        return new Seq<>(Utils.popRight(f, _ -> {}));
+    }
+
+    public Seq<T> prepend(T value) {
+        return new Seq<>(Utils.pushLeft(f, value));
+    }
+
+    public Seq<T> append(T value) {
+        return new Seq<>(Utils.pushRight(f, value));
+    }
+
+    public Seq<T> updated(int index, T value) {
+        Objects.checkIndex(index, f.size());
+        return new Seq<>(Utils.update(f, index, value));
+    }
+
+    public Seq<T> inserted(int index, T value) {
+        Objects.checkIndex(index, f.size() + 1);
+        return new Seq<>(Utils.insert(f, index, value));
+    }
+
+    public Seq<T> removed(int index) {
+        Objects.checkIndex(index, f.size());
+        return new Seq<>(Utils.removeAt(f, index, _ -> {}));
+    }
+
+    public Seq<T> concat(Seq<? extends T> other) {
+        var o = (Finger<T> ) other.f;
+        if (o.size() == 0) {
+            return this;
+        }
+        if (f.size() == 0) {
+            return (Seq<T> ) other;
+        }
+        return new Seq<>(Utils.merge(f, o));
+    }
+
+    /**
+     * The first {@code index} elements and the rest.
+     */
+    public Split<T> splitAt(int index) {
+        Objects.checkIndex(index, f.size() + 1);
+        var sp = Utils.split(f, index);
+        return new Split<>(new Seq<>(sp.left()), new Seq<>(sp.right()));
+    }
+
+    /**
+     * The elements {@code [fromIndex, toIndex)}, sharing nodes with this sequence; being immutable it is
+     * also a valid {@link List#subList} result.
+     */
+    @Override
+    public Seq<T> subList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, f.size());
+        if (fromIndex == 0 && toIndex == f.size()) {
+            return this;
+        }
+        return new Seq<>(Utils.split(Utils.split(f, toIndex).left(), fromIndex).right());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return Utils.indexOf(f, o) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return Utils.indexOf(f, o);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return Utils.lastIndexOf(f, o);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new FingerIterator<>(f, false);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new FingerSpliterator<>(f);
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        Utils.orderlyMethod(f, action::accept);
+    }
+
+    @Override
+    public Object[] toArray() {
+        var out = new Object[f.size()];
+        var at = new int[1];
+        Utils.orderlyMethod(f, x -> out[at[0]++] = x);
+        return out;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof Seq<?> other) {
+            if (other.f == f) {
+                return true;
+            }
+            if (other.f.size() != f.size() || other.hashCode() != hashCode()) {
+                return false;
+            }
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        var h = hash;
+        if (h == 0 && !hashIsZero) {
+            h = 1;
+            var it = new FingerIterator<>(f, false);
+            while (it.hasNext()) {
+                h = 31 * h + Objects.hashCode(it.next());
+            }
+            if (h == 0) {
+                hashIsZero = true;
+            } else {
+                hash = h;
+            }
+        }
+        return h;
+    }
+
+}
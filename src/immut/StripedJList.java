@@ -0,0 +1,202 @@
+package immut;
+
+import java.util.*;
+import java.util.concurrent.locks.*;
+import java.util.function.*;
+
+/**
+ * Append-mostly thread-safe list for many concurrent writers.
+ * <p>
+ * Instead of all writers racing on one root, each thread appends to a stripe of its own, a
+ * {@link TransientJList} that batches its appends under the stripe's monitor, so writers only meet when two
+ * threads hash to the same stripe. Reads first fold the stripes into the main root: under the fold lock each
+ * non-empty stripe is swapped for a fresh one and its tree joined to the end of the root with
+ * {@link Utils#merge} in O(log n). A background task can call {@link #fold()} to keep the stripes short.
+ * <p>
+ * Ordering guarantees:
+ * <ul>
+ *     <li>elements added by one thread appear in the order that thread added them;</li>
+ *     <li>an {@link #add} that happens-before a read is visible to that read;</li>
+ *     <li>the folded contents only grow at the end, so every {@link #snapshot()} is a prefix of any later
+ *     one (until {@link #clear()}).</li>
+ * </ul>
+ * Elements added by different threads between two folds are grouped by stripe, not interleaved in the order
+ * they were added. Only appends and {@link #clear()} are supported; the other mutators throw
+ * {@link UnsupportedOperationException}.
+ */
+public class StripedJList <T> extends AbstractList<T> implements List<T> {
+
+    private static final class Stripe<T> {
+        TransientJList<T> buffer = new JList<T>().asTransient();
+        // written under the stripe's monitor, read by fold() to skip empty stripes
+        volatile int size;
+    }
+
+    private final Stripe<T>[] stripes;
+    private final ReentrantLock foldLock = new ReentrantLock();
+    private volatile Finger<T> root = Finger.Empty.empty();
+
+    public StripedJList() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param stripes number of append buffers, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public StripedJList(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException();
+        }
+        var n = Integer.highestOneBit(stripes);
+        if (n < stripes) {
+            n <<= 1;
+        }
+        this.stripes = (Stripe<T>[]) new Stripe<?>[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new Stripe<>();
+        }
+    }
+
+    // a thread always uses the same stripe, which is what keeps its own adds in order
+    private Stripe<T> stripe() {
+        var h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & (stripes.length - 1)];
+    }
+
+    @Override
+    public boolean add(T t) {
+        var s = stripe();
+        synchronized (s) {
+            s.buffer.add(t);
+            s.size += 1;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        // copied before taking the stripe's monitor, so no foreign code runs under it
+        var values = new ArrayList<T>(c);
+        if (values.isEmpty()) {
+            return false;
+        }
+        var s = stripe();
+        synchronized (s) {
+            for (var v : values) {
+                s.buffer.add(v);
+            }
+            s.size += values.size();
+        }
+        return true;
+    }
+
+    /**
+     * Moves everything the stripes hold to the end of the main root, stripe by stripe.
+     */
+    public void fold() {
+        foldLock.lock();
+        try {
+            var cur = root;
+            for (var s : stripes) {
+                if (s.size == 0) {
+                    continue;
+                }
+                TransientJList<T> full;
+                synchronized (s) {
+                    full = s.buffer;
+                    s.buffer = new JList<T>().asTransient();
+                    s.size = 0;
+                }
+                cur = Utils.merge(cur, full.persistent().finger());
+            }
+            root = cur;
+        } finally {
+            foldLock.unlock();
+        }
+    }
+
+    /**
+     * Folds and returns the contents as an immutable {@link Seq}.
+     */
+    public Seq<T> snapshot() {
+        fold();
+        return new Seq<>(root);
+    }
+
+    /**
+     * Drops the folded contents and whatever the stripes hold; adds racing with it may survive.
+     */
+    @Override
+    public void clear() {
+        foldLock.lock();
+        try {
+            for (var s : stripes) {
+                synchronized (s) {
+                    s.buffer = new JList<T>().asTransient();
+                    s.size = 0;
+                }
+            }
+            root = Finger.Empty.empty();
+        } finally {
+            foldLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        fold();
+        return root.size();
+    }
+
+    @Override
+    public T get(int index) {
+        fold();
+        var local_f = root;
+        Objects.checkIndex(index, local_f.size());
+        return Utils.indexGet(local_f, index);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        fold();
+        return Utils.indexOf(root, o) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        fold();
+        return Utils.indexOf(root, o);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        fold();
+        return Utils.lastIndexOf(root, o);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        fold();
+        return new FingerIterator<>(root, false);
+    }
+
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        return snapshot().listIterator(index);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        fold();
+        return new FingerSpliterator<>(root);
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        fold();
+        Utils.orderlyMethod(root, action::accept);
+    }
+
+}
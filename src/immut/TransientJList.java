@@ -0,0 +1,157 @@
+package immut;
+
+import java.util.*;
+
+/**
+ * Single-owner editing session over a {@link JList} snapshot.
+ * <p>
+ * Nodes created by the session carry its edit token and are changed in place by later edits; nodes shared
+ * with the original list are copied once before they are touched, so the original never changes (see
+ * {@link OwnedTree}). Appends are collected in a tail buffer and handed to the tree in batches.
+ * {@link #persistent()} ends the session and returns an ordinary list; the transient must not be used
+ * afterwards.
+ * <p>
+ * Not thread-safe.
+ */
+public class TransientJList <T> extends AbstractList<T> implements List<T> {
+
+    private static final int TAIL = 32;
+
+    private boolean ended;
+    private final OwnedTree<T> tree;
+    private final Object[] tail = new Object[TAIL];
+    private int tailLen;
+
+    TransientJList(Finger<T> root) {
+        this.tree = new OwnedTree<>(root);
+    }
+
+    private void ensureEditable() {
+        if (ended) {
+            throw new IllegalStateException("transient used after persistent()");
+        }
+    }
+
+    private void flush() {
+        tree.appendAll(tail, 0, tailLen);
+        Arrays.fill(tail, 0, tailLen, null);
+        tailLen = 0;
+    }
+
+    /**
+     * Ends the session: later edits through this object fail, and the returned list never changes
+     * because of it.
+     */
+    public JList<T> persistent() {
+        ensureEditable();
+        flush();
+        ended = true;
+        return new JList<>(tree.freeze());
+    }
+
+    /**
+     * Moves the contents of {@code other} to the end of this list in O(log n) and ends its session.
+     */
+    TransientJList<T> concat(TransientJList<T> other) {
+        ensureEditable();
+        var right = other.persistent();
+        flush();
+        tree.reset(Utils.merge(tree.freeze(), right.finger()));
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return tree.size() + tailLen;
+    }
+
+    @Override
+    public T get(int index) {
+        ensureEditable();
+        var rootSize = tree.size();
+        if (index < 0 || index >= rootSize + tailLen) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index >= rootSize) {
+            return (T ) tail[index - rootSize];
+        }
+        return tree.get(index);
+    }
+
+    @Override
+    public boolean add(T t) {
+        ensureEditable();
+        tail[tailLen] = t;
+        tailLen += 1;
+        if (tailLen == TAIL) {
+            flush();
+        }
+        modCount += 1;
+        return true;
+    }
+
+    @Override
+    public T set(int index, T element) {
+        ensureEditable();
+        var rootSize = tree.size();
+        if (index < 0 || index >= rootSize + tailLen) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index >= rootSize) {
+            var old = (T ) tail[index - rootSize];
+            tail[index - rootSize] = element;
+            return old;
+        }
+        return tree.set(index, element);
+    }
+
+    @Override
+    public void add(int index, T element) {
+        ensureEditable();
+        var rootSize = tree.size();
+        if (index < 0 || index > rootSize + tailLen) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        modCount += 1;
+        if (index >= rootSize) {
+            var at = index - rootSize;
+            System.arraycopy(tail, at, tail, at + 1, tailLen - at);
+            tail[at] = element;
+            tailLen += 1;
+            if (tailLen == TAIL) {
+                flush();
+            }
+            return;
+        }
+        tree.insert(index, element);
+    }
+
+    @Override
+    public T remove(int index) {
+        ensureEditable();
+        var rootSize = tree.size();
+        if (index < 0 || index >= rootSize + tailLen) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        modCount += 1;
+        if (index >= rootSize) {
+            var at = index - rootSize;
+            var old = (T ) tail[at];
+            System.arraycopy(tail, at + 1, tail, at, tailLen - at - 1);
+            tailLen -= 1;
+            tail[tailLen] = null;
+            return old;
+        }
+        return tree.remove(index);
+    }
+
+    @Override
+    public void clear() {
+        ensureEditable();
+        modCount += 1;
+        tree.reset(Finger.Empty.empty());
+        Arrays.fill(tail, 0, tailLen, null);
+        tailLen = 0;
+    }
+
+}
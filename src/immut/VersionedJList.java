@@ -0,0 +1,328 @@
+package immut;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * List that remembers its past versions.
+ * <p>
+ * Every change makes a new {@link JList} tree sharing all untouched nodes with the previous one, so keeping a
+ * version costs a reference to its root plus the nodes the change copied. Versions are numbered from 0 (the
+ * initial contents) and numbers are never reused. {@link #undo()} and {@link #redo()} move between retained
+ * versions, and a change made after an undo drops the versions that could have been redone. History is
+ * bounded by a number of versions and by an estimate of the bytes they retain; the oldest versions go first,
+ * except those pinned by a {@link #tag}. A tagged version is never evicted and counts against both bounds,
+ * so tags can hold the history above them until {@link #untag}. A tagged version dropped by a change after
+ * an undo stays readable through {@link #at(long)} and {@link #at(String)} but can no longer be redone.
+ * <p>
+ * Not thread-safe.
+ */
+public class VersionedJList <T> extends AbstractList<T> implements List<T> {
+
+    // one copied path per change: a Deep, a Digit and its array per level, about this much each
+    static final int PATH_NODE_BYTES = 96;
+    // a new element costs its slot and, every few elements, a new digit
+    static final int ELEMENT_BYTES = 24;
+
+    private record Version<T>(Finger<T> root, long bytes) {}
+
+    private final int maxVersions;
+    private final long maxBytes;
+    private final TreeMap<Long, Version<T>> history = new TreeMap<>();
+    private final HashMap<String, Long> tags = new HashMap<>();
+    // number of tags on each tagged version
+    private final HashMap<Long, Integer> pins = new HashMap<>();
+    // tagged versions a change after an undo cut from the history
+    private final HashMap<Long, Version<T>> detached = new HashMap<>();
+    private JList<T> list = new JList<>();
+    private long current;
+    private long lastIssued;
+    private long retainedBytes;
+
+    public VersionedJList() {
+        this(Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param maxVersions most versions kept, the current one included
+     * @param maxBytes    most bytes the kept versions are estimated to retain
+     */
+    public VersionedJList(int maxVersions, long maxBytes) {
+        if (maxVersions < 1 || maxBytes < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.maxVersions = maxVersions;
+        this.maxBytes = maxBytes;
+        history.put(0L, new Version<>(list.finger(), 0));
+    }
+
+    public VersionedJList(Collection<? extends T> c) {
+        this();
+        list.addAll(c);
+        history.put(0L, new Version<>(list.finger(), 0));
+    }
+
+    /**
+     * Number of the version the list shows now.
+     */
+    public long version() {
+        return current;
+    }
+
+    /**
+     * Numbers of the versions still kept, oldest first.
+     */
+    public SortedSet<Long> versions() {
+        return Collections.unmodifiableSortedSet(new TreeSet<>(history.keySet()));
+    }
+
+    /**
+     * Estimated bytes kept alive by the kept versions, tagged ones included: for each, the nodes its change
+     * copied.
+     */
+    public long retainedBytes() {
+        return retainedBytes;
+    }
+
+    public boolean canUndo() {
+        return history.lowerKey(current) != null;
+    }
+
+    public boolean canRedo() {
+        return history.higherKey(current) != null;
+    }
+
+    /**
+     * Goes back to the previous kept version; false if there is none.
+     */
+    public boolean undo() {
+        var e = history.lowerEntry(current);
+        if (e == null) {
+            return false;
+        }
+        moveTo(e.getKey(), e.getValue().root());
+        return true;
+    }
+
+    /**
+     * Goes forward to the version an {@link #undo()} left; false if there is none.
+     */
+    public boolean redo() {
+        var e = history.higherEntry(current);
+        if (e == null) {
+            return false;
+        }
+        moveTo(e.getKey(), e.getValue().root());
+        return true;
+    }
+
+    private void moveTo(long version, Finger<T> root) {
+        current = version;
+        list = new JList<>(root);
+        modCount += 1;
+    }
+
+    /**
+     * Read-only contents of a kept version.
+     *
+     * @throws NoSuchElementException if the version was dropped or never existed
+     */
+    public Seq<T> at(long version) {
+        var v = history.get(version);
+        if (v == null) {
+            v = detached.get(version);
+        }
+        if (v == null) {
+            throw new NoSuchElementException("version " + version + " is not kept");
+        }
+        return new Seq<>(v.root());
+    }
+
+    /**
+     * Names the current version and keeps it from being evicted; a name already in use moves to it.
+     */
+    public void tag(String name) {
+        var old = tags.put(Objects.requireNonNull(name), current);
+        pins.merge(current, 1, Integer::sum);
+        if (old != null) {
+            unpin(old);
+        }
+    }
+
+    /**
+     * Drops a tag; the version it named is evicted like any other once no tag names it.
+     */
+    public void untag(String name) {
+        var old = tags.remove(name);
+        if (old != null) {
+            unpin(old);
+            trim();
+        }
+    }
+
+    private void unpin(long version) {
+        if (pins.merge(version, -1, Integer::sum) == 0) {
+            pins.remove(version);
+            var v = detached.remove(version);
+            if (v != null) {
+                retainedBytes -= v.bytes();
+            }
+        }
+    }
+
+    public Seq<T> at(String tag) {
+        var v = tags.get(tag);
+        if (v == null) {
+            throw new NoSuchElementException("no tag " + tag);
+        }
+        return at((long) v);
+    }
+
+    // runs a change on the current tree and records the result as a new version if anything changed
+    private <R> R edit(Function<JList<T>, R> op) {
+        var before = list.finger();
+        var result = op.apply(list);
+        var after = list.finger();
+        if (after != before) {
+            record(before, after);
+        }
+        return result;
+    }
+
+    private void record(Finger<T> before, Finger<T> after) {
+        // a change after undo forks the history: the redo side goes, tagged versions are set aside
+        var redo = history.tailMap(current, false);
+        for (var e : redo.entrySet()) {
+            if (pins.containsKey(e.getKey())) {
+                detached.put(e.getKey(), e.getValue());
+            } else {
+                retainedBytes -= e.getValue().bytes();
+            }
+        }
+        redo.clear();
+        var depth = 32 - Integer.numberOfLeadingZeros(after.size());
+        var grown = Math.max(0, after.size() - before.size());
+        var bytes = (long) depth * PATH_NODE_BYTES + (long) grown * ELEMENT_BYTES;
+        lastIssued += 1;
+        current = lastIssued;
+        history.put(current, new Version<>(after, bytes));
+        retainedBytes += bytes;
+        modCount += 1;
+        trim();
+    }
+
+    // evicts the oldest untagged versions before the current one while a bound is exceeded
+    private void trim() {
+        var it = history.entrySet().iterator();
+        while ((history.size() + detached.size() > maxVersions || retainedBytes > maxBytes) && it.hasNext()) {
+            var e = it.next();
+            if (e.getKey() == current) {
+                break;
+            }
+            if (!pins.containsKey(e.getKey())) {
+                it.remove();
+                retainedBytes -= e.getValue().bytes();
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+    @Override
+    public T get(int index) {
+        return list.get(index);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return list.iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return list.spliterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        list.forEach(action);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return list.indexOf(o);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return list.lastIndexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return list.contains(o);
+    }
+
+    @Override
+    public boolean add(T t) {
+        return edit(l -> l.add(t));
+    }
+
+    @Override
+    public void add(int index, T element) {
+        Objects.checkIndex(index, size() + 1);
+        edit(l -> {
+            l.add(index, element);
+            return null;
+        });
+    }
+
+    @Override
+    public T set(int index, T element) {
+        Objects.checkIndex(index, size());
+        return edit(l -> l.set(index, element));
+    }
+
+    @Override
+    public T remove(int index) {
+        Objects.checkIndex(index, size());
+        return edit(l -> l.remove(index));
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return edit(l -> l.remove(o));
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        return edit(l -> l.addAll(c));
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends T> c) {
+        Objects.checkIndex(index, size() + 1);
+        return edit(l -> l.addAll(index, c));
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size());
+        edit(l -> {
+            l.removeRange(fromIndex, toIndex);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        edit(l -> {
+            l.clear();
+            return null;
+        });
+    }
+
+}
@@ -50,6 +50,24 @@ class ListTest2 {
     }
 }
 
+class ListTest3 {
+    public static void main(String[] args) {
+        JList<Integer> list = new JList<>();
+        list.add(1);
+        list.add(2);
+        var t = list.asTransient();
+        for (int i = 3; i <= 100; i++) {
+            t.add(i);
+        }
+        t.set(0, 0);
+        t.remove(1);
+        t.add(1, -1);
+        JList<Integer> built = t.persistent();
+        System.out.println(list); // [1, 2]
+        System.out.println(built.size() + " " + built.subList(0, 3)); // 100 [0, -1, 3]
+    }
+}
+
 class BenchMark {
 
     int len;
@@ -0,0 +1,28 @@
+import immut.*;
+
+import java.util.*;
+
+public class MergeTest0 {
+    public static void main(String[] args) {
+        // add(int, T) and remove(int) are a split and a merge, so the middle digits get regrouped each time
+        var rnd = new Random(0);
+        List<Integer> expected = new ArrayList<>();
+        List<Integer> list = new JList<>();
+        for (int i = 0; i < 1000; i++) {
+            expected.add(i);
+            list.add(i);
+        }
+        for (int k = 0; k < 5000; k++) {
+            int i = rnd.nextInt(expected.size());
+            if (k % 2 == 0) {
+                expected.add(i, -k);
+                list.add(i, -k);
+            } else {
+                expected.remove(i);
+                list.remove(i);
+            }
+        }
+        System.out.println(list.size()); // 1000
+        System.out.println(expected.equals(list) ? "测试成功" : "测试失败");
+    }
+}
@@ -0,0 +1,23 @@
+import immut.*;
+
+import java.util.*;
+
+public class QueueTest0 {
+    public static void main(String[] args) {
+        FingerPriorityQueue<Integer> a = FingerPriorityQueue.natural();
+        FingerPriorityQueue<Integer> b = FingerPriorityQueue.natural();
+        for (int i : new int[] { 5, 1, 9, 3 }) {
+            a.offer(i);
+        }
+        for (int i : new int[] { 7, 2, 8 }) {
+            b.offer(i);
+        }
+        a.meld(b);
+        System.out.println(a.size() + " " + b.size()); // 7 0
+        var out = new ArrayList<Integer>();
+        while (!a.isEmpty()) {
+            out.add(a.poll());
+        }
+        System.out.println(out); // [9, 8, 7, 5, 3, 2, 1]
+    }
+}
@@ -0,0 +1,187 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedJListTest {
+
+    static final int CHUNK = ChunkedJList.CHUNK;
+
+    // one random edit on both lists, biased towards the edge arrays and the chunk next to them
+    static void edit(Random rnd, ChunkedJList<Integer> l, List<Integer> ref, int k) {
+        var n = ref.size();
+        var near = Math.min(n, CHUNK + 2);
+        switch (rnd.nextInt(9)) {
+            case 0 -> {
+                l.addFirst(k);
+                ref.addFirst(k);
+            }
+            case 1 -> {
+                l.add(k);
+                ref.add(k);
+            }
+            case 2 -> {
+                var at = rnd.nextBoolean() ? rnd.nextInt(near + 1) : n - rnd.nextInt(near + 1);
+                l.add(at, k);
+                ref.add(at, k);
+            }
+            case 3 -> {
+                var at = rnd.nextInt(n + 1);
+                l.add(at, k);
+                ref.add(at, k);
+            }
+            case 4 -> {
+                if (n > 0) {
+                    var at = rnd.nextBoolean() ? rnd.nextInt(near) : n - 1 - rnd.nextInt(near);
+                    assertEquals(ref.remove(at), l.remove(at));
+                }
+            }
+            case 5 -> {
+                if (n > 0) {
+                    var at = rnd.nextInt(n);
+                    assertEquals(ref.remove(at), l.remove(at));
+                }
+            }
+            case 6 -> {
+                if (n > 0) {
+                    var at = rnd.nextInt(n);
+                    assertEquals(ref.set(at, -k), l.set(at, -k));
+                }
+            }
+            default -> {
+                // a run of nearby reads goes through the focused chunk
+                if (n > 0) {
+                    var at = rnd.nextInt(n);
+                    for (int i = at; i < Math.min(n, at + 5); i++) {
+                        assertEquals(ref.get(i), l.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void randomEditsMatchArrayList() {
+        var rnd = new Random(12);
+        var l = new ChunkedJList<Integer>();
+        var ref = new ArrayList<Integer>();
+        for (int k = 0; k < 40_000; k++) {
+            edit(rnd, l, ref, k);
+            assertEquals(ref.size(), l.size());
+            if (k % 4_000 == 0) {
+                assertEquals(ref, l);
+            }
+        }
+        assertEquals(ref, l);
+        var seen = new ArrayList<Integer>();
+        l.forEach(seen::add);
+        assertEquals(ref, seen);
+    }
+
+    @Test
+    void focusFollowsWrites() {
+        var ref = new ArrayList<Integer>();
+        for (int i = 0; i < 10 * CHUNK; i++) {
+            ref.add(i);
+        }
+        var l = new ChunkedJList<>(ref);
+        var at = 3 * CHUNK + 5;
+        assertEquals(at, l.get(at));
+        l.set(at + 1, -1);
+        assertEquals(-1, l.get(at + 1));
+        l.add(at, -2);
+        assertEquals(-2, l.get(at));
+        assertEquals(at, l.get(at + 1));
+        l.remove(at - 1);
+        assertEquals(-2, l.get(at - 1));
+    }
+
+    @Test
+    void splitAndMergeFlushTheEdges() {
+        var rnd = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            var l = new ChunkedJList<Integer>();
+            var ref = new ArrayList<Integer>();
+            var n = rnd.nextInt(5 * CHUNK);
+            for (int k = 0; k < n; k++) {
+                edit(rnd, l, ref, k);
+            }
+            var at = rnd.nextInt(ref.size() + 1);
+            var sp = l.split(at);
+            assertEquals(ref.subList(0, at), sp.left());
+            assertEquals(ref.subList(at, ref.size()), sp.right());
+            // the split list keeps working, and the halves join back
+            assertEquals(ref, l);
+            var joined = sp.right().merge(sp.left());
+            var expected = new ArrayList<>(ref.subList(at, ref.size()));
+            expected.addAll(ref.subList(0, at));
+            assertEquals(expected, joined);
+            for (int k = 0; k < 50; k++) {
+                edit(rnd, joined, expected, k);
+            }
+            assertEquals(expected, joined);
+            assertEquals(ref, l);
+        }
+    }
+
+    @Test
+    void iteratorRemoveAndRemoveIf() {
+        var rnd = new Random(5);
+        var l = new ChunkedJList<Integer>();
+        var ref = new ArrayList<Integer>();
+        for (int k = 0; k < 3_000; k++) {
+            edit(rnd, l, ref, k);
+        }
+        var it = l.iterator();
+        var refIt = ref.iterator();
+        while (it.hasNext()) {
+            var x = it.next();
+            assertEquals(refIt.next(), x);
+            if (x % 3 == 0) {
+                it.remove();
+                refIt.remove();
+            }
+        }
+        assertEquals(ref, l);
+        assertTrue(l.removeIf(x -> x % 2 == 0));
+        ref.removeIf(x -> x % 2 == 0);
+        assertEquals(ref, l);
+        assertFalse(l.removeIf(x -> x % 2 == 0));
+        assertTrue(l.retainAll(Set.copyOf(ref.subList(0, ref.size() / 2))));
+        ref.retainAll(Set.copyOf(ref.subList(0, ref.size() / 2)));
+        assertEquals(ref, l);
+
+        var again = l.iterator();
+        assertThrows(IllegalStateException.class, again::remove);
+        again.next();
+        again.remove();
+        assertThrows(IllegalStateException.class, again::remove);
+        l.add(1);
+        again.next();
+        assertThrows(ConcurrentModificationException.class, again::remove);
+    }
+
+    @Test
+    void iteratorSeesTheContentsItStartedWith() {
+        var l = new ChunkedJList<Integer>();
+        var ref = new ArrayList<Integer>();
+        for (int i = 0; i < 3 * CHUNK; i++) {
+            l.add(i);
+            l.addFirst(-i);
+            ref.add(i);
+            ref.addFirst(-i);
+        }
+        var it = l.iterator();
+        l.set(0, 100);
+        l.set(l.size() - 1, 100);
+        l.addFirst(7);
+        l.add(7);
+        var seen = new ArrayList<Integer>();
+        it.forEachRemaining(seen::add);
+        assertEquals(ref, seen);
+    }
+
+}
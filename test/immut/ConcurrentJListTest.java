@@ -0,0 +1,196 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentJListTest {
+
+    static final int THREADS = 8;
+
+    // runs `task(t)` for t in [0, THREADS) on their own threads, all released at once
+    static void parallel(IntConsumer task) throws Exception {
+        var pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            var start = new CountDownLatch(1);
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < THREADS; t++) {
+                var id = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.accept(id);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentAddsLoseNothing() throws Exception {
+        var list = new ConcurrentJList<Integer>();
+        parallel(t -> {
+            for (int i = 0; i < 10_000; i++) {
+                list.add(t * 10_000 + i);
+            }
+        });
+        assertEquals(THREADS * 10_000, list.size());
+        var sorted = new ArrayList<>(list);
+        Collections.sort(sorted);
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i, sorted.get(i));
+        }
+    }
+
+    @Test
+    void concurrentRemoveIfKeepsEveryOtherElement() throws Exception {
+        var list = new ConcurrentJList<Integer>();
+        parallel(t -> {
+            for (int i = 0; i < 5_000; i++) {
+                list.add(t * 5_000 + i);
+                if (i % 500 == 0) {
+                    list.removeIf(x -> x % 2 == 1);
+                }
+            }
+        });
+        list.removeIf(x -> x % 2 == 1);
+        var expected = new TreeSet<Integer>();
+        for (int i = 0; i < THREADS * 5_000; i += 2) {
+            expected.add(i);
+        }
+        assertEquals(expected.size(), list.size());
+        assertEquals(expected, new TreeSet<>(list));
+    }
+
+    @Test
+    void concurrentReplaceAllAppliesEveryUpdate() throws Exception {
+        var list = new ConcurrentJList<Integer>();
+        for (int i = 0; i < 1_000; i++) {
+            list.add(i);
+        }
+        parallel(t -> {
+            for (int k = 0; k < 50; k++) {
+                list.replaceAll(x -> x + 1);
+            }
+        });
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i + THREADS * 50, list.get(i));
+        }
+    }
+
+    @Test
+    void concurrentRemoveTakesEachElementOnce() throws Exception {
+        var list = new ConcurrentJList<Integer>();
+        for (int i = 0; i < 20_000; i++) {
+            list.add(i % 1_000);
+        }
+        var removed = new ConcurrentLinkedQueue<Integer>();
+        parallel(t -> {
+            for (int i = t; i < 1_000; i += THREADS) {
+                while (list.remove((Object) i)) {
+                    removed.add(i);
+                }
+            }
+        });
+        assertTrue(list.isEmpty());
+        assertEquals(20_000, removed.size());
+    }
+
+    @Test
+    void bulkMutators() {
+        var list = new ConcurrentJList<>(List.of(5, 3, 8, 1, 9, 3));
+        list.sort(null);
+        assertEquals(List.of(1, 3, 3, 5, 8, 9), list);
+        list.sort(Comparator.reverseOrder());
+        assertEquals(List.of(9, 8, 5, 3, 3, 1), list);
+        assertTrue(list.removeAll(List.of(3, 7)));
+        assertEquals(List.of(9, 8, 5, 1), list);
+        assertFalse(list.removeAll(List.of(7)));
+        assertTrue(list.retainAll(Set.of(8, 1, 4)));
+        assertEquals(List.of(8, 1), list);
+        list.replaceAll(x -> x * 10);
+        assertEquals(List.of(80, 10), list);
+        assertFalse(list.removeIf(x -> x > 100));
+        assertTrue(list.remove((Object) 80));
+        assertFalse(list.remove((Object) 80));
+        assertEquals(List.of(10), list);
+    }
+
+    @Test
+    void snapshotIsNotAffectedByLaterWrites() {
+        var list = new ConcurrentJList<>(List.of(1, 2, 3));
+        var snap = list.snapshot();
+        list.add(4);
+        list.removeIf(x -> x == 1);
+        list.sort(Comparator.reverseOrder());
+        assertEquals(List.of(1, 2, 3), snap);
+        assertEquals(List.of(4, 3, 2), list);
+    }
+
+    @Test
+    void subListAndListIteratorWriteThrough() {
+        var ref = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            ref.add(i);
+        }
+        var list = new ConcurrentJList<>(ref);
+        list.subList(10, 20).clear();
+        ref.subList(10, 20).clear();
+        var sub = list.subList(5, 40);
+        var refSub = ref.subList(5, 40);
+        sub.subList(3, 9).clear();
+        refSub.subList(3, 9).clear();
+        sub.set(0, -1);
+        refSub.set(0, -1);
+        sub.add(2, -2);
+        refSub.add(2, -2);
+        assertEquals(refSub.remove(7), sub.remove(7));
+        sub.removeIf(x -> x % 3 == 0);
+        refSub.removeIf(x -> x % 3 == 0);
+        assertEquals(refSub, sub);
+        assertEquals(ref, list);
+
+        var it = list.listIterator(4);
+        var refIt = ref.listIterator(4);
+        while (it.hasNext()) {
+            var x = it.next();
+            assertEquals(refIt.next(), x);
+            if (x % 5 == 0) {
+                it.remove();
+                refIt.remove();
+            } else if (x % 5 == 1) {
+                it.set(-x);
+                refIt.set(-x);
+            } else if (x % 5 == 2) {
+                it.add(x * 100);
+                refIt.add(x * 100);
+            }
+        }
+        assertEquals(ref, list);
+    }
+
+    @Test
+    void viewWritesFailAfterAnotherWriter() {
+        var list = new ConcurrentJList<>(List.of(1, 2, 3, 4, 5));
+        var sub = list.subList(1, 4);
+        var it = list.listIterator();
+        it.next();
+        list.add(6);
+        // reads stay on the version the view started from
+        assertEquals(List.of(2, 3, 4), sub);
+        assertThrows(ConcurrentModificationException.class, () -> sub.set(0, 0));
+        assertThrows(ConcurrentModificationException.class, sub::clear);
+        assertThrows(ConcurrentModificationException.class, it::remove);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), list);
+    }
+
+}
@@ -0,0 +1,97 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FingerPriorityQueueTest {
+
+    static List<Integer> drain(Queue<Integer> q) {
+        var out = new ArrayList<Integer>();
+        while (!q.isEmpty()) {
+            out.add(q.poll());
+        }
+        return out;
+    }
+
+    static FingerPriorityQueue<Integer> queueOf(Integer... values) {
+        var q = FingerPriorityQueue.<Integer>natural();
+        q.addAll(List.of(values));
+        return q;
+    }
+
+    @Test
+    void pollsInPriorityOrder() {
+        var rnd = new Random(1);
+        var q = FingerPriorityQueue.<Integer>natural();
+        var ref = new PriorityQueue<Integer>(Comparator.reverseOrder());
+        for (int i = 0; i < 5_000; i++) {
+            var v = rnd.nextInt(1_000);
+            q.offer(v);
+            ref.offer(v);
+            if (i % 3 == 0) {
+                assertEquals(ref.poll(), q.poll());
+            }
+            assertEquals(ref.peek(), q.peek());
+        }
+        assertEquals(drain(ref), drain(q));
+    }
+
+    @Test
+    void meldMovesEverythingAndEmptiesTheOther() {
+        var a = queueOf(5, 1, 9);
+        var b = queueOf(7, 2);
+        a.meld(b);
+        assertEquals(5, a.size());
+        assertTrue(b.isEmpty());
+        assertEquals(List.of(9, 7, 5, 2, 1), drain(a));
+    }
+
+    @Test
+    void meldIntoItselfIsRejected() {
+        var q = queueOf(3, 1, 2);
+        assertThrows(IllegalArgumentException.class, () -> q.meld(q));
+        assertEquals(3, q.size());
+        assertEquals(List.of(3, 2, 1), drain(q));
+    }
+
+    @Test
+    void meldWithDifferentComparatorIsRejected() {
+        var q = queueOf(1);
+        var other = new FingerPriorityQueue<Integer>(Comparator.reverseOrder());
+        assertThrows(IllegalArgumentException.class, () -> q.meld(other));
+    }
+
+    @Test
+    void removeTakesTheFirstEqualElement() {
+        var q = queueOf(4, 8, 4, 2);
+        assertTrue(q.remove(4));
+        assertEquals(List.of(8, 4, 2), new ArrayList<>(q));
+        assertFalse(q.remove(5));
+        assertFalse(q.remove(null));
+        assertEquals(3, q.size());
+        assertEquals(List.of(8, 4, 2), drain(q));
+    }
+
+    @Test
+    void bulkRemovalKeepsThePriorityOrder() {
+        var q = queueOf(6, 3, 9, 1, 7, 4);
+        assertTrue(q.removeIf(x -> x % 3 == 0));
+        assertEquals(7, q.peek());
+        assertFalse(q.removeIf(x -> x > 100));
+        assertTrue(q.removeAll(List.of(7, 8)));
+        assertFalse(q.retainAll(Set.of(1, 4, 5)));
+        assertTrue(q.retainAll(Set.of(4)));
+        assertEquals(1, q.size());
+        assertEquals(List.of(4), drain(q));
+    }
+
+    @Test
+    void nullsAreRejected() {
+        var q = FingerPriorityQueue.<Integer>natural();
+        assertThrows(NullPointerException.class, () -> q.offer(null));
+    }
+
+}
@@ -0,0 +1,141 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FingerSortedSeqTest {
+
+    // the reference: a sorted ArrayList, equal keys in insertion order
+    static void insert(List<Integer> ref, int v) {
+        var i = Collections.binarySearch(ref, v + 1);
+        while (i > 0 && ref.get(i - 1) > v) {
+            i -= 1;
+        }
+        ref.add(i < 0 ? -i - 1 : i, v);
+    }
+
+    static int rank(List<Integer> ref, int k) {
+        var r = 0;
+        while (r < ref.size() && ref.get(r) < k) {
+            r += 1;
+        }
+        return r;
+    }
+
+    @Test
+    void randomInsertAndRemoveStaySorted() {
+        var rnd = new Random(7);
+        var seq = FingerSortedSeq.<Integer>natural();
+        var ref = new ArrayList<Integer>();
+        for (int i = 0; i < 4_000; i++) {
+            var v = rnd.nextInt(500);
+            if (rnd.nextInt(3) == 0) {
+                assertEquals(ref.remove((Integer) v), seq.remove(v));
+            } else {
+                seq.add(v);
+                insert(ref, v);
+            }
+            assertEquals(ref.size(), seq.size());
+        }
+        assertEquals(ref, new ArrayList<>(seq));
+        assertEquals(ref.getFirst(), seq.first());
+        assertEquals(ref.getLast(), seq.last());
+    }
+
+    @Test
+    void searchMatchesTheSortedList() {
+        var rnd = new Random(11);
+        var seq = FingerSortedSeq.<Integer>natural();
+        var ref = new ArrayList<Integer>();
+        for (int i = 0; i < 1_000; i++) {
+            var v = 2 * rnd.nextInt(400);
+            seq.add(v);
+            insert(ref, v);
+        }
+        for (int k = -2; k < 805; k++) {
+            var r = rank(ref, k);
+            var rAbove = rank(ref, k + 1);
+            assertEquals(r, seq.rank(k));
+            assertEquals(r < ref.size() ? ref.get(r) : null, seq.ceiling(k));
+            assertEquals(rAbove < ref.size() ? ref.get(rAbove) : null, seq.higher(k));
+            assertEquals(rAbove > 0 ? ref.get(rAbove - 1) : null, seq.floor(k));
+            assertEquals(r > 0 ? ref.get(r - 1) : null, seq.lower(k));
+            assertEquals(ref.contains(k), seq.contains(k));
+        }
+        for (int i = 0; i < ref.size(); i++) {
+            assertEquals(ref.get(i), seq.select(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> seq.select(ref.size()));
+    }
+
+    @Test
+    void headAndTailSplitAtTheKey() {
+        var seq = FingerSortedSeq.<Integer>natural();
+        for (var v : List.of(5, 1, 3, 3, 9, 7)) {
+            seq.add(v);
+        }
+        assertEquals(List.of(1), new ArrayList<>(seq.headSeq(3, false)));
+        assertEquals(List.of(1, 3, 3), new ArrayList<>(seq.headSeq(3, true)));
+        assertEquals(List.of(3, 3, 5, 7, 9), new ArrayList<>(seq.tailSeq(3, true)));
+        assertEquals(List.of(5, 7, 9), new ArrayList<>(seq.tailSeq(3, false)));
+        assertEquals(6, seq.size());
+    }
+
+    @Test
+    void equalKeysKeepInsertionOrder() {
+        var seq = new FingerSortedSeq<String>(Comparator.comparing(String::length));
+        for (var s : List.of("bb", "a", "cc", "d", "aa")) {
+            seq.add(s);
+        }
+        assertEquals(List.of("a", "d", "bb", "cc", "aa"), new ArrayList<>(seq));
+        assertTrue(seq.remove("xx"));
+        assertEquals(List.of("a", "d", "cc", "aa"), new ArrayList<>(seq));
+        assertEquals(1, seq.pollFirst().length());
+        assertEquals("aa", seq.pollLast());
+    }
+
+    @Test
+    void unionOfDisjointAndOverlappingRanges() {
+        var a = FingerSortedSeq.<Integer>natural();
+        var b = FingerSortedSeq.<Integer>natural();
+        var c = FingerSortedSeq.<Integer>natural();
+        for (int i = 0; i < 100; i++) {
+            a.add(i);
+            b.add(100 + i);
+            c.add(2 * i + 1);
+        }
+        a.union(b);
+        assertEquals(200, a.size());
+        a.union(c);
+        var expected = new ArrayList<Integer>();
+        for (int i = 0; i < 200; i++) {
+            insert(expected, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            insert(expected, 2 * i + 1);
+        }
+        assertEquals(expected, new ArrayList<>(a));
+    }
+
+    @Test
+    void iteratorIsLazyOverASnapshot() {
+        var seq = FingerSortedSeq.<Integer>natural();
+        for (int i = 0; i < 10_000; i++) {
+            seq.add(i);
+        }
+        var it = seq.iterator();
+        assertEquals(0, it.next());
+        seq.clear();
+        seq.add(-1);
+        for (int i = 1; i < 10_000; i++) {
+            assertEquals(i, it.next());
+        }
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::next);
+        assertFalse(FingerSortedSeq.<Integer>natural().iterator().hasNext());
+    }
+
+}
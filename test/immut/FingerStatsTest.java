@@ -0,0 +1,122 @@
+package immut;
+
+import jdk.jfr.*;
+import jdk.jfr.consumer.*;
+import org.junit.jupiter.api.*;
+
+import javax.management.*;
+import java.lang.management.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+// run by the stats-test execution of the pom, in a JVM started with -Dimmut.stats=true
+class FingerStatsTest {
+
+    private final FingerStats.FingerStatsMXBean stats = FingerStats.bean();
+
+    @BeforeEach
+    void reset() {
+        assumeTrue(FingerStats.ENABLED, "needs -Dimmut.stats=true");
+        FingerStats.reset();
+    }
+
+    static long sum(long[] histogram) {
+        return Arrays.stream(histogram).sum();
+    }
+
+    @Test
+    void countsTheTreeOperations() {
+        var l = new JList<Integer>();
+        for (int i = 0; i < 10_000; i++) {
+            l.add(i);
+        }
+        assertTrue(stats.getPushCascadeCount() > 0);
+        assertEquals(0, stats.getSplitCount());
+
+        for (int i = 0; i < 10_000; i += 10) {
+            l.get(i);
+        }
+        assertEquals(1_000, stats.getIndexGetCount());
+        // reading the middle of a 10k tree descends several spine levels, the ends none
+        assertTrue(stats.getAverageIndexGetDepth() > 1, "depth " + stats.getAverageIndexGetDepth());
+
+        var f = Utils.fromArray(l.toArray());
+        var sp = Utils.split(f, 5_000);
+        Utils.merge(sp.left(), sp.right());
+        Utils.merge(f, f);
+        assertEquals(1, stats.getSplitCount());
+        assertEquals(2, stats.getMergeCount());
+        assertEquals(1, sum(stats.getSplitLatencyHistogram()));
+        assertEquals(2, sum(stats.getMergeLatencyHistogram()));
+
+        for (int i = 0; i < 10_000; i++) {
+            l.removeFirst();
+        }
+        assertTrue(stats.getPopBorrowCount() > 0);
+
+        stats.reset();
+        assertEquals(0, stats.getPushCascadeCount() + stats.getPopBorrowCount() + stats.getIndexGetCount());
+        assertEquals(0, stats.getAverageIndexGetDepth());
+        assertEquals(0, sum(stats.getSplitLatencyHistogram()));
+    }
+
+    @Test
+    void latencyBucketsArePowersOfTwo() {
+        long[] nanos = { -5, 0, 1, 2, 3, 1_023, 1_024, Long.MAX_VALUE };
+        for (var n : nanos) {
+            FingerStats.split(new FingerStats.SplitEvent(), 1, 0, n);
+        }
+        var h = stats.getSplitLatencyHistogram();
+        assertEquals(FingerStats.BUCKETS, h.length);
+        assertEquals(2, h[0]);
+        assertEquals(1, h[1]);
+        assertEquals(2, h[2]);
+        assertEquals(1, h[10]);
+        assertEquals(1, h[11]);
+        assertEquals(1, h[FingerStats.BUCKETS - 1]);
+        assertEquals(nanos.length, sum(h));
+        assertEquals(0, sum(stats.getMergeLatencyHistogram()));
+    }
+
+    @Test
+    void registeredAsAnMXBean() throws Exception {
+        var name = new ObjectName("immut:type=FingerStats");
+        var server = ManagementFactory.getPlatformMBeanServer();
+        assertTrue(server.isRegistered(name));
+        Utils.split(Utils.fromArray(new Object[] { 1, 2, 3 }), 1);
+        assertEquals(1L, server.getAttribute(name, "SplitCount"));
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, server.getAttribute(name, "SplitCount"));
+    }
+
+    @Test
+    void recordsFlightRecorderEventsOverTheThreshold() throws Exception {
+        var file = Files.createTempFile("finger-stats", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable("immut.Split").withThreshold(Duration.ZERO);
+            recording.enable("immut.Merge").withThreshold(Duration.ZERO);
+            recording.start();
+            var f = Utils.fromArray(new Object[] { 1, 2, 3, 4, 5 });
+            var sp = Utils.split(f, 2);
+            Utils.merge(sp.left(), sp.right());
+            recording.stop();
+            recording.dump(file);
+            var events = RecordingFile.readAllEvents(file);
+            var split = events.stream().filter(e -> e.getEventType().getName().equals("immut.Split")).toList();
+            var merge = events.stream().filter(e -> e.getEventType().getName().equals("immut.Merge")).toList();
+            assertEquals(1, split.size());
+            assertEquals(5, split.getFirst().getInt("size"));
+            assertEquals(2, split.getFirst().getInt("index"));
+            assertEquals(1, merge.size());
+            assertEquals(2, merge.getFirst().getInt("leftSize"));
+            assertEquals(3, merge.getFirst().getInt("rightSize"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
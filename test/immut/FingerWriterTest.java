@@ -0,0 +1,98 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FingerWriterTest {
+
+    static <T> List<JList<T>> roundTrip(List<JList<T>> versions, Codec<T> codec) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new FingerWriter<>(bytes, codec)) {
+            for (var v : versions) {
+                writer.write(v);
+            }
+        }
+        return new FingerReader<>(ByteBuffer.wrap(bytes.toByteArray()), codec).readAll();
+    }
+
+    @Test
+    void randomVersionsRoundTrip() throws IOException {
+        var rnd = new Random(11);
+        var versions = new ArrayList<JList<Integer>>();
+        var snapshots = new ArrayList<List<Integer>>();
+        var cur = new JList<Integer>();
+        for (int v = 0; v < 300; v++) {
+            cur = new JList<>(cur.finger());
+            for (int k = rnd.nextInt(20); k >= 0; k--) {
+                var n = cur.size();
+                switch (rnd.nextInt(6)) {
+                    case 0 -> cur.addFirst(k);
+                    case 1 -> cur.add(rnd.nextInt(n + 1), rnd.nextInt(10) == 0 ? null : v);
+                    case 2 -> {
+                        if (n > 0) {
+                            cur.remove(rnd.nextInt(n));
+                        }
+                    }
+                    case 3 -> {
+                        if (n > 0) {
+                            cur.set(rnd.nextInt(n), -v);
+                        }
+                    }
+                    default -> cur.add(v * 100 + k);
+                }
+            }
+            versions.add(cur);
+            snapshots.add(new ArrayList<>(cur));
+        }
+        var read = roundTrip(versions, Codec.ints());
+        assertEquals(snapshots.size(), read.size());
+        for (int v = 0; v < snapshots.size(); v++) {
+            assertEquals(snapshots.get(v), read.get(v), "version " + v);
+        }
+    }
+
+    @Test
+    void nullElements() throws IOException {
+        var single = new JList<String>();
+        single.add(null);
+        var list = new JList<>(Arrays.asList("a", null, "", null, "b"));
+        var read = roundTrip(List.of(single, list, new JList<>()), Codec.utf8());
+        assertEquals(single, read.get(0));
+        assertEquals(list, read.get(1));
+        assertTrue(read.get(2).isEmpty());
+    }
+
+    @Test
+    void versionsShareNodes() throws IOException {
+        var values = new ArrayList<Integer>();
+        for (int i = 0; i < 10_000; i++) {
+            values.add(i);
+        }
+        var first = new JList<>(values);
+        var second = new JList<>(first.finger());
+        second.add(-1);
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new FingerWriter<>(bytes, Codec.ints())) {
+            writer.write(first);
+            var nodes = writer.nodeCount();
+            writer.write(second);
+            var added = writer.nodeCount() - nodes;
+            // an append copies the right edge only
+            assertTrue(added < 40, added + " new nodes");
+            writer.write(first);
+            assertEquals(nodes + added, writer.nodeCount());
+        }
+        var read = new FingerReader<>(ByteBuffer.wrap(bytes.toByteArray()), Codec.ints()).readAll();
+        assertEquals(values, read.get(0));
+        assertSame(read.get(0).finger(), read.get(2).finger());
+        var a = (Finger.Deep<Integer> ) read.get(0).finger();
+        var b = (Finger.Deep<Integer> ) read.get(1).finger();
+        assertSame(a.left, b.left);
+    }
+
+}
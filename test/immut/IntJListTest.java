@@ -0,0 +1,153 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntJListTest {
+
+    static final int CHUNK = PrimitiveJList.CHUNK;
+
+    static IntJList range(int n) {
+        var l = new IntJList();
+        for (int i = 0; i < n; i++) {
+            l.addInt(i);
+        }
+        return l;
+    }
+
+    static List<Integer> refRange(int n) {
+        var ref = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++) {
+            ref.add(i);
+        }
+        return ref;
+    }
+
+    @Test
+    void editsAtChunkAndTailBoundaries() {
+        // three full chunks in the tree and a tail one short of full
+        var n = 4 * CHUNK - 1;
+        for (var at : new int[] { 0, 1, CHUNK - 1, CHUNK, CHUNK + 1, 2 * CHUNK, 3 * CHUNK - 1, 3 * CHUNK, n - 1, n }) {
+            var l = range(n);
+            var ref = refRange(n);
+            l.addInt(at, -1);
+            ref.add(at, -1);
+            assertEquals(ref, l, "add at " + at);
+            // the insert filled the chunk or the tail: one more goes through the split or the flush
+            l.addInt(at, -2);
+            ref.add(at, -2);
+            assertEquals(ref, l, "second add at " + at);
+            assertEquals(-2, l.setInt(at, -3));
+            ref.set(at, -3);
+            assertEquals(ref.remove(at + 1), l.removeInt(at + 1));
+            assertEquals(ref.remove(at), l.remove(at));
+            assertEquals(ref, l, "remove at " + at);
+            for (int i = 0; i < ref.size(); i++) {
+                assertEquals(ref.get(i), l.getInt(i));
+            }
+        }
+    }
+
+    @Test
+    void randomEditsMatchArrayList() {
+        var rnd = new Random(9);
+        var l = new IntJList();
+        var ref = new ArrayList<Integer>();
+        for (int k = 0; k < 30_000; k++) {
+            var n = ref.size();
+            switch (rnd.nextInt(6)) {
+                case 0, 1 -> {
+                    l.addInt(k);
+                    ref.add(k);
+                }
+                case 2 -> {
+                    var at = rnd.nextInt(n + 1);
+                    l.addInt(at, k);
+                    ref.add(at, k);
+                }
+                case 3 -> {
+                    if (n > 0) {
+                        var at = rnd.nextInt(n);
+                        assertEquals(ref.set(at, -k), l.setInt(at, -k));
+                    }
+                }
+                default -> {
+                    if (n > 0) {
+                        var at = rnd.nextInt(n);
+                        assertEquals(ref.remove(at), l.removeInt(at));
+                    }
+                }
+            }
+        }
+        assertEquals(ref, l);
+        assertArrayEquals(ref.stream().mapToInt(x -> x).toArray(), l.toIntArray());
+        assertEquals(ref.stream().mapToLong(x -> x).sum(), l.intStream().asLongStream().sum());
+    }
+
+    @Test
+    void bulkRemovalsAndIteratorRemove() {
+        var n = 5 * CHUNK + 17;
+        var l = range(n);
+        var ref = refRange(n);
+        assertTrue(l.removeIf(x -> x % 3 == 0));
+        ref.removeIf(x -> x % 3 == 0);
+        assertEquals(ref, l);
+        assertFalse(l.removeIf(x -> x < 0));
+        assertTrue(l.removeAll(List.of(1, 2, 4, 1000)));
+        ref.removeAll(List.of(1, 2, 4, 1000));
+        assertTrue(l.retainAll(Set.copyOf(ref.subList(0, 100))));
+        ref.retainAll(Set.copyOf(ref.subList(0, 100)));
+        assertEquals(ref, l);
+
+        var it = l.intIterator();
+        var refIt = ref.iterator();
+        while (it.hasNext()) {
+            var x = it.nextInt();
+            assertEquals(refIt.next(), x);
+            if (x % 2 == 0) {
+                it.remove();
+                refIt.remove();
+            }
+        }
+        assertEquals(ref, l);
+        var again = l.iterator();
+        assertThrows(IllegalStateException.class, again::remove);
+        again.next();
+        l.addInt(5);
+        assertThrows(ConcurrentModificationException.class, again::remove);
+    }
+
+    @Test
+    void iteratorSeesTheContentsItStartedWith() {
+        var l = range(CHUNK + 10);
+        var it = l.intIterator();
+        l.setInt(CHUNK + 2, -1);
+        l.setInt(3, -1);
+        l.addInt(99);
+        var seen = new ArrayList<Integer>();
+        it.forEachRemaining((int x) -> seen.add(x));
+        assertEquals(refRange(CHUNK + 10), seen);
+    }
+
+    @Test
+    void longListSharesTheStorage() {
+        var l = new LongJList();
+        var ref = new ArrayList<Long>();
+        for (long i = 0; i < 3 * CHUNK; i++) {
+            l.addLong(i << 33);
+            ref.add(i << 33);
+        }
+        l.addLong(CHUNK, 7);
+        ref.add(CHUNK, 7L);
+        assertEquals(ref.set(2 * CHUNK, -1L), l.setLong(2 * CHUNK, -1));
+        assertEquals(ref.remove(CHUNK - 1), l.removeLong(CHUNK - 1));
+        l.removeIf(x -> x % 3 == 0);
+        ref.removeIf(x -> x % 3 == 0);
+        assertEquals(ref, l);
+        assertArrayEquals(ref.stream().mapToLong(x -> x).toArray(), LongJList.of(l.toLongArray()).toLongArray());
+    }
+
+}
@@ -0,0 +1,87 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JDequeTest {
+
+    @Test
+    void endsMatchArrayDeque() {
+        var rnd = new Random(9);
+        var d = new JDeque<Integer>();
+        var ref = new ArrayDeque<Integer>();
+        for (int i = 0; i < 20_000; i++) {
+            switch (rnd.nextInt(6)) {
+                case 0 -> {
+                    d.addFirst(i);
+                    ref.addFirst(i);
+                }
+                case 1 -> {
+                    d.offerLast(i);
+                    ref.offerLast(i);
+                }
+                case 2 -> assertEquals(ref.pollFirst(), d.pollFirst());
+                case 3 -> assertEquals(ref.pollLast(), d.pollLast());
+                case 4 -> assertEquals(ref.peekFirst(), d.peekFirst());
+                default -> assertEquals(ref.peekLast(), d.peekLast());
+            }
+            assertEquals(ref.size(), d.size());
+        }
+        assertEquals(new ArrayList<>(ref), new ArrayList<>(d));
+        var desc = new ArrayList<Integer>();
+        d.descendingIterator().forEachRemaining(desc::add);
+        var refDesc = new ArrayList<Integer>();
+        ref.descendingIterator().forEachRemaining(refDesc::add);
+        assertEquals(refDesc, desc);
+    }
+
+    @Test
+    void emptyAndNullBehaviour() {
+        var d = new JDeque<Integer>();
+        assertNull(d.poll());
+        assertNull(d.peekLast());
+        assertThrows(NoSuchElementException.class, d::pop);
+        assertThrows(NoSuchElementException.class, d::getLast);
+        assertThrows(NullPointerException.class, () -> d.push(null));
+        assertThrows(NullPointerException.class, () -> new JDeque<>(Arrays.asList(1, null)));
+    }
+
+    @Test
+    void bulkRemoval() {
+        var d = new JDeque<Integer>();
+        for (int i = 0; i < 1_000; i++) {
+            d.add(i % 10);
+        }
+        assertTrue(d.removeIf(x -> x % 2 == 0));
+        assertEquals(500, d.size());
+        assertFalse(d.removeIf(x -> x > 100));
+        assertTrue(d.removeAll(Set.of(1, 3)));
+        assertEquals(300, d.size());
+        assertTrue(d.retainAll(List.of(5)));
+        assertFalse(d.retainAll(List.of(5, 7)));
+        assertEquals(100, d.size());
+        assertEquals(5, d.pollLast());
+        assertTrue(d.removeFirstOccurrence(5));
+        assertTrue(d.removeLastOccurrence(5));
+        assertFalse(d.remove(7));
+        assertEquals(97, d.size());
+        assertTrue(d.removeIf(x -> true));
+        assertTrue(d.isEmpty());
+    }
+
+    @Test
+    void sharesTheTreeWithJList() {
+        var d = new JDeque<>(List.of(1, 2, 3));
+        var seq = d.toSeq();
+        var list = d.toJList();
+        d.push(0);
+        list.add(4);
+        assertEquals(List.of(1, 2, 3), seq);
+        assertEquals(List.of(0, 1, 2, 3), new ArrayList<>(d));
+        assertEquals(List.of(1, 2, 3, 4), list);
+    }
+
+}
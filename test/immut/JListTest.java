@@ -0,0 +1,429 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JListTest {
+
+    static JList<Integer> range(int n) {
+        var l = new JList<Integer>();
+        for (int i = 0; i < n; i++) {
+            l.add(i);
+        }
+        return l;
+    }
+
+    @Test
+    void subListReadsAndWritesThrough() {
+        var l = range(100);
+        var ref = new ArrayList<>(l);
+        var sub = l.subList(10, 30);
+        var refSub = ref.subList(10, 30);
+        sub.set(0, -1);
+        refSub.set(0, -1);
+        sub.add(5, -2);
+        refSub.add(5, -2);
+        sub.remove(7);
+        refSub.remove(7);
+        sub.subList(2, 6).clear();
+        refSub.subList(2, 6).clear();
+        assertEquals(refSub, sub);
+        assertEquals(ref, l);
+        assertEquals(refSub.size(), sub.size());
+        assertEquals(refSub, new ArrayList<>(sub));
+        assertEquals(refSub.stream().mapToInt(x -> x).sum(), sub.stream().mapToInt(x -> x).sum());
+    }
+
+    @Test
+    void parentSetKeepsTheViewValid() {
+        var l = range(50);
+        var sub = l.subList(5, 15);
+        l.set(0, 9);
+        l.set(7, 70);
+        assertEquals(10, sub.size());
+        assertEquals(70, sub.get(2));
+        l.replaceAll(x -> x + 1);
+        assertEquals(71, sub.get(2));
+        l.compact();
+        assertEquals(6, sub.getFirst());
+    }
+
+    @Test
+    void parentStructuralChangeInvalidatesTheView() {
+        var l = range(50);
+        var sub = l.subList(5, 15);
+        l.add(3);
+        assertThrows(ConcurrentModificationException.class, sub::size);
+        assertThrows(ConcurrentModificationException.class, () -> sub.get(0));
+
+        var other = l.subList(0, 10);
+        l.remove(40);
+        assertThrows(ConcurrentModificationException.class, () -> other.set(0, 1));
+    }
+
+    @Test
+    void sizePreservingParentEditInvalidatesTheView() {
+        var l = range(50);
+        var sub = l.subList(2, 5);
+        assertEquals(List.of(2, 3, 4), sub);
+        l.removeFirst();
+        l.addLast(50);
+        assertEquals(50, l.size());
+        assertThrows(ConcurrentModificationException.class, () -> sub.get(0));
+        assertThrows(ConcurrentModificationException.class, sub::size);
+    }
+
+    @Test
+    void removeRangeMayEndAtTheSize() {
+        var l = range(20);
+        l.subList(15, 20).clear();
+        assertEquals(range(15), l);
+        l.subList(0, 15).clear();
+        assertTrue(l.isEmpty());
+    }
+
+    // as many random middle edits as the list has elements, which wears the fan-out well below 3
+    static JList<Integer> wear(JList<Integer> l, List<Integer> ref, long seed) {
+        var rnd = new Random(seed);
+        var n = l.size();
+        for (int k = 0; k < n; k++) {
+            var i = rnd.nextInt(l.size());
+            if (k % 2 == 0) {
+                l.add(i, -k);
+                ref.add(i, -k);
+            } else {
+                assertEquals(ref.remove(i), l.remove(i));
+            }
+        }
+        return l;
+    }
+
+    @Test
+    void compactKeepsTheContentsAndRestoresTheFanOut() {
+        var l = range(20_000);
+        var ref = new ArrayList<>(l);
+        wear(l, ref, 1);
+        var worn = l.shapeStats();
+        assertEquals(ref.size(), worn.size());
+        assertTrue(worn.fanOut() < 2.7, "worn fan-out " + worn.fanOut());
+
+        l.compact();
+        assertEquals(ref, l);
+        var packed = l.shapeStats();
+        assertEquals(ref.size(), packed.size());
+        assertEquals(3, packed.fanOut(), 0.05);
+        assertTrue(packed.nodes() < worn.nodes());
+        assertTrue(packed.depth() <= worn.depth());
+    }
+
+    @Test
+    void shapeStatsOfSmallLists() {
+        assertEquals(0, new JList<Integer>().shapeStats().size());
+        assertEquals(0, new JList<Integer>().shapeStats().fanOut());
+        var one = range(1).shapeStats();
+        assertEquals(1, one.size());
+        assertEquals(1, one.depth());
+        var s = range(10_000).shapeStats();
+        long spine = 0;
+        for (var c : s.spineDigits()) {
+            spine += c;
+        }
+        assertEquals(2 * (s.depth() - 1), spine);
+    }
+
+    @Test
+    void autoCompactionKeepsTheFanOutUp() {
+        var on = range(20_000);
+        var off = range(20_000);
+        on.autoCompact(2.8);
+        var refOn = new ArrayList<>(on);
+        var refOff = new ArrayList<>(off);
+        wear(on, refOn, 2);
+        wear(off, refOff, 2);
+        assertEquals(refOn, on);
+        assertEquals(refOff, off);
+        assertTrue(on.shapeStats().fanOut() > off.shapeStats().fanOut() + 0.1,
+                on.shapeStats().fanOut() + " vs " + off.shapeStats().fanOut());
+        assertThrows(IllegalArgumentException.class, () -> on.autoCompact(3.5));
+    }
+
+    @Test
+    void autoCompactionIsOffByDefaultAndAtZero() {
+        var l = range(20_000);
+        var ref = new ArrayList<>(l);
+        l.autoCompact(2.8);
+        l.autoCompact(0);
+        wear(l, ref, 3);
+        var twin = range(20_000);
+        wear(twin, new ArrayList<>(twin), 3);
+        assertEquals(twin.shapeStats().nodes(), l.shapeStats().nodes());
+        assertEquals(twin.shapeStats().fanOut(), l.shapeStats().fanOut());
+    }
+
+    @Test
+    @Timeout(value = 10, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void autoCompactionSamplesAListHoldingNull() {
+        var l = new JList<Integer>();
+        l.add(null);
+        l.autoCompact(2.5);
+        for (int i = 0; i < 1_100; i++) {
+            l.add(0, 7);
+            l.remove(0);
+        }
+        assertEquals(Arrays.asList((Integer) null), l);
+    }
+
+    // splits sp down to pieces of at most leaf elements and reads them left to right
+    static void drain(Spliterator<Integer> sp, int leaf, List<Integer> out) {
+        if (sp.estimateSize() > leaf) {
+            var prefix = sp.trySplit();
+            assertNotNull(prefix);
+            drain(prefix, leaf, out);
+            drain(sp, leaf, out);
+            return;
+        }
+        // start by hand so that forEachRemaining continues a cursor
+        if (sp.tryAdvance(out::add)) {
+            sp.forEachRemaining(out::add);
+        }
+        assertFalse(sp.tryAdvance(out::add));
+        assertEquals(0, sp.estimateSize());
+    }
+
+    @Test
+    void spliteratorSplitsIntoExactInOrderPieces() {
+        var l = range(10_000);
+        var sp = l.spliterator();
+        assertTrue(sp.hasCharacteristics(Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED
+                | Spliterator.IMMUTABLE));
+        assertEquals(10_000, sp.getExactSizeIfKnown());
+        var prefix = sp.trySplit();
+        assertEquals(10_000, prefix.estimateSize() + sp.estimateSize());
+        var out = new ArrayList<Integer>();
+        drain(prefix, 7, out);
+        drain(sp, 100, out);
+        assertEquals(l, out);
+
+        var one = range(1).spliterator();
+        assertNull(one.trySplit());
+        assertNull(new JList<Integer>().spliterator().trySplit());
+    }
+
+    @Test
+    void spliteratorReadsTheSnapshotItWasTakenFrom() {
+        var l = range(1_000);
+        var sp = l.spliterator();
+        sp.tryAdvance(x -> assertEquals(0, x));
+        var rest = sp.trySplit();
+        l.set(10, -1);
+        l.clear();
+        var out = new ArrayList<Integer>();
+        rest.forEachRemaining(out::add);
+        sp.forEachRemaining(out::add);
+        assertEquals(range(1_000).subList(1, 1_000), out);
+    }
+
+    @Test
+    void parallelStreamsMatchSequentialOnes() {
+        var l = range(200_000);
+        var expected = 200_000L * 199_999 / 2;
+        assertEquals(expected, l.parallelStream().mapToLong(x -> x).sum());
+        assertEquals(l, l.parallelStream().toList());
+        assertEquals(List.of(150_000, 150_001), l.parallelStream().skip(150_000).limit(2).toList());
+        assertEquals(Optional.of(123_457), l.parallelStream().filter(x -> x > 123_456).findFirst());
+    }
+
+    static Integer[] values(int n) {
+        var a = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = i;
+        }
+        return a;
+    }
+
+    @Test
+    void bulkBuiltListsMatchRepeatedAdds() {
+        for (int n = 0; n < 300; n++) {
+            var l = JList.fromArray(values(n));
+            assertEquals(range(n), l);
+            assertEquals(n, l.shapeStats().size());
+            // the ends and the middle still edit like any other tree
+            l.addFirst(-1);
+            l.add(-2);
+            l.add(l.size() / 2, -3);
+            var ref = new ArrayList<>(Arrays.asList(values(n)));
+            ref.addFirst(-1);
+            ref.add(-2);
+            ref.add(ref.size() / 2, -3);
+            assertEquals(ref, l);
+            assertEquals(-2, l.removeLast());
+            assertEquals(-1, l.removeFirst());
+        }
+        assertEquals(List.of(), JList.of());
+        assertEquals(Arrays.asList(1, null, 3), JList.of(1, null, 3));
+    }
+
+    @Test
+    void bulkBuildIsBalancedOnBothSidesOfTheParallelThreshold() {
+        for (var n : new int[] { Utils.PARALLEL_BUILD_THRESHOLD - 1, 5 * Utils.PARALLEL_BUILD_THRESHOLD + 3 }) {
+            var a = values(n);
+            var l = JList.fromArray(a);
+            a[0] = -1;
+            assertEquals(0, l.getFirst());
+            for (int i = 0; i < n; i += 97) {
+                assertEquals(i, l.get(i));
+            }
+            assertEquals(n - 1, l.getLast());
+            var s = l.shapeStats();
+            assertEquals(n, s.size());
+            assertTrue(s.fanOut() > 2.9, "fan-out " + s.fanOut());
+            // the merges joining the parallel parts may leave one spine level more than pushing does
+            assertTrue(s.depth() <= range(n).shapeStats().depth() + 1);
+            assertEquals(l, new JList<>(Arrays.asList(values(n))));
+        }
+    }
+
+    @Test
+    void addAllInsertsCollectionsAndLists() {
+        var l = range(1_000);
+        var ref = new ArrayList<>(l);
+        assertFalse(l.addAll(List.of()));
+        assertFalse(l.addAll(500, new JList<>()));
+        l.addAll(List.of(-1, -2, -3));
+        ref.addAll(List.of(-1, -2, -3));
+        l.addAll(10, new ArrayDeque<>(List.of(-4, -5)));
+        ref.addAll(10, List.of(-4, -5));
+        l.addAll(0, range(300));
+        ref.addAll(0, range(300));
+        // a list added to itself reads the tree it had before the call
+        l.addAll(l);
+        ref.addAll(new ArrayList<>(ref));
+        assertEquals(ref, l);
+        assertEquals(ref.size(), l.shapeStats().size());
+    }
+
+    @Test
+    void collectorKeepsTheEncounterOrder() {
+        assertEquals(List.of(), Stream.<Integer>empty().collect(JList.toJList()));
+        var seq = IntStream.range(0, 5_000).boxed().collect(JList.toJList());
+        assertEquals(range(5_000), seq);
+        for (var n : new int[] { 1, 31, 33, 300_000 }) {
+            var par = IntStream.range(0, n).parallel().boxed().collect(JList.collector());
+            assertEquals(n, par.size());
+            assertEquals(n, par.shapeStats().size());
+            for (int i = 0; i < n; i++) {
+                assertEquals(i, par.get(i));
+            }
+            // the result is an ordinary list
+            par.add(0, -1);
+            par.removeLast();
+            assertEquals(-1, par.getFirst());
+        }
+        var withNull = Stream.of(1, null, 2).parallel().collect(JList.toJList());
+        assertEquals(Arrays.asList(1, null, 2), withNull);
+    }
+
+    @Test
+    void toArrayAndCopyRangeMatchArrayList() {
+        var rnd = new Random(17);
+        for (var n : new int[] { 0, 1, 8, 100, 10_000 }) {
+            var l = range(n);
+            var ref = new ArrayList<>(l);
+            assertArrayEquals(ref.toArray(), l.toArray());
+            assertArrayEquals(ref.toArray(new Integer[0]), l.toArray(new Integer[0]));
+            // a larger array is filled in place and marked with a null after the last element
+            var big = new Integer[n + 2];
+            Arrays.fill(big, -1);
+            assertSame(big, l.toArray(big));
+            assertNull(big[n]);
+            assertEquals(-1, big[n + 1]);
+            for (int k = 0; k < 50; k++) {
+                var from = rnd.nextInt(n + 1);
+                var to = from + rnd.nextInt(n - from + 1);
+                var dest = new Object[to - from + 3];
+                l.copyRange(from, to, dest, 2);
+                assertEquals(ref.subList(from, to), Arrays.asList(dest).subList(2, 2 + to - from));
+                assertNull(dest[0]);
+                assertNull(dest[dest.length - 1]);
+            }
+        }
+        var l = range(10);
+        assertThrows(IndexOutOfBoundsException.class, () -> l.copyRange(5, 11, new Object[10], 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> l.copyRange(6, 5, new Object[10], 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> l.copyRange(0, 5, new Object[10], 6));
+        assertThrows(ArrayStoreException.class, () -> l.toArray(new String[10]));
+    }
+
+    @Test
+    void getAllReadsSortedIndicesNearAndFar() {
+        var l = range(100_000);
+        var rnd = new Random(7);
+        var indices = new int[3_000];
+        for (int k = 0; k < indices.length; k++) {
+            // mostly short gaps, some repeats, a few long jumps
+            indices[k] = rnd.nextInt(10) == 0 ? rnd.nextInt(100_000) : rnd.nextInt(100);
+        }
+        Arrays.sort(indices);
+        var got = l.getAll(indices);
+        assertEquals(indices.length, got.size());
+        for (int k = 0; k < indices.length; k++) {
+            assertEquals(indices[k], got.get(k));
+        }
+        assertThrows(UnsupportedOperationException.class, () -> got.set(0, 1));
+        assertEquals(List.of(), l.getAll(new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> l.getAll(new int[] { 5, 4 }));
+        assertThrows(IndexOutOfBoundsException.class, () -> l.getAll(new int[] { 5, 100_000 }));
+        assertThrows(IndexOutOfBoundsException.class, () -> l.getAll(new int[] { -1 }));
+    }
+
+    @Test
+    void searchFindsTheOuterMatchesBelowAndAboveTheParallelThreshold() {
+        for (var n : new int[] { 0, 1, 100, Utils.PARALLEL_SEARCH_THRESHOLD, 3 * Utils.PARALLEL_SEARCH_THRESHOLD }) {
+            var ref = new ArrayList<Integer>();
+            for (int i = 0; i < n; i++) {
+                ref.add(i % 1_000);
+            }
+            if (n > 0) {
+                ref.set(n / 3, null);
+                ref.set(n - 1, null);
+            }
+            var l = new JList<>(ref);
+            for (var o : Arrays.asList(0, 1, 999, 1_000, null, "0")) {
+                assertEquals(ref.indexOf(o), l.indexOf(o), "indexOf " + o + " in " + n);
+                assertEquals(ref.lastIndexOf(o), l.lastIndexOf(o), "lastIndexOf " + o + " in " + n);
+                assertEquals(ref.contains(o), l.contains(o));
+            }
+            // one match at the far right, past every task that finds nothing
+            if (n > 1) {
+                ref.set(n - 2, -1);
+                l.set(n - 2, -1);
+                assertEquals(n - 2, l.indexOf(-1));
+            }
+        }
+    }
+
+    @Test
+    void removeObjectTakesTheFirstMatch() {
+        var ref = new ArrayList<Integer>();
+        for (int i = 0; i < 100_000; i++) {
+            ref.add(i % 7);
+        }
+        ref.add(50_000, null);
+        var l = new JList<>(ref);
+        for (var o : Arrays.asList(3, 3, null, null, 6, -1)) {
+            assertEquals(ref.remove(o), l.remove(o));
+            assertEquals(ref.size(), l.size());
+        }
+        assertEquals(ref, l);
+        var sub = l.subList(0, 10);
+        l.remove((Object) 4);
+        assertThrows(ConcurrentModificationException.class, sub::size);
+        l.remove((Object) (-1));
+        assertEquals(ref.size() - 1, l.size());
+    }
+
+}
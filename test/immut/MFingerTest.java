@@ -0,0 +1,145 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// MFinger with the size measure against Finger, which has that measure built in: same operations, same results
+class MFingerTest {
+
+    static final Measure<Integer, Integer> SIZE = Measure.size();
+
+    static List<Integer> list(Finger<Integer> f) {
+        var out = new ArrayList<Integer>();
+        Utils.orderlyMethod(f, out::add);
+        return out;
+    }
+
+    static List<Integer> list(MFinger<Integer, Integer> m) {
+        var out = new ArrayList<Integer>();
+        MUtils.orderlyMethod(m, out::add);
+        return out;
+    }
+
+    static MFinger<Integer, Integer> build(int n) {
+        MFinger<Integer, Integer> m = MUtils.empty(SIZE);
+        for (int i = 0; i < n; i++) {
+            m = MUtils.pushRight(SIZE, m, i);
+        }
+        return m;
+    }
+
+    static void assertAgree(Finger<Integer> f, MFinger<Integer, Integer> m) {
+        assertEquals(f.size(), m.measure());
+        var expected = list(f);
+        assertEquals(expected, list(m));
+        if (!expected.isEmpty()) {
+            assertEquals(Utils.head(f), MUtils.head(m));
+            assertEquals(Utils.last(f), MUtils.last(m));
+        }
+        for (int i = 0; i < expected.size(); i += 1 + expected.size() / 40) {
+            var at = i;
+            var found = MUtils.lookup(SIZE, x -> x > at, 0, m);
+            assertEquals(Utils.indexGet(f, i), found.item());
+            assertEquals(i, found.before());
+        }
+    }
+
+    @Test
+    void randomOperationsAgree() {
+        var rnd = new Random(7);
+        Finger<Integer> f = Finger.Empty.empty();
+        MFinger<Integer, Integer> m = MUtils.empty(SIZE);
+        for (int step = 0; step < 3_000; step++) {
+            var v = step;
+            switch (rnd.nextInt(7)) {
+                case 0 -> {
+                    f = Utils.pushLeft(f, v);
+                    m = MUtils.pushLeft(SIZE, m, v);
+                }
+                case 1, 2 -> {
+                    f = Utils.pushRight(f, v);
+                    m = MUtils.pushRight(SIZE, m, v);
+                }
+                case 3 -> {
+                    if (f.size() > 0) {
+                        var a = new Object[1];
+                        var b = new Object[1];
+                        f = Utils.popLeft(f, x -> a[0] = x);
+                        m = MUtils.popLeft(SIZE, m, x -> b[0] = x);
+                        assertEquals(a[0], b[0]);
+                    }
+                }
+                case 4 -> {
+                    if (f.size() > 0) {
+                        var a = new Object[1];
+                        var b = new Object[1];
+                        f = Utils.popRight(f, x -> a[0] = x);
+                        m = MUtils.popRight(SIZE, m, x -> b[0] = x);
+                        assertEquals(a[0], b[0]);
+                    }
+                }
+                case 5 -> {
+                    // cut somewhere and join the halves the other way round
+                    var at = rnd.nextInt(f.size() + 1);
+                    var fs = Utils.split(f, at);
+                    var ms = MUtils.split(SIZE, x -> x > at, m);
+                    assertAgree(fs.left(), ms.left());
+                    assertAgree(fs.right(), ms.right());
+                    f = Utils.merge(fs.right(), fs.left());
+                    m = MUtils.merge(SIZE, ms.right(), ms.left());
+                }
+                default -> {
+                    var n = rnd.nextInt(60);
+                    var values = new Object[n];
+                    for (int i = 0; i < n; i++) {
+                        values[i] = -i;
+                    }
+                    f = Utils.merge(f, Utils.fromArray(values));
+                    m = MUtils.merge(SIZE, m, MUtils.fromValues(SIZE, values));
+                }
+            }
+            if (step % 50 == 0) {
+                assertAgree(f, m);
+            }
+        }
+        assertAgree(f, m);
+    }
+
+    @Test
+    void everySplitPointAgrees() {
+        for (var n : new int[] { 0, 1, 2, 5, 9, 30, 200 }) {
+            var values = new Object[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = i;
+            }
+            Finger<Integer> f = Utils.fromArray(values);
+            var m = build(n);
+            assertAgree(f, m);
+            for (int at = 0; at <= n; at++) {
+                var cut = at;
+                var fs = Utils.split(f, at);
+                var ms = MUtils.split(SIZE, x -> x > cut, m);
+                assertAgree(fs.left(), ms.left());
+                assertAgree(fs.right(), ms.right());
+                assertAgree(Utils.merge(fs.left(), fs.right()), MUtils.merge(SIZE, ms.left(), ms.right()));
+            }
+        }
+    }
+
+    @Test
+    void emptyTreesAgree() {
+        Finger<Integer> f = Finger.Empty.empty();
+        MFinger<Integer, Integer> m = MUtils.empty(SIZE);
+        assertAgree(f, m);
+        assertThrows(NoSuchElementException.class, () -> MUtils.head(m));
+        assertThrows(NoSuchElementException.class, () -> MUtils.last(m));
+        assertAgree(Utils.merge(f, f), MUtils.merge(SIZE, m, m));
+        var one = MUtils.pushLeft(SIZE, m, 1);
+        assertAgree(Utils.pushLeft(f, 1), one);
+        assertAgree(f, MUtils.popRight(SIZE, one, x -> assertEquals(1, x)));
+    }
+
+}
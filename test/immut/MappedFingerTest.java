@@ -0,0 +1,302 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import immut.MappedStore.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFingerTest {
+
+    @TempDir
+    Path dir;
+
+    static List<Integer> list(MappedFinger<Integer> f) {
+        var out = new ArrayList<Integer>();
+        f.forEach(out::add);
+        return out;
+    }
+
+    static void assertContents(List<Integer> expected, MappedFinger<Integer> f) {
+        assertEquals(expected.size(), f.size());
+        assertEquals(expected, list(f));
+        for (int i = 0; i < expected.size(); i += 7) {
+            assertEquals(expected.get(i), f.get(i));
+        }
+    }
+
+    @Test
+    void appendSplitAndConcatMatchAList() throws IOException {
+        try (var store = MappedStore.open(dir.resolve("a.fs"), Codec.ints(), 4096, 64)) {
+            var f = store.root();
+            var ref = new ArrayList<Integer>();
+            for (int i = 0; i < 3_000; i++) {
+                f = f.append(i);
+                ref.add(i);
+            }
+            var bulk = new ArrayList<Integer>();
+            for (int i = 0; i < 1_000; i++) {
+                bulk.add(-i);
+            }
+            f = f.appendAll(bulk);
+            ref.addAll(bulk);
+            assertContents(ref, f);
+
+            var rnd = new Random(3);
+            for (int i = 0; i < 50; i++) {
+                var at = rnd.nextInt(ref.size() + 1);
+                var sp = f.split(at);
+                assertContents(ref.subList(0, at), sp.left());
+                assertContents(ref.subList(at, ref.size()), sp.right());
+                assertContents(ref, sp.left().concat(sp.right()));
+                f = sp.right().concat(sp.left());
+                var rotated = new ArrayList<>(ref.subList(at, ref.size()));
+                rotated.addAll(ref.subList(0, at));
+                ref = rotated;
+            }
+            assertContents(ref, f);
+        }
+    }
+
+    @Test
+    void appendKeepsOlderVersions() throws IOException {
+        try (var store = MappedStore.open(dir.resolve("v.fs"), Codec.ints(), 4096, 64)) {
+            var versions = new ArrayList<MappedFinger<Integer>>();
+            var f = store.root();
+            for (int i = 0; i < 500; i++) {
+                versions.add(f);
+                f = f.append(i);
+            }
+            for (int i = 0; i < versions.size(); i += 37) {
+                var v = versions.get(i);
+                assertEquals(i, v.size());
+                for (int j = 0; j < i; j++) {
+                    assertEquals(j, v.get(j));
+                }
+            }
+        }
+    }
+
+    // writes the new leaf and one new record per level on the path to it, nothing else
+    @Test
+    void appendWritesOnlyThePathToTheLastLeaf() throws IOException {
+        try (var store = MappedStore.open(dir.resolve("p.fs"), Codec.ints(), 1 << 16, 64)) {
+            var f = store.root();
+            for (int i = 0; i < 2_000; i++) {
+                f = f.append(i);
+            }
+            long path = 0;
+            var cur = f.root;
+            while (!(store.read(cur) instanceof Leaf leaf)) {
+                switch (store.read(cur)) {
+                    case Dig v -> {
+                        path += 5 + 16 * v.children().length;
+                        cur = v.children()[v.children().length - 1];
+                    }
+                    case Sgl v -> {
+                        path += 17;
+                        cur = v.inner();
+                    }
+                    case Dp v -> {
+                        path += 49;
+                        cur = v.right();
+                    }
+                    default -> throw new AssertionError();
+                }
+            }
+            var leafBytes = 5 + 8 * (leaf.values().length + 1);
+            assertTrue(leaf.values().length < MappedFinger.CHUNK);
+            var before = store.end();
+            f = f.append(2_000);
+            assertEquals(leafBytes + path, store.end() - before);
+            assertEquals(2_000, f.get(2_000));
+        }
+    }
+
+    @Test
+    void reopenReturnsTheCommittedRoot() throws IOException {
+        var path = dir.resolve("r.fs");
+        var ref = new ArrayList<String>();
+        try (var store = MappedStore.open(path, Codec.utf8(), 4096, 16)) {
+            assertEquals(0, store.root().size());
+            var f = store.root();
+            for (int i = 0; i < 1_000; i++) {
+                f = f.append("s" + i);
+                ref.add("s" + i);
+            }
+            store.commit(f);
+            f.append("uncommitted");
+        }
+        try (var store = MappedStore.open(path, Codec.utf8(), 4096, 16)) {
+            var f = store.root();
+            var out = new ArrayList<String>();
+            f.forEach(out::add);
+            assertEquals(ref, out);
+            f = f.append("more");
+            assertEquals("more", f.get(1_000));
+            assertEquals("s999", f.get(999));
+        }
+    }
+
+    @Test
+    void reopenDropsWhatWasWrittenAfterTheLastCommit() throws IOException {
+        var path = dir.resolve("u.fs");
+        long committedEnd;
+        try (var store = MappedStore.open(path, Codec.ints(), 4096, 16)) {
+            var f = store.root();
+            for (int i = 0; i < 2_000; i++) {
+                f = f.append(i);
+            }
+            store.commit(f);
+            committedEnd = store.end();
+            // several segments of records no commit points to
+            var lost = f;
+            for (int i = 0; i < 5_000; i++) {
+                lost = lost.append(-i);
+            }
+            assertTrue(store.end() > committedEnd + 3 * 4096);
+        }
+        var ref = new ArrayList<Integer>();
+        for (int i = 0; i < 2_000; i++) {
+            ref.add(i);
+        }
+        try (var store = MappedStore.open(path, Codec.ints(), 4096, 16)) {
+            assertEquals(committedEnd, store.end());
+            var f = store.root();
+            assertContents(ref, f);
+            // new records go over the dropped ones and leave the committed tree alone
+            for (int i = 0; i < 3_000; i++) {
+                f = f.append(1_000_000 + i);
+            }
+            assertContents(ref, store.root());
+            store.commit(f);
+        }
+        for (int i = 0; i < 3_000; i++) {
+            ref.add(1_000_000 + i);
+        }
+        try (var store = MappedStore.open(path, Codec.ints(), 4096, 16)) {
+            assertContents(ref, store.root());
+        }
+        // a store that was never committed reopens empty
+        var fresh = dir.resolve("n.fs");
+        try (var store = MappedStore.open(fresh, Codec.ints(), 4096, 16)) {
+            store.root().append(1).append(2);
+        }
+        try (var store = MappedStore.open(fresh, Codec.ints(), 4096, 16)) {
+            assertEquals(0, store.root().size());
+            assertEquals(MappedStore.HEADER, store.end());
+        }
+    }
+
+    // the length of the record at ref, from its decoded form
+    static int recordLength(MappedStore<String> store, Ref ref) {
+        return switch (store.read(ref)) {
+            case Leaf v -> {
+                var len = 5;
+                for (var x : v.values()) {
+                    len += 4 + store.codec.encode((String) x).length;
+                }
+                yield len;
+            }
+            case Dig v -> 5 + 16 * v.children().length;
+            case Sgl _ -> 17;
+            case Dp _ -> 49;
+        };
+    }
+
+    static void children(MappedStore<String> store, Ref ref, Deque<Ref> out) {
+        switch (store.read(ref)) {
+            case Leaf _ -> {}
+            case Dig v -> out.addAll(Arrays.asList(v.children()));
+            case Sgl v -> out.add(v.inner());
+            case Dp v -> out.addAll(List.of(v.left(), v.mid(), v.right()));
+        }
+    }
+
+    @Test
+    void recordsNeverCrossASegmentBoundary() throws IOException {
+        int segment = 8192;
+        var path = dir.resolve("b.fs");
+        var rnd = new Random(10);
+        var ref = new ArrayList<String>();
+        var roots = new ArrayList<MappedFinger<String>>();
+        try (var store = MappedStore.open(path, Codec.utf8(), segment, 64)) {
+            var f = store.root();
+            // values of random length give records of random length, so appends keep landing near the ends
+            for (int i = 0; i < 20_000; i++) {
+                var s = "x".repeat(rnd.nextInt(80)) + i;
+                f = f.append(s);
+                ref.add(s);
+                if (i % 1_000 == 0) {
+                    var sp = f.split(rnd.nextInt(ref.size() + 1));
+                    f = sp.left().concat(sp.right());
+                    roots.add(f);
+                }
+            }
+            roots.add(f);
+            assertTrue(store.end() > 50L * segment);
+
+            var seen = new HashSet<Long>();
+            var todo = new ArrayDeque<Ref>();
+            for (var r : roots) {
+                todo.add(r.root);
+            }
+            int atSegmentStart = 0;
+            while (!todo.isEmpty()) {
+                var r = todo.pop();
+                if (r.size() == 0 || !seen.add(r.offset())) {
+                    continue;
+                }
+                var start = (int) (r.offset() % segment);
+                var len = recordLength(store, r);
+                assertTrue(start + len <= segment, "record at " + r.offset() + " of " + len + " bytes");
+                if (start == 0) {
+                    atSegmentStart += 1;
+                }
+                children(store, r, todo);
+            }
+            // records that did not fit moved to the next segment
+            assertTrue(atSegmentStart > 0);
+
+            // one leaf of this size cannot fit in any segment
+            var big = "y".repeat(segment);
+            var e = assertThrows(IllegalArgumentException.class, () -> store.root().append(big));
+            assertTrue(e.getMessage().contains("segment size"));
+            store.commit(f);
+        }
+        // read back through fresh mappings and an empty cache
+        try (var store = MappedStore.open(path, Codec.utf8(), segment, 8)) {
+            var out = new ArrayList<String>();
+            store.root().forEach(out::add);
+            assertEquals(ref, out);
+        }
+    }
+
+    @Test
+    void segmentSizeIsCheckedOnReopen() throws IOException {
+        var path = dir.resolve("s.fs");
+        try (var store = MappedStore.open(path, Codec.ints(), 4096, 16)) {
+            store.commit(store.root().append(1).append(2));
+        }
+        var length = Files.size(path);
+        var e = assertThrows(IOException.class, () -> MappedStore.open(path, Codec.ints(), 8192, 16));
+        assertTrue(e.getMessage().contains("4096"));
+        assertEquals(length, Files.size(path));
+        try (var store = MappedStore.open(path, Codec.ints())) {
+            assertEquals(List.of(1, 2), list(store.root()));
+        }
+    }
+
+    @Test
+    void foreignFilesAreRejected() throws IOException {
+        var path = dir.resolve("x.fs");
+        Files.write(path, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        assertThrows(IOException.class, () -> MappedStore.open(path, Codec.ints(), 4096, 16));
+    }
+
+}
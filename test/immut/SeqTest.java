@@ -0,0 +1,109 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeqTest {
+
+    static Seq<Integer> range(int n) {
+        var values = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        return Seq.of(values);
+    }
+
+    @Test
+    void equalsAndHashCodeFollowList() {
+        var seq = range(1_000);
+        var list = new JList<>(seq);
+        var array = new ArrayList<>(seq);
+        assertEquals(seq, list);
+        assertEquals(list, seq);
+        assertEquals(seq, array);
+        assertEquals(array.hashCode(), seq.hashCode());
+        assertEquals(list.hashCode(), seq.hashCode());
+        assertEquals(seq, range(1_000));
+        assertNotEquals(seq, range(999));
+        assertNotEquals(seq, seq.updated(500, -1));
+        assertEquals(Seq.of(), List.of());
+        assertEquals(1, Seq.empty().hashCode());
+        assertEquals(Seq.of((Integer) null), Arrays.asList((Integer) null));
+    }
+
+    @Test
+    void ofDoesNotKeepTheArray() {
+        var values = new Integer[] { 1, 2, 3 };
+        var seq = Seq.of(values);
+        values[0] = 9;
+        assertEquals(List.of(1, 2, 3), seq);
+    }
+
+    @Test
+    void splitAtConcatAndSubListLeaveTheReceiverAlone() {
+        var seq = range(500);
+        var rnd = new Random(5);
+        for (int i = 0; i < 100; i++) {
+            var at = rnd.nextInt(501);
+            var sp = seq.splitAt(at);
+            assertEquals(seq.subList(0, at), sp.left());
+            assertEquals(seq.subList(at, 500), sp.right());
+            assertEquals(seq, sp.left().concat(sp.right()));
+            var from = rnd.nextInt(501);
+            var to = from + rnd.nextInt(501 - from);
+            assertEquals(new ArrayList<>(seq).subList(from, to), seq.subList(from, to));
+        }
+        assertEquals(range(500), seq);
+        assertSame(seq, seq.subList(0, 500));
+        assertSame(seq, seq.concat(Seq.empty()));
+        assertSame(seq, Seq.<Integer>empty().concat(seq));
+        assertThrows(IndexOutOfBoundsException.class, () -> seq.splitAt(501));
+    }
+
+    @Test
+    void editsReturnNewSequences() {
+        var seq = Seq.of(1, 2, 3);
+        assertEquals(List.of(0, 1, 2, 3), seq.prepend(0));
+        assertEquals(List.of(1, 2, 3, 4), seq.append(4));
+        assertEquals(List.of(2, 3), seq.tail());
+        assertEquals(List.of(1, 2), seq.init());
+        assertEquals(List.of(1, 9, 3), seq.updated(1, 9));
+        assertEquals(List.of(1, 2, 9, 3), seq.inserted(2, 9));
+        assertEquals(List.of(1, 3), seq.removed(1));
+        assertEquals(List.of(1, 2, 3), seq);
+        assertThrows(UnsupportedOperationException.class, () -> seq.add(4));
+        assertThrows(UnsupportedOperationException.class, () -> seq.set(0, 4));
+        assertThrows(NoSuchElementException.class, () -> Seq.empty().tail());
+    }
+
+    @Test
+    void fromSharesButNeverAliasesAList() {
+        var list = new JList<Integer>();
+        for (int i = 0; i < 2_000; i++) {
+            list.add(i);
+        }
+        var seq = Seq.from(list);
+        assertSame(list.finger(), seq.finger());
+        assertSame(seq, Seq.from(seq));
+
+        list.set(0, -1);
+        list.add(5, -5);
+        list.remove(1_000);
+        list.addFirst(-2);
+        var t = list.asTransient();
+        for (int i = 0; i < 2_000; i++) {
+            t.set(i, 0);
+        }
+        t.add(7);
+        assertEquals(2_002, t.persistent().size());
+
+        assertEquals(range(2_000), seq);
+        var back = seq.toJList();
+        back.set(3, 33);
+        assertEquals(3, seq.get(3));
+    }
+
+}
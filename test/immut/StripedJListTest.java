@@ -0,0 +1,145 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedJListTest {
+
+    static final int WRITERS = 6;
+    static final int PER_WRITER = 20_000;
+
+    // element i of writer w
+    static int element(int w, int i) {
+        return w * PER_WRITER + i;
+    }
+
+    // each writer adds its elements in order, one by one or in small batches, and after each step publishes
+    // how many it has added; readers run until the writers are done
+    static void run(StripedJList<Integer> list, AtomicIntegerArray published, Runnable reader) throws Exception {
+        var pool = Executors.newFixedThreadPool(WRITERS + 1);
+        try {
+            var start = new CountDownLatch(1);
+            var writers = new ArrayList<Future<?>>();
+            for (int w = 0; w < WRITERS; w++) {
+                var id = w;
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    var rnd = new Random(id);
+                    int i = 0;
+                    while (i < PER_WRITER) {
+                        if (rnd.nextInt(4) == 0) {
+                            var batch = new ArrayList<Integer>();
+                            for (int k = Math.min(PER_WRITER, i + 1 + rnd.nextInt(16)); i < k; i++) {
+                                batch.add(element(id, i));
+                            }
+                            list.addAll(batch);
+                        } else {
+                            list.add(element(id, i));
+                            i += 1;
+                        }
+                        published.set(id, i);
+                    }
+                    return null;
+                }));
+            }
+            var done = new AtomicBoolean();
+            var readerDone = pool.submit(() -> {
+                start.await();
+                while (!done.get()) {
+                    reader.run();
+                }
+                return null;
+            });
+            start.countDown();
+            for (var f : writers) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            readerDone.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // the elements of each writer in s appear in the order it added them, starting from its first
+    static int[] checkPerWriterOrder(List<Integer> s) {
+        var next = new int[WRITERS];
+        for (var x : s) {
+            var w = x / PER_WRITER;
+            assertEquals(next[w], x % PER_WRITER, "writer " + w + " out of order");
+            next[w] += 1;
+        }
+        return next;
+    }
+
+    @Test
+    void everyThreadsAddsKeepTheirOrder() throws Exception {
+        var list = new StripedJList<Integer>(2);
+        var published = new AtomicIntegerArray(WRITERS);
+        run(list, published, list::fold);
+        var all = list.snapshot();
+        assertEquals(WRITERS * PER_WRITER, all.size());
+        var counts = checkPerWriterOrder(all);
+        for (int w = 0; w < WRITERS; w++) {
+            assertEquals(PER_WRITER, counts[w]);
+        }
+    }
+
+    @Test
+    void publishedAddsAreVisibleToReads() throws Exception {
+        var list = new StripedJList<Integer>(4);
+        var published = new AtomicIntegerArray(WRITERS);
+        var reads = new AtomicInteger();
+        run(list, published, () -> {
+            // anything a writer added before publishing the count must be in a read that saw the count
+            var seen = new int[WRITERS];
+            for (int w = 0; w < WRITERS; w++) {
+                seen[w] = published.get(w);
+            }
+            var counts = checkPerWriterOrder(list.snapshot());
+            for (int w = 0; w < WRITERS; w++) {
+                assertTrue(counts[w] >= seen[w], "writer " + w + " published " + seen[w] + ", read " + counts[w]);
+            }
+            reads.incrementAndGet();
+        });
+        assertTrue(reads.get() > 0);
+    }
+
+    @Test
+    void snapshotsOnlyGrowAtTheEnd() throws Exception {
+        var list = new StripedJList<Integer>(3);
+        var published = new AtomicIntegerArray(WRITERS);
+        var last = new Seq<?>[] { Seq.empty() };
+        run(list, published, () -> {
+            var s = list.snapshot();
+            var prev = last[0];
+            assertTrue(s.size() >= prev.size());
+            assertEquals(prev, s.subList(0, prev.size()));
+            last[0] = s;
+        });
+        var end = list.snapshot();
+        assertEquals(last[0], end.subList(0, last[0].size()));
+        assertEquals(WRITERS * PER_WRITER, end.size());
+    }
+
+    @Test
+    void onlyAppendsAreSupported() {
+        var list = new StripedJList<Integer>(1);
+        list.add(1);
+        assertFalse(list.addAll(List.of()));
+        list.addAll(List.of(2, 3));
+        assertEquals(List.of(1, 2, 3), list);
+        assertEquals(1, list.indexOf(2));
+        assertThrows(UnsupportedOperationException.class, () -> list.set(0, 5));
+        assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new StripedJList<Integer>(0));
+    }
+
+}
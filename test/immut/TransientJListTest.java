@@ -0,0 +1,154 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.management.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+class TransientJListTest {
+
+    @Test
+    void editsMatchArrayList() {
+        var rnd = new Random(13);
+        var t = new JList<Integer>().asTransient();
+        var ref = new ArrayList<Integer>();
+        for (int i = 0; i < 20_000; i++) {
+            switch (rnd.nextInt(8)) {
+                case 0 -> {
+                    t.add(0, i);
+                    ref.add(0, i);
+                }
+                case 1 -> {
+                    if (!ref.isEmpty()) {
+                        var at = rnd.nextInt(ref.size());
+                        assertEquals(ref.set(at, i), t.set(at, i));
+                    }
+                }
+                case 2 -> {
+                    var at = rnd.nextInt(ref.size() + 1);
+                    t.add(at, i);
+                    ref.add(at, i);
+                }
+                case 3 -> {
+                    if (!ref.isEmpty()) {
+                        var at = rnd.nextInt(ref.size());
+                        assertEquals(ref.remove(at), t.remove(at));
+                    }
+                }
+                default -> {
+                    t.add(i);
+                    ref.add(i);
+                }
+            }
+            assertEquals(ref.size(), t.size());
+        }
+        assertEquals(ref, t);
+        assertEquals(ref, new ArrayList<>(t.persistent()));
+    }
+
+    @Test
+    void sourceListNeverChanges() {
+        var values = new ArrayList<Integer>();
+        for (int i = 0; i < 5_000; i++) {
+            values.add(i);
+        }
+        var source = new JList<>(values);
+        var t = source.asTransient();
+        for (int i = 0; i < source.size(); i += 7) {
+            t.set(i, -i);
+        }
+        t.add(0, -1);
+        t.remove(t.size() / 2);
+        for (int i = 0; i < 1_000; i++) {
+            t.add(i);
+        }
+        var edited = t.persistent();
+        assertEquals(values, new ArrayList<>(source));
+        assertEquals(values.size() + 1_000, edited.size());
+        assertEquals(-7, edited.get(8));
+    }
+
+    @Test
+    void usedAfterPersistentThrows() {
+        var t = new JList<Integer>().asTransient();
+        t.add(1);
+        t.persistent();
+        assertThrows(IllegalStateException.class, () -> t.add(2));
+        assertThrows(IllegalStateException.class, () -> t.get(0));
+    }
+
+    @Test
+    void repeatedEditsAtOneSpotDoNotAllocate() {
+        var mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(mx.isThreadAllocatedMemorySupported());
+        var values = new ArrayList<Integer>();
+        for (int i = 0; i < 100_000; i++) {
+            values.add(i);
+        }
+        var t = new JList<>(values).asTransient();
+        Integer v = -1;
+        int at = 31_337;
+        // the first round takes ownership of the path and may split the leaf once
+        for (int i = 0; i < 10_000; i++) {
+            edit(t, at, v);
+        }
+        var before = mx.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 10_000; i++) {
+            edit(t, at, v);
+        }
+        var allocated = mx.getCurrentThreadAllocatedBytes() - before;
+        // copying a path of a 100k-element tree costs hundreds of bytes per edit
+        assertTrue(allocated < 10_000, allocated + " bytes for 30k edits");
+        assertEquals(values.size(), t.size());
+        assertEquals(v, t.get(at));
+    }
+
+    private static void edit(TransientJList<Integer> t, int at, Integer v) {
+        t.set(at, v);
+        t.add(at, v);
+        t.remove(at);
+    }
+
+    @Test
+    void sharedNodesNeverChange() {
+        var rnd = new Random(4);
+        var values = new ArrayList<Integer>();
+        for (int i = 0; i < 3_000; i++) {
+            values.add(i);
+        }
+        var source = new JList<>(values);
+        var sessions = List.of(source.asTransient(), source.asTransient());
+        var refs = List.of(new ArrayList<>(values), new ArrayList<>(values));
+        for (int i = 0; i < 20_000; i++) {
+            var s = rnd.nextInt(2);
+            var t = sessions.get(s);
+            var ref = refs.get(s);
+            var at = rnd.nextInt(ref.size());
+            switch (rnd.nextInt(3)) {
+                case 0 -> assertEquals(ref.set(at, -i), t.set(at, -i));
+                case 1 -> {
+                    t.add(at, -i);
+                    ref.add(at, -i);
+                }
+                default -> assertEquals(ref.remove(at), t.remove(at));
+            }
+        }
+        assertEquals(values, new ArrayList<>(source));
+        var first = sessions.get(0).persistent();
+        assertEquals(refs.get(0), new ArrayList<>(first));
+        assertEquals(refs.get(1), new ArrayList<>(sessions.get(1).persistent()));
+        // a session over a finished list leaves that list alone as well
+        var t = first.asTransient();
+        for (int i = 0; i < first.size(); i += 3) {
+            t.set(i, 0);
+            t.add(i, 0);
+            t.remove(i + 1);
+        }
+        assertEquals(refs.get(0), new ArrayList<>(first));
+        assertEquals(values, new ArrayList<>(source));
+    }
+
+}
@@ -0,0 +1,113 @@
+package immut;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedJListTest {
+
+    @Test
+    void undoAndRedoWalkTheHistory() {
+        var l = new VersionedJList<Integer>();
+        l.add(1);
+        l.add(2);
+        l.set(0, 5);
+        assertEquals(List.of(5, 2), l);
+        assertTrue(l.undo());
+        assertEquals(List.of(1, 2), l);
+        assertTrue(l.undo());
+        assertTrue(l.undo());
+        assertFalse(l.undo());
+        assertEquals(List.of(), l);
+        assertTrue(l.redo());
+        assertEquals(List.of(1), l);
+        l.add(3);
+        assertFalse(l.canRedo());
+        assertEquals(List.of(0L, 1L, 4L), new ArrayList<>(l.versions()));
+        assertThrows(NoSuchElementException.class, () -> l.at(2));
+    }
+
+    @Test
+    void oldVersionsAreEvicted() {
+        var l = new VersionedJList<Integer>(5, Long.MAX_VALUE);
+        for (int i = 0; i < 20; i++) {
+            l.add(i);
+        }
+        assertEquals(List.of(16L, 17L, 18L, 19L, 20L), new ArrayList<>(l.versions()));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15), l.at(16));
+        assertThrows(NoSuchElementException.class, () -> l.at(15));
+    }
+
+    @Test
+    void taggedVersionsAreNotEvicted() {
+        var l = new VersionedJList<Integer>(4, Long.MAX_VALUE);
+        l.add(0);
+        l.tag("first");
+        var tagged = l.version();
+        for (int i = 1; i < 50; i++) {
+            l.add(i);
+        }
+        assertEquals(List.of(tagged, 48L, 49L, 50L), new ArrayList<>(l.versions()));
+        assertEquals(List.of(0), l.at(tagged));
+        assertEquals(List.of(0), l.at("first"));
+
+        // the tag no longer holds the version, the next change evicts it as the oldest
+        l.untag("first");
+        assertTrue(l.versions().contains(tagged));
+        l.add(50);
+        assertEquals(List.of(48L, 49L, 50L, 51L), new ArrayList<>(l.versions()));
+        assertThrows(NoSuchElementException.class, () -> l.at(tagged));
+        assertThrows(NoSuchElementException.class, () -> l.at("first"));
+    }
+
+    @Test
+    void retainedBytesStayWithinTheBoundWithoutTags() {
+        var l = new VersionedJList<Integer>(Integer.MAX_VALUE, 10_000);
+        for (int i = 0; i < 1_000; i++) {
+            l.add(i);
+            assertTrue(l.retainedBytes() <= 10_000 || l.versions().size() == 1);
+        }
+        assertEquals(1_000, l.size());
+    }
+
+    @Test
+    void taggedRedoSideSurvivesAFork() {
+        var l = new VersionedJList<Integer>();
+        l.add(1);
+        l.add(2);
+        l.tag("two");
+        var two = l.version();
+        var bytes = l.retainedBytes();
+        l.undo();
+        l.add(3);
+        assertEquals(List.of(1, 3), l);
+        assertFalse(l.canRedo());
+        assertFalse(l.versions().contains(two));
+        assertEquals(List.of(1, 2), l.at(two));
+        assertEquals(List.of(1, 2), l.at("two"));
+        assertTrue(l.retainedBytes() > bytes);
+
+        var before = l.retainedBytes();
+        l.untag("two");
+        assertTrue(l.retainedBytes() < before);
+        assertThrows(NoSuchElementException.class, () -> l.at(two));
+    }
+
+    @Test
+    void retaggingMovesTheName() {
+        var l = new VersionedJList<Integer>(3, Long.MAX_VALUE);
+        l.add(1);
+        l.tag("t");
+        var first = l.version();
+        l.add(2);
+        l.tag("t");
+        for (int i = 0; i < 10; i++) {
+            l.add(i);
+        }
+        assertEquals(List.of(1, 2), l.at("t"));
+        assertThrows(NoSuchElementException.class, () -> l.at(first));
+    }
+
+}